@@ -0,0 +1,111 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.AdaptiveExecution;
+import adrspo.stream.IntRangeList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Existing test scenarios over {@code size} integers on a dedicated pool of {@code workers} threads: always
+ * sequential, always parallel, and left to {@link AdaptiveExecution}.
+ * <ul>
+ * <li>{@code reduceThreeArg}: sum of squares, a few nanoseconds per element.</li>
+ * <li>{@code allMatch}: the {@code oneToHundredIntegers()} check that every element is below a bound, which
+ * holds, so the whole source is scanned.</li>
+ * <li>{@code filter}: counting the even elements with a costly predicate; {@code tokens} sets its cost
+ * through {@link Blackhole#consumeCPU}, which moves the leaf size.</li>
+ * </ul>
+ * The dedicated pool is only chosen for blocking pipelines, which are covered by the tests instead.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="AdaptiveExecutionBenchmark -p workers=4,16 -p tokens=10,1000"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptiveExecutionBenchmark {
+
+    @Param({"100", "10000", "1000000", "100000000"})
+    private int size;
+
+    @Param({"4"})
+    private int workers;
+
+    @Param({"10"})
+    private long tokens;
+
+    private IntRangeList source;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        source = IntRangeList.range(0, size);
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long sequential() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> source.stream().reduce(0L, (sum, x) -> sum + (long) x * x, Long::sum)).get();
+    }
+
+    @Benchmark
+    public long parallel() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> source.parallelStream().reduce(0L, (sum, x) -> sum + (long) x * x, Long::sum)).get();
+    }
+
+    @Benchmark
+    public long adaptive() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> AdaptiveExecution.execute("reduceThreeArg-" + size, source.stream(),
+                s -> s.reduce(0L, (sum, x) -> sum + (long) x * x, Long::sum))).get();
+    }
+
+    @Benchmark
+    public boolean allMatchSequential() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> source.stream().allMatch(x -> x < size)).get();
+    }
+
+    @Benchmark
+    public boolean allMatchParallel() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> source.parallelStream().allMatch(x -> x < size)).get();
+    }
+
+    @Benchmark
+    public boolean allMatchAdaptive() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> AdaptiveExecution.execute("allMatch-" + size, source.stream(),
+                s -> s.allMatch(x -> x < size))).get();
+    }
+
+    @Benchmark
+    public long filterSequential() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> source.stream().filter(this::costlyEven).count()).get();
+    }
+
+    @Benchmark
+    public long filterParallel() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> source.parallelStream().filter(this::costlyEven).count()).get();
+    }
+
+    @Benchmark
+    public long filterAdaptive() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> AdaptiveExecution.execute("filter-" + size + "-" + tokens, source.stream(),
+                s -> s.filter(this::costlyEven).count())).get();
+    }
+
+    private boolean costlyEven(Integer element) {
+        Blackhole.consumeCPU(tokens);
+        return element % 2 == 0;
+    }
+}
@@ -0,0 +1,58 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.BoundedDistinct;
+import adrspo.stream.SpillCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@code distinct()} over 100M generated elements: the JDK stage against the exact (spilling) and
+ * approximate (Bloom filter) stages of {@link BoundedDistinct}. {@link PeakHeap} reports the peak heap.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="BoundedDistinctBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+public class BoundedDistinctBenchmark {
+
+    @Param({"100000000"})
+    private long size;
+
+    @Param({"20000000"})
+    private int cardinality;
+
+    @Param({"1000000"})
+    private int maxElementsInMemory;
+
+    @Benchmark
+    public long jdkDistinct(PeakHeap peakHeap) {
+        return source().distinct().count();
+    }
+
+    @Benchmark
+    public long exactDistinct(PeakHeap peakHeap) {
+        try (Stream<Long> distinct = BoundedDistinct.exact(source(), SpillCodec.LONG, maxElementsInMemory)) {
+            return distinct.count();
+        }
+    }
+
+    @Benchmark
+    public long approximateDistinct(PeakHeap peakHeap) {
+        return BoundedDistinct.approximate(source(), cardinality, 0.01).count();
+    }
+
+
+    private Stream<Long> source() {
+        SplittableRandom random = new SplittableRandom(42);
+        return Stream.generate(() -> (long) random.nextInt(cardinality)).limit(size);
+    }
+}
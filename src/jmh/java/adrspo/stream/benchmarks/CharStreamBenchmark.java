@@ -0,0 +1,93 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.CharStream;
+import adrspo.stream.IntLongHashMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Char-level processing of {@code lines} lines of generated text (about 4 MB by default):
+ * {@code flatMap(s -> s.chars().boxed().map(...))} against {@link CharStream}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CharStreamBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharStreamBenchmark {
+
+    @Param({"50000"})
+    private int lines;
+
+    private List<String> text;
+    private List<byte[]> bytes;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String alphabet = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ .,;";
+        text = IntStream.range(0, lines)
+                .mapToObj(i -> random.ints(80, 0, alphabet.length())
+                        .mapToObj(alphabet::charAt)
+                        .map(String::valueOf)
+                        .collect(Collectors.joining()))
+                .collect(Collectors.toList());
+        bytes = text.stream().map(line -> line.getBytes(StandardCharsets.ISO_8859_1)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long boxedCountLetters() {
+        return text.stream().flatMap(s -> s.chars().boxed().map(c -> (char) c.intValue())).filter(Character::isLetter).count();
+    }
+
+    @Benchmark
+    public long charStreamCountLetters() {
+        return CharStream.flatMapToChar(text.stream(), Function.identity()).filter(Character::isLetter).count();
+    }
+
+    @Benchmark
+    public long latin1CountLetters() {
+        return CharStream.flatMapLatin1ToChar(bytes.stream(), Function.identity()).filter(Character::isLetter).count();
+    }
+
+    @Benchmark
+    public Map<Character, Long> boxedHistogram() {
+        return text.stream().flatMap(s -> s.chars().boxed().map(c -> (char) c.intValue()))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public IntLongHashMap charStreamHistogram() {
+        return CharStream.flatMapToChar(text.stream(), Function.identity()).histogram();
+    }
+
+    @Benchmark
+    public String boxedCollect() {
+        return text.stream().flatMap(s -> s.chars().boxed().map(c -> (char) c.intValue()))
+                .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
+                .toString();
+    }
+
+    @Benchmark
+    public String charStreamCollect() {
+        return CharStream.flatMapToChar(text.stream(), Function.identity()).collect(new StringBuilder()).toString();
+    }
+
+    @Benchmark
+    public char[] charStreamToCharArray() {
+        return CharStream.flatMapToChar(text.stream(), Function.identity()).toCharArray();
+    }
+}
@@ -0,0 +1,68 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.CompensatedStatistics;
+import adrspo.stream.CompensatedSums;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sum and summary statistics of {@code size} doubles: the JDK's Kahan-compensated
+ * {@code DoubleStream.sum()}/{@code summaryStatistics()} against the four-lane Neumaier loop of
+ * {@link CompensatedSums}, sequential and parallel.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="CompensatedSumsBenchmark -p size=1000000,100000000"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompensatedSumsBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        values = new SplittableRandom(42).doubles(size, -1e6, 1e6).toArray();
+    }
+
+    @Benchmark
+    public double jdkSum() {
+        return Arrays.stream(values).sum();
+    }
+
+    @Benchmark
+    public double compensatedSum() {
+        return CompensatedSums.sum(values);
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics jdkSummaryStatistics() {
+        return Arrays.stream(values).summaryStatistics();
+    }
+
+    @Benchmark
+    public CompensatedStatistics compensatedSummaryStatistics() {
+        return CompensatedSums.summaryStatistics(values);
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics jdkParallelSummaryStatistics() {
+        return Arrays.stream(values).parallel().summaryStatistics();
+    }
+
+    @Benchmark
+    public CompensatedStatistics compensatedParallelSummaryStatistics() {
+        return CompensatedSums.parallelSummaryStatistics(values);
+    }
+}
@@ -0,0 +1,95 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.Concatenation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@code sources} lists of {@code sourceSize} integers joined by folding {@code Stream.concat} against
+ * {@link Concatenation#concatAll}, then collected with {@code toArray} or summed in parallel on a
+ * dedicated pool of {@code workers} threads.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ConcatenationBenchmark -p workers=4,16"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public class ConcatenationBenchmark {
+
+    @Param({"10000"})
+    private int sources;
+
+    @Param({"100"})
+    private int sourceSize;
+
+    @Param({"4"})
+    private int workers;
+
+    private List<List<Integer>> lists;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        lists = new ArrayList<>(sources);
+        for (int source = 0; source < sources; source++) {
+            Integer[] elements = new Integer[sourceSize];
+            int offset = source * sourceSize;
+            Arrays.setAll(elements, i -> offset + i);
+            lists.add(Arrays.asList(elements));
+        }
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object[] foldedConcatToArray() {
+        return folded().toArray();
+    }
+
+    @Benchmark
+    public Object[] concatAllToArray() {
+        return concatAll().toArray();
+    }
+
+    @Benchmark
+    public long foldedConcatParallelSum() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> folded().parallel().mapToLong(Integer::longValue).sum()).get();
+    }
+
+    @Benchmark
+    public long concatAllParallelSum() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> concatAll().parallel().mapToLong(Integer::longValue).sum()).get();
+    }
+
+    private Stream<Integer> folded() {
+        Stream<Integer> joined = Stream.empty();
+        for (List<Integer> list : lists) {
+            joined = Stream.concat(joined, list.stream());
+        }
+        return joined;
+    }
+
+    private Stream<Integer> concatAll() {
+        List<Stream<Integer>> streams = new ArrayList<>(lists.size());
+        for (List<Integer> list : lists) {
+            streams.add(list.stream());
+        }
+        return Concatenation.concatAll(streams);
+    }
+}
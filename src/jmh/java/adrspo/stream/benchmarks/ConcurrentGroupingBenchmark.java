@@ -0,0 +1,68 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.ConcurrentCollectors;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Grouping 10M Zipf-distributed keys on a dedicated pool of {@code workers} threads: the JDK's
+ * {@code groupingBy}/{@code groupingByConcurrent} with {@code counting()} against
+ * {@link ConcurrentCollectors#groupingCounting}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ConcurrentGroupingBenchmark -p workers=1,4,16,32"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentGroupingBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"16", "32"})
+    private int workers;
+
+    @Param({"1.2"})
+    private double zipfExponent;
+
+    private Integer[] keys;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        keys = Arrays.stream(Zipf.keys(size, 10000, zipfExponent, 42)).boxed().toArray(Integer[]::new);
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> jdkGroupingBy() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> Arrays.stream(keys).parallel().collect(groupingBy(key -> key, counting()))).get();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> jdkGroupingByConcurrent() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> Arrays.stream(keys).parallel().collect(groupingByConcurrent(key -> key, counting()))).get();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> stripedGroupingCounting() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> Arrays.stream(keys).parallel().collect(ConcurrentCollectors.groupingCounting(key -> key))).get();
+    }
+}
@@ -0,0 +1,60 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.ConcurrentMapping;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Throughput of a mapper that blocks for {@code latencyMillis}: {@code parallel().map} on the common pool
+ * against {@code mapConcurrent} at increasing {@code maxInFlight}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ConcurrentMappingBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentMappingBenchmark {
+
+    @Param({"200"})
+    private int size;
+
+    @Param({"2"})
+    private int latencyMillis;
+
+    @Param({"1", "8", "64", "256"})
+    private int maxInFlight;
+
+    @Benchmark
+    @OperationsPerInvocation(200)
+    public long parallelMap() {
+        return IntStream.range(0, size).boxed().parallel().map(this::blockingCall).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(200)
+    public long orderedMapConcurrent() {
+        return ConcurrentMapping.mapConcurrent(IntStream.range(0, size).boxed(), this::blockingCall, maxInFlight, true).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(200)
+    public long unorderedMapConcurrent() {
+        return ConcurrentMapping.mapConcurrent(IntStream.range(0, size).boxed(), this::blockingCall, maxInFlight, false).mapToLong(Integer::longValue).sum();
+    }
+
+    private Integer blockingCall(Integer value) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,74 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.ExternalSort;
+import adrspo.stream.SpillCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@code sorted()} over 10M random ints: the JDK stage against the external merge sort, the radix sort fast
+ * path, and {@code sorted().limit(k)} against the bounded heap. {@link PeakHeap} reports the peak heap.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ExternalSortBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ExternalSortBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"1000000"})
+    private int runSize;
+
+    @Param({"100"})
+    private int k;
+
+    @Benchmark
+    public long jdkSorted(PeakHeap peakHeap) {
+        return source().boxed().sorted().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long externalSorted(PeakHeap peakHeap) {
+        try (Stream<Integer> sorted = ExternalSort.sorted(source().boxed(), SpillCodec.INT, runSize)) {
+            return sorted.mapToLong(Integer::longValue).sum();
+        }
+    }
+
+    @Benchmark
+    public long jdkSortedInts() {
+        return source().sorted().asLongStream().sum();
+    }
+
+    @Benchmark
+    public long radixSortedInts() {
+        return ExternalSort.sorted(source()).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long jdkSortedLimit() {
+        return source().boxed().sorted(Comparator.reverseOrder()).limit(k).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long sortedLimit() {
+        return ExternalSort.sortedLimit(source().boxed(), Comparator.reverseOrder(), k).mapToLong(Integer::longValue).sum();
+    }
+
+    private IntStream source() {
+        SplittableRandom random = new SplittableRandom(42);
+        return IntStream.generate(random::nextInt).limit(size);
+    }
+}
@@ -0,0 +1,101 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.FusedPipeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code filter}, {@code map}, {@code mapToDouble} and {@code flatMap} scenarios of
+ * {@code StreamClassTraining}, scaled to {@code size} elements: JDK streams against {@link FusedPipeline}s
+ * built once in setup.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="FusedPipelineBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedPipelineBenchmark {
+
+    @Param({"100", "100000"})
+    private int size;
+
+    private List<String> numbers;
+    private List<String> words;
+
+    private FusedPipeline.ObjectPipeline<Integer> fusedFilter;
+    private FusedPipeline.ObjectPipeline<Integer> fusedMap;
+    private FusedPipeline.DoublePipeline fusedMapToDouble;
+    private FusedPipeline.ObjectPipeline<Character> fusedFlatMap;
+    private FusedPipeline.LongPipeline fusedReduce;
+
+    @Setup
+    public void setUp() {
+        numbers = IntStream.range(0, size).mapToObj(Integer::toString).collect(Collectors.toList());
+        words = IntStream.range(0, size / 4).mapToObj(i -> "flat" + i % 10).collect(Collectors.toList());
+        fusedFilter = FusedPipeline.range(1, size + 1).filter(x -> x % 20 == 0).mapToObj(Integer::valueOf);
+        fusedMap = FusedPipeline.of(numbers).map(Integer::parseInt);
+        fusedMapToDouble = FusedPipeline.of(numbers).mapToDouble(Double::parseDouble);
+        fusedReduce = FusedPipeline.of(numbers).mapToInt(Integer::parseInt).filter(x -> x % 3 != 0).mapToLong(x -> (long) x * x);
+        fusedFlatMap = FusedPipeline.of(words).flatMapToInt(s -> s.chars().toArray()).mapToObj(c -> (char) c);
+    }
+
+    @Benchmark
+    public List<Integer> streamFilter() {
+        return IntStream.rangeClosed(1, size).mapToObj(Integer::valueOf).filter(x -> x % 20 == 0).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> fusedFilter() {
+        return fusedFilter.toList();
+    }
+
+    @Benchmark
+    public List<Integer> streamMap() {
+        return numbers.stream().map(Integer::parseInt).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> fusedMap() {
+        return fusedMap.toList();
+    }
+
+    @Benchmark
+    public OptionalDouble streamMapToDouble() {
+        return numbers.stream().mapToDouble(Double::parseDouble).average();
+    }
+
+    @Benchmark
+    public OptionalDouble fusedMapToDouble() {
+        return fusedMapToDouble.average();
+    }
+
+    @Benchmark
+    public List<Character> streamFlatMap() {
+        return words.stream().flatMap(s -> s.chars().boxed().map(c -> (char) c.intValue())).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Character> fusedFlatMap() {
+        return fusedFlatMap.toList();
+    }
+
+    @Benchmark
+    public long streamReduce() {
+        return numbers.stream().mapToInt(Integer::parseInt).filter(x -> x % 3 != 0).mapToLong(x -> (long) x * x).reduce(0L, Long::sum);
+    }
+
+    @Benchmark
+    public long fusedReduce() {
+        return fusedReduce.reduce(0L, Long::sum);
+    }
+}
@@ -0,0 +1,83 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.JoiningCollectors;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@code Collectors.joining(",", "[", "]")} against {@link JoiningCollectors}, sequential and parallel,
+ * plus writing the joined text to a file with and without building the String first.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="JoiningBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoiningBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<String> words;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        words = IntStream.range(0, size).mapToObj(i -> "word" + i).collect(Collectors.toList());
+        file = Files.createTempFile("joining", ".txt");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String jdkJoining() {
+        return words.stream().collect(Collectors.joining(",", "[", "]"));
+    }
+
+    @Benchmark
+    public String presizedJoining() {
+        return words.stream().collect(JoiningCollectors.joining(",", "[", "]"));
+    }
+
+    @Benchmark
+    public String jdkParallelJoining() {
+        return words.parallelStream().collect(Collectors.joining(",", "[", "]"));
+    }
+
+    @Benchmark
+    public String presizedParallelJoining() {
+        return words.parallelStream().collect(JoiningCollectors.joining(",", "[", "]"));
+    }
+
+    @Benchmark
+    public long jdkJoiningToFile() throws IOException {
+        String joined = words.stream().collect(Collectors.joining(",", "[", "]"));
+        Files.write(file, joined.getBytes(StandardCharsets.UTF_8));
+        return Files.size(file);
+    }
+
+    @Benchmark
+    public long joiningToChannel() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return words.stream().collect(JoiningCollectors.joiningTo(channel, StandardCharsets.UTF_8, ",", "[", "]"));
+        }
+    }
+}
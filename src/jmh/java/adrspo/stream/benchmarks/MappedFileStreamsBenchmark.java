@@ -0,0 +1,101 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.MappedFileStreams;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@code Files.lines} against {@link MappedFileStreams#lines(Path)} on a generated file of decimal numbers,
+ * one per line. The file is generated once per size under {@code java.io.tmpdir} and reused across runs.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MappedFileStreamsBenchmark -p fileSizeMb=4096"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MappedFileStreamsBenchmark {
+
+    @Param({"256", "4096"})
+    private int fileSizeMb;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private final MappedFileStreams mappedFileStreams = new MappedFileStreams();
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Paths.get(System.getProperty("java.io.tmpdir"), "mapped-file-streams-" + fileSizeMb + "mb.txt");
+        long targetSize = (long) fileSizeMb << 20;
+        if (Files.exists(file) && Files.size(file) >= targetSize) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        long written = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            while (written < targetSize) {
+                String line = Integer.toString(random.nextInt(Integer.MAX_VALUE));
+                writer.write(line);
+                writer.write('\n');
+                written += line.length() + 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public long countFilesLines() throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.US_ASCII)) {
+            return configure(lines).count();
+        }
+    }
+
+    @Benchmark
+    public long countMapped() throws IOException {
+        return configure(mappedFileStreams.lines(file)).count();
+    }
+
+    @Benchmark
+    public long filterFilesLines() throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.US_ASCII)) {
+            return configure(lines).filter(line -> line.charAt(0) == '7').count();
+        }
+    }
+
+    @Benchmark
+    public long filterMapped() throws IOException {
+        return configure(mappedFileStreams.lines(file)).filter(line -> line.charAt(0) == '7').count();
+    }
+
+    @Benchmark
+    public long mapFilesLines() throws IOException {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.US_ASCII)) {
+            return configure(lines).mapToLong(Integer::parseInt).sum();
+        }
+    }
+
+    @Benchmark
+    public long mapMapped() throws IOException {
+        return configure(mappedFileStreams.lines(file)).mapToLong(line -> Integer.parseInt(line, 0, line.length(), 10)).sum();
+    }
+
+
+    private <T> Stream<T> configure(Stream<T> stream) {
+        return parallel ? stream.parallel() : stream;
+    }
+}
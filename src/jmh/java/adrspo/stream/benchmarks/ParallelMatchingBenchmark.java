@@ -0,0 +1,73 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.ParallelMatching;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code anyMatch} with a costly predicate over {@code size} elements whose single match sits at
+ * {@code matchAt} (a fraction of the source), on a dedicated pool of {@code workers} threads: a parallel
+ * JDK stream against {@link ParallelMatching}. {@code tokens} sets the predicate's cost through
+ * {@link Blackhole#consumeCPU}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ParallelMatchingBenchmark -p workers=4,16"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMatchingBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"0.0", "0.3", "0.5", "1.0"})
+    private double matchAt;
+
+    @Param({"4"})
+    private int workers;
+
+    @Param({"10"})
+    private long tokens;
+
+    private Integer[] elements;
+    private int match;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        elements = new Integer[size];
+        Arrays.setAll(elements, i -> i);
+        match = Math.min(size - 1, (int) (matchAt * size));
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public boolean jdkAnyMatch() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> Arrays.stream(elements).parallel().anyMatch(this::costly)).get();
+    }
+
+    @Benchmark
+    public boolean cancellingAnyMatch() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> ParallelMatching.anyMatch(Arrays.stream(elements), this::costly)).get();
+    }
+
+    private boolean costly(Integer element) {
+        Blackhole.consumeCPU(tokens);
+        return element == match;
+    }
+}
@@ -0,0 +1,64 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.ParallelParsing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The boxed three-argument {@code reduce} from {@code StreamClassTraining.reduceThreeArg} against
+ * {@link ParallelParsing}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ParallelParsingBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelParsingBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        values = IntStream.rangeClosed(1, size).mapToObj(Integer::toString).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public long boxedReduce() {
+        return Arrays.stream(values)
+                .parallel()
+                .reduce(0L,
+                        (x, y) -> x + Long.parseLong(y),
+                        Long::sum);
+    }
+
+    @Benchmark
+    public long mapToLongSum() {
+        return Arrays.stream(values)
+                .parallel()
+                .mapToLong(Long::parseLong)
+                .sum();
+    }
+
+    @Benchmark
+    public long summingParsedCollector() {
+        return Arrays.stream(values)
+                .parallel()
+                .collect(ParallelParsing.summingParsed());
+    }
+
+    @Benchmark
+    public long chunkedSum() {
+        return ParallelParsing.sum(values);
+    }
+}
@@ -0,0 +1,86 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.ParallelPrefixes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * {@code takeWhile}/{@code dropWhile} with a costly predicate over {@code size} elements that first fails
+ * at {@code cutAt} (a fraction of the list), on a dedicated pool of {@code workers} threads: an ordered
+ * parallel JDK stream against {@link ParallelPrefixes}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ParallelPrefixesBenchmark -p workers=1,4,16"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelPrefixesBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"0.5", "1.0"})
+    private double cutAt;
+
+    @Param({"4"})
+    private int workers;
+
+    @Param({"50"})
+    private long tokens;
+
+    private List<Integer> elements;
+    private int cut;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Integer[] values = new Integer[size];
+        Arrays.setAll(values, i -> i);
+        elements = Arrays.asList(values);
+        cut = (int) Math.min(size, cutAt * size);
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Integer> jdkTakeWhile() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> elements.parallelStream().takeWhile(this::costly).collect(toList())).get();
+    }
+
+    @Benchmark
+    public List<Integer> prefixTakeWhile() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> ParallelPrefixes.takeWhile(elements, this::costly).collect(toList())).get();
+    }
+
+    @Benchmark
+    public List<Integer> jdkDropWhile() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> elements.parallelStream().dropWhile(this::costly).collect(toList())).get();
+    }
+
+    @Benchmark
+    public List<Integer> prefixDropWhile() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> ParallelPrefixes.dropWhile(elements, this::costly).collect(toList())).get();
+    }
+
+    private boolean costly(Integer element) {
+        Blackhole.consumeCPU(tokens);
+        return element < cut;
+    }
+}
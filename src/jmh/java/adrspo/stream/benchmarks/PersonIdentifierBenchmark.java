@@ -0,0 +1,68 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.IdentifierStrategy;
+import adrspo.stream.Person;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Builds 10M {@link Person} objects on the common pool with each {@link IdentifierStrategy},
+ * with and without reading the identifier back.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PersonIdentifierBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersonIdentifierBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"SECURE_RANDOM", "SECURE_RANDOM_BINARY", "THREAD_LOCAL_RANDOM", "LAZY_SECURE_RANDOM", "LAZY_THREAD_LOCAL_RANDOM"})
+    private String strategyName;
+
+    @Param({"false", "true"})
+    private boolean readIdentifier;
+
+    private IdentifierStrategy strategy;
+
+    @Setup
+    public void setUp() {
+        switch (strategyName) {
+            case "SECURE_RANDOM":
+                strategy = IdentifierStrategy.SECURE_RANDOM;
+                break;
+            case "SECURE_RANDOM_BINARY":
+                strategy = IdentifierStrategy.SECURE_RANDOM_BINARY;
+                break;
+            case "THREAD_LOCAL_RANDOM":
+                strategy = IdentifierStrategy.THREAD_LOCAL_RANDOM;
+                break;
+            case "LAZY_SECURE_RANDOM":
+                strategy = IdentifierStrategy.lazy(IdentifierStrategy.SECURE_RANDOM_BINARY);
+                break;
+            case "LAZY_THREAD_LOCAL_RANDOM":
+                strategy = IdentifierStrategy.lazy(IdentifierStrategy.THREAD_LOCAL_RANDOM);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategyName);
+        }
+    }
+
+    @Benchmark
+    public void buildPeople(Blackhole blackhole) {
+        IntStream.range(0, size)
+                .parallel()
+                .mapToObj(i -> new Person("Foo Bar", strategy))
+                .forEach(person -> blackhole.consume(readIdentifier ? person.getIdentifier() : person));
+    }
+}
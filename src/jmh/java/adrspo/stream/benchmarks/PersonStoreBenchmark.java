@@ -0,0 +1,68 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.IntCollectors;
+import adrspo.stream.Person;
+import adrspo.stream.PersonStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Scanning heap {@link Person} objects against the off-heap {@link PersonStore}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PersonStoreBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class PersonStoreBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1000"})
+    private int distinctNames;
+
+    private List<Person> people;
+    private PersonStore store;
+
+    @Setup
+    public void setUp() {
+        people = new ArrayList<>(size);
+        store = new PersonStore(size);
+        for (int i = 0; i < size; i++) {
+            Person person = new Person("name" + i % distinctNames);
+            people.add(person);
+            store.add(person);
+        }
+    }
+
+    @Benchmark
+    public Object toMapOnHeap() {
+        return people.stream().collect(toMap(Person::getIdentifier, Person::getName));
+    }
+
+    @Benchmark
+    public Object countByNameOnHeap() {
+        return people.parallelStream().collect(groupingBy(Person::getName, counting()));
+    }
+
+    @Benchmark
+    public Object countByNameIdOffHeap() {
+        return store.flyweights().parallel().collect(IntCollectors.groupingByIntCounting(PersonStore.Flyweight::getNameId));
+    }
+
+    @Benchmark
+    public Object buildStore() {
+        return people.stream().collect(PersonStore.toPersonStore());
+    }
+}
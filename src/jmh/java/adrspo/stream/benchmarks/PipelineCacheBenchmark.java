@@ -0,0 +1,70 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.PipelineCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Repeated {@code groupingBy}/{@code partitioningBy} aggregations over an unchanged list of {@code size}
+ * strings, evaluated every time against memoized by {@link PipelineCache}. {@code changeEvery} bumps the
+ * source version every n-th call, so 1 measures the miss path including the cache's own overhead.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PipelineCacheBenchmark -p changeEvery=1,100"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineCacheBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"1", "100"})
+    private int changeEvery;
+
+    private List<String> words;
+    private PipelineCache cache;
+    private long calls;
+
+    @Setup
+    public void setUp() {
+        words = IntStream.range(0, size).mapToObj(i -> Integer.toString(i * 7919, 36)).collect(Collectors.toList());
+        cache = new PipelineCache(64, true);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingByUncached() {
+        return words.stream().collect(groupingBy(String::length, counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingByCached() {
+        return cache.get(words, version(), "groupingBy:length:counting", () -> words.stream().collect(groupingBy(String::length, counting())));
+    }
+
+    @Benchmark
+    public Map<Boolean, Long> partitioningByUncached() {
+        return words.stream().collect(partitioningBy(w -> w.charAt(0) < 'm', counting()));
+    }
+
+    @Benchmark
+    public Map<Boolean, Long> partitioningByCached() {
+        return cache.get(words, version(), "partitioningBy:firstBelowM:counting", () -> words.stream().collect(partitioningBy(w -> w.charAt(0) < 'm', counting())));
+    }
+
+    private long version() {
+        return calls++ / changeEvery;
+    }
+}
@@ -0,0 +1,66 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.PipelineMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Overhead of {@link PipelineMetrics}: the same filter/map/sum pipeline over {@code size} numeric strings,
+ * uninstrumented, instrumented while disabled, and instrumented while enabled.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PipelineMetricsBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineMetricsBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<String> numbers;
+
+    @Setup
+    public void setUp() {
+        numbers = IntStream.range(0, size).mapToObj(Integer::toString).collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        PipelineMetrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public long plain() {
+        return pipeline(numbers.stream());
+    }
+
+    @Benchmark
+    public long disabled() {
+        PipelineMetrics.setEnabled(false);
+        return pipeline(PipelineMetrics.instrument(numbers.stream(), "benchmark"));
+    }
+
+    @Benchmark
+    public long enabled() {
+        PipelineMetrics.setEnabled(true);
+        return pipeline(PipelineMetrics.instrument(numbers.stream(), "benchmark"));
+    }
+
+    private static long pipeline(Stream<String> numbers) {
+        return numbers
+                .filter(number -> number.length() > 2)
+                .map(Integer::valueOf)
+                .reduce(0L, (sum, value) -> sum + value, Long::sum);
+    }
+}
@@ -0,0 +1,92 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.IntCollectors;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Boxed {@link java.util.stream.Collectors} against {@link IntCollectors}. Every invocation is
+ * normalised per element, so {@code gc.alloc.rate.norm} under {@code -prof gc} reads as bytes per element.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PrimitiveCollectorsBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(PrimitiveCollectorsBenchmark.SIZE)
+public class PrimitiveCollectorsBenchmark {
+
+    static final int SIZE = 1_000_000;
+
+    @Param({"1000", "100000"})
+    private int distinctKeys;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private int[] values;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        values = new int[SIZE];
+        Arrays.setAll(values, i -> random.nextInt(distinctKeys));
+    }
+
+    @Benchmark
+    public Object groupingByCountingBoxed() {
+        return source().boxed().collect(groupingBy(x -> x % 100, counting()));
+    }
+
+    @Benchmark
+    public Object groupingCountingPrimitive() {
+        return IntCollectors.groupingCounting(x -> x % 100).collect(source());
+    }
+
+    @Benchmark
+    public Object partitioningByBoxed() {
+        return source().boxed().collect(partitioningBy(x -> x % 2 == 0));
+    }
+
+    @Benchmark
+    public Object partitioningIntArraysPrimitive() {
+        return IntCollectors.partitioningIntArrays(x -> x % 2 == 0).collect(source());
+    }
+
+    @Benchmark
+    public Object partitioningByCountingBoxed() {
+        return source().boxed().collect(partitioningBy(x -> x % 2 == 0, counting()));
+    }
+
+    @Benchmark
+    public Object partitioningCountingPrimitive() {
+        return IntCollectors.partitioningCounting(x -> x % 2 == 0).collect(source());
+    }
+
+    @Benchmark
+    public Object toSetBoxed() {
+        return source().boxed().collect(toSet());
+    }
+
+    @Benchmark
+    public Object toIntSetPrimitive() {
+        return IntCollectors.toIntSet().collect(source());
+    }
+
+
+    private IntStream source() {
+        IntStream stream = Arrays.stream(values);
+        return parallel ? stream.parallel() : stream;
+    }
+}
@@ -0,0 +1,73 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.IntRangeList;
+import adrspo.stream.PrimitiveArrays;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A range of {@code size} ints as a list, built with {@code boxed().collect(toList())} against the
+ * {@link IntRangeList} view, each then read in full; and a boxed list collected back into an {@code int[]}
+ * through a growing and a presized {@link PrimitiveArrays#toIntArray} against
+ * {@code mapToInt(...).toArray()}. Run with {@code -prof gc} for the allocation side.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RangeListBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeListBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private List<Integer> boxed;
+
+    @Setup
+    public void setUp() {
+        boxed = IntStream.range(0, size).boxed().collect(toList());
+    }
+
+    @Benchmark
+    public long boxedRangeList() {
+        return sum(IntStream.range(0, size).boxed().collect(toList()));
+    }
+
+    @Benchmark
+    public long rangeListView() {
+        return sum(IntRangeList.range(0, size));
+    }
+
+    @Benchmark
+    public int[] mapToIntToArray() {
+        return boxed.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public int[] collectToIntArray() {
+        return boxed.stream().collect(PrimitiveArrays.toIntArray());
+    }
+
+    @Benchmark
+    public int[] collectToPresizedIntArray() {
+        return boxed.stream().collect(PrimitiveArrays.toIntArray(boxed.size()));
+    }
+
+    private static long sum(List<Integer> list) {
+        long sum = 0;
+        for (int index = 0; index < list.size(); index++) {
+            sum += list.get(index);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,76 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.MinMax;
+import adrspo.stream.SelectionCollectors;
+import adrspo.stream.SelectionCollectors.Nulls;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@code sorted().limit(k)} against the {@code topK} collector, and {@code min} then {@code max} against
+ * {@code minMax}, over 10M boxed integers.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="SelectionCollectorsBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SelectionCollectorsBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"10", "1000"})
+    private int k;
+
+    private List<Integer> values;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        values = IntStream.range(0, size).map(i -> random.nextInt()).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> sortedLimit() {
+        return values.stream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> topK() {
+        return values.stream().collect(SelectionCollectors.topK(k, Comparator.reverseOrder()));
+    }
+
+    @Benchmark
+    public List<Integer> parallelSortedLimit() {
+        return values.parallelStream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> parallelTopK() {
+        return values.parallelStream().collect(SelectionCollectors.topK(k, Comparator.reverseOrder()));
+    }
+
+    @Benchmark
+    public int minThenMax() {
+        return values.stream().min(Integer::compare).get() + values.stream().max(Integer::compare).get();
+    }
+
+    @Benchmark
+    public int minMax() {
+        Optional<MinMax<Integer>> bounds = values.stream().collect(SelectionCollectors.minMax(Integer::compare, Nulls.REJECT));
+        return bounds.get().getMin() + bounds.get().getMax();
+    }
+}
@@ -0,0 +1,74 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.IntRangeList;
+import adrspo.stream.Slicing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Page {@code page} of {@code pageSize} elements from a {@code size}-element indexed source (an
+ * {@link IntRangeList}, and an {@code IntStream} range): {@code skip(n).limit(k)}, sequential and ordered
+ * parallel, against {@link Slicing}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="SlicingBenchmark -p page=0,1000000,3999999"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlicingBenchmark {
+
+    @Param({"100000000"})
+    private int size;
+
+    @Param({"25"})
+    private int pageSize;
+
+    @Param({"0", "2000000", "3999999"})
+    private long page;
+
+    private IntRangeList source;
+
+    @Setup
+    public void setUp() {
+        source = IntRangeList.range(0, size);
+    }
+
+    @Benchmark
+    public List<Integer> skipLimit() {
+        return source.stream().skip(page * pageSize).limit(pageSize).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> parallelSkipLimit() {
+        return source.parallelStream().skip(page * pageSize).limit(pageSize).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> slicingPage() {
+        return Slicing.page(source.stream(), page, pageSize).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> parallelSlicingPage() {
+        return Slicing.page(source.parallelStream(), page, pageSize).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] intSkipLimit() {
+        return IntStream.range(0, size).skip(page * pageSize).limit(pageSize).toArray();
+    }
+
+    @Benchmark
+    public int[] intSlicing() {
+        return Slicing.slice(IntStream.range(0, size), page * pageSize, pageSize).toArray();
+    }
+}
@@ -0,0 +1,98 @@
+package adrspo.stream.benchmarks;
+
+import adrspo.stream.SplittableSources;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Parallel pipelines over {@code iterate}/{@code generate}-style sources on a dedicated pool of
+ * {@code workers} threads, against the {@link SplittableSources} replacements. Run with increasing
+ * {@code workers} to see how each source scales.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="SplittableSourcesBenchmark -p workers=1,2,4,8"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SplittableSourcesBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    /**
+     * Elements for the iterator scenario, each costing {@code work} iterations of hashing downstream.
+     */
+    @Param({"1000"})
+    private int expensiveElements;
+
+    @Param({"100000"})
+    private int work;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(workers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long generateRandom() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> IntStream.generate(() -> ThreadLocalRandom.current().nextInt(100)).limit(size).parallel().asLongStream().sum()).get();
+    }
+
+    @Benchmark
+    public long splittableRandom() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> SplittableSources.randomInts(size, 0, 100, 42).parallel().asLongStream().sum()).get();
+    }
+
+    @Benchmark
+    public long iterate() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> LongStream.iterate(0, n -> n + 1).limit(size).parallel().map(n -> n * n % 1000).sum()).get();
+    }
+
+    @Benchmark
+    public long indexedIterate() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> SplittableSources.iterateLongs(size, n -> n).parallel().map(n -> n * n % 1000).sum()).get();
+    }
+
+    @Benchmark
+    public long unknownSizeIterator() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> Stream.iterate(0, n -> n + 1).limit(expensiveElements).parallel().mapToLong(this::expensive).sum()).get();
+    }
+
+    @Benchmark
+    public long batchingIterator() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> SplittableSources.fromIterator(IntStream.range(0, expensiveElements).iterator())
+                .parallel()
+                .mapToLong(this::expensive)
+                .sum()).get();
+    }
+
+    private long expensive(int seed) {
+        long hash = seed;
+        for (int i = 0; i < work; i++) {
+            hash = hash * 0x9E3779B97F4A7C15L + i;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,309 @@
+package adrspo.stream.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Every operation exercised in {@code StreamClassTraining}, measured over boxed ({@code Stream<Integer>})
+ * and primitive ({@code IntStream}) sources, sequential and parallel, ordered and {@code unordered()}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="StreamOperationsBenchmark -p size=100,1000000 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamOperationsBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    @Param({"true", "false"})
+    private boolean ordered;
+
+    @Param({"BOXED", "PRIMITIVE"})
+    private Source source;
+
+    private int[] ints;
+    private Integer[] integers;
+
+    public enum Source {
+        BOXED, PRIMITIVE
+    }
+
+    @Setup
+    public void setUp() {
+        ints = new int[size];
+        integers = new Integer[size];
+
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            ints[i] = i + 1;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swapped = ints[i];
+            ints[i] = ints[j];
+            ints[j] = swapped;
+        }
+        for (int i = 0; i < size; i++) {
+            integers[i] = ints[i];
+        }
+    }
+
+    @Benchmark
+    public boolean allMatch() {
+        return primitive()
+                ? ints().allMatch(x -> x > 0)
+                : boxed().allMatch(x -> x > 0);
+    }
+
+    @Benchmark
+    public boolean anyMatch() {
+        return primitive()
+                ? ints().anyMatch(x -> x == size)
+                : boxed().anyMatch(x -> x == size);
+    }
+
+    @Benchmark
+    public boolean noneMatch() {
+        return primitive()
+                ? ints().noneMatch(x -> x > size)
+                : boxed().noneMatch(x -> x > size);
+    }
+
+    @Benchmark
+    public long count() {
+        return primitive()
+                ? ints().filter(x -> x % 2 == 0).count()
+                : boxed().filter(x -> x % 2 == 0).count();
+    }
+
+    @Benchmark
+    public Object findAny() {
+        return primitive()
+                ? ints().filter(x -> x > size / 2).findAny()
+                : boxed().filter(x -> x > size / 2).findAny();
+    }
+
+    @Benchmark
+    public Object findFirst() {
+        return primitive()
+                ? ints().filter(x -> x > size / 2).findFirst()
+                : boxed().filter(x -> x > size / 2).findFirst();
+    }
+
+    @Benchmark
+    public long concat() {
+        int half = size / 2;
+        return primitive()
+                ? IntStream.concat(ints(0, half), ints(half, size)).count()
+                : Stream.concat(boxed(0, half), boxed(half, size)).count();
+    }
+
+    @Benchmark
+    public long distinct() {
+        return primitive()
+                ? ints().map(x -> x % 1000).distinct().count()
+                : boxed().map(x -> x % 1000).distinct().count();
+    }
+
+    @Benchmark
+    public Object limit() {
+        return primitive()
+                ? ints().limit(size / 2).toArray()
+                : boxed().limit(size / 2).toArray();
+    }
+
+    @Benchmark
+    public Object skip() {
+        return primitive()
+                ? ints().skip(size / 2).toArray()
+                : boxed().skip(size / 2).toArray();
+    }
+
+    @Benchmark
+    public Object min() {
+        return primitive()
+                ? ints().min()
+                : boxed().min(Integer::compare);
+    }
+
+    @Benchmark
+    public Object max() {
+        return primitive()
+                ? ints().max()
+                : boxed().max(Integer::compare);
+    }
+
+    @Benchmark
+    public Object filter() {
+        return primitive()
+                ? ints().filter(x -> x % 20 == 0).toArray()
+                : boxed().filter(x -> x % 20 == 0).collect(toList());
+    }
+
+    @Benchmark
+    public Object map() {
+        return primitive()
+                ? ints().map(x -> x * 2).toArray()
+                : boxed().map(x -> x * 2).collect(toList());
+    }
+
+    @Benchmark
+    public double mapToDouble() {
+        return primitive()
+                ? ints().asDoubleStream().average().getAsDouble()
+                : boxed().mapToDouble(Integer::doubleValue).average().getAsDouble();
+    }
+
+    @Benchmark
+    public long flatMap() {
+        return primitive()
+                ? ints().flatMap(x -> IntStream.of(x, -x)).count()
+                : boxed().flatMap(x -> Stream.of(x, -x)).count();
+    }
+
+    @Benchmark
+    public Object sorted() {
+        return primitive()
+                ? ints().sorted().toArray()
+                : boxed().sorted().toArray();
+    }
+
+    @Benchmark
+    public Object sortedWithComparator() {
+        return primitive()
+                ? ints().map(x -> -x).sorted().toArray()
+                : boxed().sorted(Comparator.reverseOrder()).toArray();
+    }
+
+    @Benchmark
+    public void peek(Blackhole blackhole) {
+        if (primitive()) {
+            ints().peek(blackhole::consume).forEach(blackhole::consume);
+        } else {
+            boxed().peek(blackhole::consume).forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public Object takeWhile() {
+        return primitive()
+                ? ints().takeWhile(x -> x != 1).toArray()
+                : boxed().takeWhile(x -> x != 1).toArray();
+    }
+
+    @Benchmark
+    public Object dropWhile() {
+        return primitive()
+                ? ints().dropWhile(x -> x != 1).toArray()
+                : boxed().dropWhile(x -> x != 1).toArray();
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        if (primitive()) {
+            ints().forEach(blackhole::consume);
+        } else {
+            boxed().forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void forEachOrdered(Blackhole blackhole) {
+        if (primitive()) {
+            ints().forEachOrdered(blackhole::consume);
+        } else {
+            boxed().forEachOrdered(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public long reduceTwoArgs() {
+        return primitive()
+                ? ints().reduce(100, (x, y) -> x + y)
+                : boxed().reduce(100, (x, y) -> x + y);
+    }
+
+    @Benchmark
+    public Object reduceOneArg() {
+        return primitive()
+                ? ints().reduce((x, y) -> x + y)
+                : boxed().reduce((x, y) -> x + y);
+    }
+
+    @Benchmark
+    public long reduceThreeArg() {
+        return primitive()
+                ? ints().asLongStream().sum()
+                : boxed().reduce(0L, (x, y) -> x + y, Long::sum);
+    }
+
+    @Benchmark
+    public Object collect() {
+        return primitive()
+                ? ints().collect(ArrayList::new, ArrayList::add, ArrayList::addAll)
+                : boxed().collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    @Benchmark
+    public long iterate() {
+        return primitive()
+                ? configure(IntStream.iterate(1, x -> x + 1).limit(size)).sum()
+                : configure(Stream.iterate(1, x -> x + 1).limit(size)).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long generate() {
+        return primitive()
+                ? configure(IntStream.generate(() -> ThreadLocalRandom.current().nextInt()).limit(size)).asLongStream().sum()
+                : configure(Stream.generate(() -> ThreadLocalRandom.current().nextInt()).limit(size)).mapToLong(Integer::longValue).sum();
+    }
+
+
+    private boolean primitive() {
+        return source == Source.PRIMITIVE;
+    }
+
+    private IntStream ints() {
+        return ints(0, size);
+    }
+
+    private IntStream ints(int from, int to) {
+        return configure(Arrays.stream(ints, from, to));
+    }
+
+    private Stream<Integer> boxed() {
+        return boxed(0, size);
+    }
+
+    private Stream<Integer> boxed(int from, int to) {
+        return configure(Arrays.stream(integers, from, to));
+    }
+
+    private IntStream configure(IntStream stream) {
+        IntStream configured = parallel ? stream.parallel() : stream.sequential();
+        return ordered ? configured : configured.unordered();
+    }
+
+    private <T> Stream<T> configure(Stream<T> stream) {
+        Stream<T> configured = parallel ? stream.parallel() : stream.sequential();
+        return ordered ? configured : configured.unordered();
+    }
+}
@@ -0,0 +1,29 @@
+package adrspo.stream.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipfian key generator (rank {@code k} drawn with probability proportional to {@code 1 / k^exponent}).
+ */
+final class Zipf {
+
+    private Zipf() {
+    }
+
+    static int[] keys(int size, int distinctKeys, double exponent, long seed) {
+        double[] cumulative = new double[distinctKeys];
+        double total = 0.0;
+        for (int rank = 0; rank < distinctKeys; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            keys[i] = rank < 0 ? Math.min(-rank - 1, distinctKeys - 1) : rank;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,226 @@
+package adrspo.stream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Decides per pipeline shape whether to run sequentially, in parallel on the common pool, or in parallel
+ * on a dedicated pool, and how finely to split.
+ * <p>
+ * {@link #execute} takes the source stream and a function that builds the rest of the pipeline on it,
+ * including the terminal operation, and runs it under a {@link PipelineShape} named by the caller. Only the
+ * rebuilt stream the function receives is made parallel, and only once a parallel mode is chosen; the source
+ * is taken as it is, so a sequential run stays on the calling thread. Stages already on a sequential source
+ * keep it from splitting, so pass the bare source and build the stages in the function. The
+ * first few runs of a shape are sequential and measured. Later runs estimate their work from the source size
+ * times the measured cost per element, and keep measuring: every leaf of a parallel run times its own
+ * traversal, so the cost stays current whatever the mode. The policy is {@link #choose}, and leaves are
+ * sized to about {@value #TARGET_LEAF_NANOS} ns of work, so cheap elements are not split into tasks that
+ * cost more to schedule than to run. Choices and measurements are published over JMX per shape.
+ */
+public final class AdaptiveExecution {
+
+    /**
+     * Less estimated work than this runs sequentially: splitting, task handoff and merging partial results
+     * cost tens of microseconds.
+     */
+    public static final long PARALLEL_ABOVE_NANOS = 200_000;
+
+    /**
+     * Below this share of the usable CPU time a pipeline is taken to be blocking. Kept low because JIT
+     * compilation and other processes take their share too; a pipeline waiting on I/O is far below.
+     */
+    public static final double BLOCKING_CPU_RATIO = 0.2;
+
+    static final long TARGET_LEAF_NANOS = 50_000;
+
+    private static final ThreadMXBean THREADS = cpuTimeBean();
+
+    private AdaptiveExecution() {
+    }
+
+    public static <T, R> R execute(String shape, Stream<T> source, Function<? super Stream<T>, ? extends R> pipeline) {
+        PipelineShape metrics = PipelineShape.of(shape);
+        Spliterator<T> spliterator = source.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+
+        ExecutionMode mode = ExecutionMode.SEQUENTIAL;
+        long leafSize = Math.max(1, size);
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        // reading thread CPU time costs about a microsecond, and the ratio only matters for enough work
+        boolean measureCpu = THREADS != null;
+        if (metrics.isMeasured()) {
+            double nanosPerElement = metrics.getNanosPerElement();
+            boolean sized = size >= 0 && !Double.isNaN(nanosPerElement);
+            double work = sized ? nanosPerElement * size : metrics.getNanosPerRun();
+            mode = choose(work, metrics.getCpuRatio(), pool.getParallelism());
+            leafSize = sized ? leafSize(nanosPerElement) : 1;
+            measureCpu &= work >= PARALLEL_ABOVE_NANOS;
+        }
+
+        Sample sample = new Sample(measureCpu);
+        Stream<T> stream = StreamSupport.stream(new AdaptiveSpliterator<>(spliterator, leafSize, sample), mode != ExecutionMode.SEQUENTIAL)
+                .onClose(source::close);
+        long start = System.nanoTime();
+        long startCpu = measureCpu ? cpuTime() : -1;
+        R result = mode == ExecutionMode.DEDICATED_POOL
+                ? DedicatedPool.POOL.submit(() -> pipeline.apply(stream)).join()
+                : pipeline.apply(stream);
+        long nanos = System.nanoTime() - start;
+
+        metrics.countRun(mode, leafSize);
+        long leaves = sample.leaves.sum();
+        if (leaves > 0) {
+            int workers = mode == ExecutionMode.SEQUENTIAL ? 1
+                    : mode == ExecutionMode.DEDICATED_POOL ? DedicatedPool.POOL.getParallelism()
+                    // the calling thread helps alongside the pool's workers
+                    : pool.getParallelism() + 1;
+            double utilization = measureCpu ? utilization(sample.cpuNanos.sum(), nanos, (int) Math.min(workers, leaves)) : -1;
+            metrics.record(size >= 0 ? size : -1, sample.nanos.sum(), utilization);
+        } else if (mode == ExecutionMode.SEQUENTIAL) {
+            // short-circuited: never reached forEachRemaining, so all that is known is the caller's time
+            metrics.record(-1, nanos, startCpu < 0 ? -1 : utilization(cpuTime() - startCpu, nanos, 1));
+        }
+        return result;
+    }
+
+    /**
+     * CPU time as a share of what {@code workers} threads could have used over {@code nanos}, capped at the
+     * machine's processors. Judged per leaf instead, a CPU-bound pipeline on a busy or oversubscribed
+     * machine would look like it blocks, since a leaf's wall time includes the time it waits for a core.
+     */
+    private static double utilization(long cpuNanos, long nanos, int workers) {
+        int usable = Math.max(1, Math.min(workers, Runtime.getRuntime().availableProcessors()));
+        return nanos <= 0 ? -1 : Math.min(1.0, (double) cpuNanos / ((double) nanos * usable));
+    }
+
+    /**
+     * The policy: sequential below {@link #PARALLEL_ABOVE_NANOS} of estimated work, or when there is a single
+     * worker and the pipeline does not block; the dedicated pool for blocking pipelines; the common pool
+     * otherwise.
+     */
+    public static ExecutionMode choose(double estimatedNanos, double cpuRatio, int parallelism) {
+        if (!(estimatedNanos >= PARALLEL_ABOVE_NANOS)) {
+            return ExecutionMode.SEQUENTIAL;
+        }
+        if (cpuRatio < BLOCKING_CPU_RATIO) {
+            return ExecutionMode.DEDICATED_POOL;
+        }
+        return parallelism > 1 ? ExecutionMode.COMMON_POOL : ExecutionMode.SEQUENTIAL;
+    }
+
+    /**
+     * Elements per leaf task for about {@value #TARGET_LEAF_NANOS} ns of work each.
+     */
+    public static long leafSize(double nanosPerElement) {
+        if (!(nanosPerElement > 0)) {
+            return 1;
+        }
+        return Math.max(1, (long) Math.ceil(TARGET_LEAF_NANOS / nanosPerElement));
+    }
+
+    private static long cpuTime() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadCpuTime();
+    }
+
+    private static ThreadMXBean cpuTimeBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled() ? threads : null;
+    }
+
+    /**
+     * Work measured by the leaves of one run.
+     */
+    private static final class Sample {
+
+        final boolean measureCpu;
+        final LongAdder leaves = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder cpuNanos = new LongAdder();
+
+        Sample(boolean measureCpu) {
+            this.measureCpu = measureCpu;
+        }
+    }
+
+    /**
+     * Refuses to split below {@code 2 * leafSize} elements and times every bulk traversal, which is where a
+     * leaf task runs the whole pipeline over its part of the source.
+     */
+    private static final class AdaptiveSpliterator<T> implements Spliterator<T> {
+
+        private final Spliterator<T> source;
+        private final long leafSize;
+        private final Sample sample;
+
+        AdaptiveSpliterator(Spliterator<T> source, long leafSize, Sample sample) {
+            this.source = source;
+            this.leafSize = leafSize;
+            this.sample = sample;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            long start = System.nanoTime();
+            long startCpu = sample.measureCpu ? cpuTime() : -1;
+            source.forEachRemaining(action);
+            sample.nanos.add(System.nanoTime() - start);
+            if (startCpu >= 0) {
+                sample.cpuNanos.add(cpuTime() - startCpu);
+            }
+            sample.leaves.increment();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (source.estimateSize() < 2 * leafSize) {
+                return null;
+            }
+            Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new AdaptiveSpliterator<>(prefix, leafSize, sample);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    /**
+     * Sized for waiting rather than computing, and created only once a blocking pipeline shows up.
+     */
+    private static final class DedicatedPool {
+
+        static final ForkJoinPool POOL = new ForkJoinPool(Math.max(8, 4 * Runtime.getRuntime().availableProcessors()), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("adaptive-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+}
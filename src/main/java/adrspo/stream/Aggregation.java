@@ -0,0 +1,57 @@
+package adrspo.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Live result of an incremental aggregation. {@link #current()} covers the elements currently in the
+ * window; for tumbling windows, every completed window is also published to the
+ * {@link #onWindowClosed(Consumer) listeners}.
+ *
+ * @param <T> the element type
+ * @param <R> the result type
+ */
+public abstract class Aggregation<T, R> {
+
+    final Window window;
+    private final List<Consumer<? super R>> listeners = new ArrayList<>();
+    private long accepted;
+
+    Aggregation(Window window) {
+        this.window = window;
+    }
+
+    public abstract R current();
+
+    public Window window() {
+        return window;
+    }
+
+    public Aggregation<T, R> onWindowClosed(Consumer<? super R> listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    final void accept(T element) {
+        if (window.kind() == Window.Kind.TUMBLING && accepted > 0 && accepted % window.size() == 0) {
+            reset();
+        }
+        add(element);
+        accepted++;
+        if (window.kind() == Window.Kind.TUMBLING && accepted % window.size() == 0) {
+            R result = current();
+            listeners.forEach(listener -> listener.accept(result));
+        }
+    }
+
+    /**
+     * Adds an element, evicting the oldest one first when a sliding window is full.
+     */
+    abstract void add(T element);
+
+    /**
+     * Starts an empty tumbling window.
+     */
+    abstract void reset();
+}
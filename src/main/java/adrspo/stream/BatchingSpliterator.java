@@ -0,0 +1,75 @@
+package adrspo.stream;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Splits an iterator of unknown size into array batches of doubling size, capped by count and by the time
+ * spent filling them.
+ * <p>
+ * {@link Spliterators#spliteratorUnknownSize} starts at 1024 elements, so a source of a few hundred
+ * expensive elements never splits at all. Starting at one element costs a few extra splits on large
+ * sources, which the doubling quickly amortizes.
+ */
+final class BatchingSpliterator<T> implements Spliterator<T> {
+
+    static final int MAX_BATCH_SIZE = 1 << 20;
+    static final long DEFAULT_MAX_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Iterator<? extends T> iterator;
+    private final int maxBatchSize;
+    private final long maxBatchNanos;
+    private int batchSize = 1;
+
+    BatchingSpliterator(Iterator<? extends T> iterator, int maxBatchSize, long maxBatchNanos) {
+        if (maxBatchSize <= 0 || maxBatchNanos <= 0) {
+            throw new IllegalArgumentException("Batch limits must be positive: " + maxBatchSize + ", " + maxBatchNanos);
+        }
+        this.iterator = iterator;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchNanos = maxBatchNanos;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (!iterator.hasNext()) {
+            return false;
+        }
+        action.accept(iterator.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        iterator.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Object[] batch = new Object[batchSize];
+        long deadline = System.nanoTime() + maxBatchNanos;
+        int filled = 0;
+        // the clock is read every 64 elements
+        do {
+            batch[filled++] = iterator.next();
+        } while (filled < batch.length && iterator.hasNext() && ((filled & 63) != 0 || System.nanoTime() < deadline));
+        batchSize = Math.min(maxBatchSize, batchSize * 2);
+        return Spliterators.spliterator(batch, 0, filled, ORDERED);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+}
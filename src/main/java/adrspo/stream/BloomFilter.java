@@ -0,0 +1,103 @@
+package adrspo.stream;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Fixed-size Bloom filter sized from the expected number of insertions and the acceptable false-positive
+ * rate. The {@code k} probe positions are derived from one 64-bit hash (Kirsch-Mitzenmacher double hashing).
+ * Not thread-safe.
+ *
+ * @param <T> the element type
+ */
+public final class BloomFilter<T> {
+
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final long[] words;
+    private final long bits;
+    private final int hashFunctions;
+    private final ToLongFunction<? super T> hasher;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        this(expectedInsertions, falsePositiveRate, BloomFilter::hash64);
+    }
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate, ToLongFunction<? super T> hasher) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive: " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        if (optimalBits > MAX_BITS) {
+            throw new IllegalArgumentException("Filter for " + expectedInsertions + " insertions at " + falsePositiveRate + " is too large");
+        }
+        this.words = new long[(int) ((optimalBits + Long.SIZE - 1) / Long.SIZE)];
+        this.bits = (long) words.length * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.hasher = hasher;
+    }
+
+    /**
+     * 64-bit hash of common element types; anything else is widened from its {@code hashCode()}, which
+     * caps the filter at 2^32 distinguishable elements.
+     */
+    public static long hash64(Object element) {
+        if (element instanceof Long) {
+            return Hashing.mix64((Long) element);
+        }
+        if (element instanceof CharSequence) {
+            CharSequence text = (CharSequence) element;
+            long hash = 0xCBF29CE484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+            }
+            return Hashing.mix64(hash);
+        }
+        return Hashing.mix64(element == null ? 0 : element.hashCode());
+    }
+
+    /**
+     * @return true if the element was definitely not present before, false if it might have been
+     */
+    public boolean put(T element) {
+        long hash = hasher.applyAsLong(element);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long combined = (first + (long) i * second) & Long.MAX_VALUE;
+            long bit = combined % bits;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public boolean mightContain(T element) {
+        long hash = hasher.applyAsLong(element);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long combined = (first + (long) i * second) & Long.MAX_VALUE;
+            long bit = combined % bits;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+}
@@ -0,0 +1,115 @@
+package adrspo.stream;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code distinct()} stages whose memory does not grow with the number of distinct elements.
+ * Both keep the first occurrence of every element and the encounter order of the source; both run the
+ * deduplication itself sequentially.
+ */
+public final class BoundedDistinct {
+
+    private BoundedDistinct() {
+    }
+
+    /**
+     * Exact {@code distinct()} holding at most {@code maxElementsInMemory} elements on the heap and
+     * spilling hash partitions to temporary files beyond that. Temporary files are deleted once the
+     * stream is consumed or closed.
+     */
+    public static <T> Stream<T> exact(Stream<T> source, SpillCodec<T> codec, int maxElementsInMemory) {
+        SpillingDistinctSpliterator<T> spliterator = new SpillingDistinctSpliterator<>(source.spliterator(), codec, maxElementsInMemory);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::cleanUp)
+                .onClose(source::close);
+    }
+
+    /**
+     * Approximate {@code distinct()} backed by a {@link BloomFilter}: never emits a duplicate, but drops
+     * roughly {@code falsePositiveRate} of the distinct elements once {@code expectedInsertions} have been seen.
+     */
+    public static <T> Stream<T> approximate(Stream<T> source, long expectedInsertions, double falsePositiveRate) {
+        return approximate(source, new BloomFilter<>(expectedInsertions, falsePositiveRate));
+    }
+
+    public static <T> Stream<T> approximate(Stream<T> source, long expectedInsertions, double falsePositiveRate,
+                                            ToLongFunction<? super T> hasher) {
+        return approximate(source, new BloomFilter<>(expectedInsertions, falsePositiveRate, hasher));
+    }
+
+    private static <T> Stream<T> approximate(Stream<T> source, BloomFilter<T> filter) {
+        return StreamSupport.stream(new BloomFilteringSpliterator<>(source.spliterator(), filter), false)
+                .onClose(source::close);
+    }
+
+    /**
+     * Sequential barrier in front of the {@link BloomFilter}, which is not thread-safe: never splits, so a
+     * later {@code parallel()} cannot run {@link BloomFilter#put} concurrently or out of encounter order.
+     */
+    private static final class BloomFilteringSpliterator<T> implements Spliterator<T>, Consumer<T> {
+
+        private final Spliterator<T> source;
+        private final BloomFilter<T> filter;
+        private T current;
+        private boolean accepted;
+
+        BloomFilteringSpliterator(Spliterator<T> source, BloomFilter<T> filter) {
+            this.source = source;
+            this.filter = filter;
+        }
+
+        @Override
+        public void accept(T element) {
+            current = element;
+            accepted = filter.put(element);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (source.tryAdvance(this)) {
+                if (accepted) {
+                    T element = current;
+                    current = null;
+                    action.accept(element);
+                    return true;
+                }
+            }
+            current = null;
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            source.forEachRemaining(element -> {
+                if (filter.put(element)) {
+                    action.accept(element);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | DISTINCT | SORTED | NONNULL | IMMUTABLE | CONCURRENT);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package adrspo.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CharSequence} view over single-byte (ASCII/ISO-8859-1) text in a {@link ByteBuffer}.
+ * Nothing is copied until {@link #toString()} is called.
+ */
+public final class ByteSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    ByteSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        }
+        return buffer.get(offset + index);
+    }
+
+    @Override
+    public ByteSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new ByteSequence(buffer, offset + start, end - start);
+    }
+
+    /**
+     * Parses the content as a decimal {@code int} without materializing a {@code String}.
+     */
+    public int parseInt() {
+        return Integer.parseInt(this, 0, length, 10);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
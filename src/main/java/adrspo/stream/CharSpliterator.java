@@ -0,0 +1,41 @@
+package adrspo.stream;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} specialized for {@code char} values, in the manner of {@link Spliterator.OfInt}.
+ */
+public interface CharSpliterator extends Spliterator.OfPrimitive<Character, CharStream.CharConsumer, CharSpliterator> {
+
+    static CharSpliterator of(CharSequence chars) {
+        return new CharSpliterators.OfCharSequence(chars, 0, chars.length());
+    }
+
+    /**
+     * Single-byte (ASCII/ISO-8859-1) text: each byte is one {@code char}.
+     */
+    static CharSpliterator ofLatin1(byte[] bytes) {
+        return new CharSpliterators.OfLatin1(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Boxes each {@code char} unless {@code action} is already a {@link CharStream.CharConsumer}.
+     */
+    @Override
+    default boolean tryAdvance(Consumer<? super Character> action) {
+        if (action instanceof CharStream.CharConsumer) {
+            return tryAdvance((CharStream.CharConsumer) action);
+        }
+        return tryAdvance((CharStream.CharConsumer) action::accept);
+    }
+
+    @Override
+    default void forEachRemaining(Consumer<? super Character> action) {
+        if (action instanceof CharStream.CharConsumer) {
+            forEachRemaining((CharStream.CharConsumer) action);
+        } else {
+            forEachRemaining((CharStream.CharConsumer) action::accept);
+        }
+    }
+}
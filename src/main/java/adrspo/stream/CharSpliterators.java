@@ -0,0 +1,290 @@
+package adrspo.stream;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link CharSpliterator} implementations behind {@link CharSpliterator} and {@link CharStream}.
+ */
+final class CharSpliterators {
+
+    private CharSpliterators() {
+    }
+
+    static final class OfCharSequence implements CharSpliterator {
+
+        private final CharSequence chars;
+        private int from;
+        private final int to;
+
+        OfCharSequence(CharSequence chars, int from, int to) {
+            this.chars = chars;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(CharStream.CharConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(chars.charAt(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(CharStream.CharConsumer action) {
+            CharSequence chars = this.chars;
+            int end = to;
+            for (int index = from; index < end; index++) {
+                action.accept(chars.charAt(index));
+            }
+            from = end;
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle <= from) {
+                return null;
+            }
+            CharSpliterator prefix = new OfCharSequence(chars, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    static final class OfLatin1 implements CharSpliterator {
+
+        private final byte[] bytes;
+        private int from;
+        private final int to;
+
+        OfLatin1(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(CharStream.CharConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept((char) (bytes[from++] & 0xFF));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(CharStream.CharConsumer action) {
+            byte[] bytes = this.bytes;
+            int end = to;
+            for (int index = from; index < end; index++) {
+                action.accept((char) (bytes[index] & 0xFF));
+            }
+            from = end;
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle <= from) {
+                return null;
+            }
+            CharSpliterator prefix = new OfLatin1(bytes, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+    /**
+     * The chars of each element's {@link CharSequence} or Latin-1 {@code byte[]}, walked in place.
+     */
+    static final class FlatMapping<T> implements CharSpliterator {
+
+        private final Spliterator<T> source;
+        private final Function<? super T, ?> mapper;
+        private final Consumer<T> open = this::open;
+        private Object current;
+        private int index;
+        private int length;
+
+        FlatMapping(Spliterator<T> source, Function<? super T, ?> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(CharStream.CharConsumer action) {
+            while (index >= length) {
+                if (!source.tryAdvance(open)) {
+                    return false;
+                }
+            }
+            action.accept(charAt(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(CharStream.CharConsumer action) {
+            while (index < length) {
+                action.accept(charAt(index++));
+            }
+            current = null;
+            source.forEachRemaining(element -> walk(mapper.apply(element), action));
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            Spliterator<T> prefix = index < length ? null : source.trySplit();
+            return prefix == null ? null : new FlatMapping<>(prefix, mapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ORDERED;
+        }
+
+        private void open(T element) {
+            current = mapper.apply(element);
+            index = 0;
+            // a null result is empty, as in Stream.flatMap
+            length = current == null ? 0 : current instanceof byte[] ? ((byte[]) current).length : ((CharSequence) current).length();
+        }
+
+        private char charAt(int index) {
+            return current instanceof byte[] ? (char) (((byte[]) current)[index] & 0xFF) : ((CharSequence) current).charAt(index);
+        }
+
+        private static void walk(Object chars, CharStream.CharConsumer action) {
+            if (chars instanceof byte[]) {
+                for (byte b : (byte[]) chars) {
+                    action.accept((char) (b & 0xFF));
+                }
+            } else if (chars != null) {
+                CharSequence sequence = (CharSequence) chars;
+                for (int i = 0, length = sequence.length(); i < length; i++) {
+                    action.accept(sequence.charAt(i));
+                }
+            }
+        }
+    }
+
+    static final class Filtering implements CharSpliterator {
+
+        private final CharSpliterator source;
+        private final CharStream.CharPredicate predicate;
+        private final CharStream.CharConsumer capture = c -> next = c;
+        private char next;
+
+        Filtering(CharSpliterator source, CharStream.CharPredicate predicate) {
+            this.source = source;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean tryAdvance(CharStream.CharConsumer action) {
+            while (source.tryAdvance(capture)) {
+                if (predicate.test(next)) {
+                    action.accept(next);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(CharStream.CharConsumer action) {
+            source.forEachRemaining((CharStream.CharConsumer) c -> {
+                if (predicate.test(c)) {
+                    action.accept(c);
+                }
+            });
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            CharSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new Filtering(prefix, predicate);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(SIZED | SUBSIZED);
+        }
+    }
+
+    static final class Mapping implements CharSpliterator {
+
+        private final CharSpliterator source;
+        private final CharStream.CharUnaryOperator mapper;
+        private final CharStream.CharConsumer capture = c -> next = c;
+        private char next;
+
+        Mapping(CharSpliterator source, CharStream.CharUnaryOperator mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(CharStream.CharConsumer action) {
+            if (source.tryAdvance(capture)) {
+                action.accept(mapper.applyAsChar(next));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(CharStream.CharConsumer action) {
+            source.forEachRemaining((CharStream.CharConsumer) c -> action.accept(mapper.applyAsChar(c)));
+        }
+
+        @Override
+        public CharSpliterator trySplit() {
+            CharSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new Mapping(prefix, mapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~IMMUTABLE;
+        }
+    }
+}
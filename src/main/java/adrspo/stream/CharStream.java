@@ -0,0 +1,222 @@
+package adrspo.stream;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sequential stream of {@code char} values that never boxes.
+ * <p>
+ * {@code chars().boxed().map(c -> (char) c.intValue())} allocates an {@link Integer} and a {@link Character}
+ * per char above the cache range. A {@code CharStream} walks the {@link String}, {@link CharSequence} or
+ * Latin-1 {@code byte[]} in place and hands each {@code char} to a {@link CharConsumer}. Like any stream
+ * it can be consumed only once; {@link #asIntStream()} and {@link #boxed()} bridge to the JDK streams.
+ */
+public final class CharStream {
+
+    @FunctionalInterface
+    public interface CharConsumer {
+
+        void accept(char value);
+    }
+
+    @FunctionalInterface
+    public interface CharPredicate {
+
+        boolean test(char value);
+    }
+
+    @FunctionalInterface
+    public interface CharUnaryOperator {
+
+        char applyAsChar(char value);
+    }
+
+    private static final int DENSE_RANGE = 128;
+
+    private final CharSpliterator spliterator;
+    private boolean consumed;
+
+    private CharStream(CharSpliterator spliterator) {
+        this.spliterator = spliterator;
+    }
+
+    public static CharStream of(CharSequence chars) {
+        return new CharStream(CharSpliterator.of(chars));
+    }
+
+    public static CharStream ofLatin1(byte[] bytes) {
+        return new CharStream(CharSpliterator.ofLatin1(bytes));
+    }
+
+    public static CharStream of(CharSpliterator spliterator) {
+        return new CharStream(spliterator);
+    }
+
+    /**
+     * {@code source.flatMap(mapper-to-chars)} without boxing any char. A {@code null} result contributes no
+     * chars, as in {@link Stream#flatMap}.
+     */
+    public static <T> CharStream flatMapToChar(Stream<T> source, Function<? super T, ? extends CharSequence> mapper) {
+        return new CharStream(new CharSpliterators.FlatMapping<>(source.spliterator(), mapper));
+    }
+
+    /**
+     * Like {@link #flatMapToChar} for single-byte (ASCII/ISO-8859-1) text held as {@code byte[]}.
+     */
+    public static <T> CharStream flatMapLatin1ToChar(Stream<T> source, Function<? super T, byte[]> mapper) {
+        return new CharStream(new CharSpliterators.FlatMapping<>(source.spliterator(), mapper));
+    }
+
+    public CharStream filter(CharPredicate predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return new CharStream(new CharSpliterators.Filtering(link(), predicate));
+    }
+
+    public CharStream map(CharUnaryOperator mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return new CharStream(new CharSpliterators.Mapping(link(), mapper));
+    }
+
+    public void forEach(CharConsumer action) {
+        link().forEachRemaining(action);
+    }
+
+    public long count() {
+        CharSpliterator chars = link();
+        if (chars.hasCharacteristics(Spliterator.SIZED)) {
+            return chars.estimateSize();
+        }
+        long[] count = {0};
+        chars.forEachRemaining((CharConsumer) c -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Occurrences per char, keyed by its code. ASCII chars are counted in a dense array.
+     */
+    public IntLongHashMap histogram() {
+        long[] dense = new long[DENSE_RANGE];
+        IntLongHashMap histogram = new IntLongHashMap();
+        link().forEachRemaining((CharConsumer) c -> {
+            if (c < DENSE_RANGE) {
+                dense[c]++;
+            } else {
+                histogram.addTo(c, 1);
+            }
+        });
+        for (int c = 0; c < DENSE_RANGE; c++) {
+            if (dense[c] > 0) {
+                histogram.put(c, dense[c]);
+            }
+        }
+        return histogram;
+    }
+
+    public char[] toCharArray() {
+        CharSpliterator chars = link();
+        long exactSize = chars.getExactSizeIfKnown();
+        CharBuffer buffer = new CharBuffer(exactSize >= 0 ? (int) exactSize : 16);
+        chars.forEachRemaining(buffer);
+        return buffer.toArray();
+    }
+
+    /**
+     * Appends every char to {@code builder} and returns it.
+     */
+    public StringBuilder collect(StringBuilder builder) {
+        link().forEachRemaining((CharConsumer) builder::append);
+        return builder;
+    }
+
+    public CharSpliterator spliterator() {
+        return link();
+    }
+
+    /**
+     * The chars as {@code int} code units, like {@link String#chars()}; splits when the source does.
+     */
+    public IntStream asIntStream() {
+        return StreamSupport.intStream(new IntView(link()), false);
+    }
+
+    public Stream<Character> boxed() {
+        return StreamSupport.stream(link(), false);
+    }
+
+    private CharSpliterator link() {
+        if (consumed) {
+            throw new IllegalStateException("stream has already been operated upon or closed");
+        }
+        consumed = true;
+        return spliterator;
+    }
+
+    private static final class IntView implements Spliterator.OfInt {
+
+        private final CharSpliterator source;
+        private final CharConsumer capture = c -> next = c;
+        private char next;
+
+        IntView(CharSpliterator source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (source.tryAdvance(capture)) {
+                action.accept(next);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            source.forEachRemaining((CharConsumer) action::accept);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            CharSpliterator prefix = source.trySplit();
+            return prefix == null ? null : new IntView(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+    }
+
+    private static final class CharBuffer implements CharConsumer {
+
+        private char[] chars;
+        private int size;
+
+        CharBuffer(int initialCapacity) {
+            chars = new char[Math.max(1, initialCapacity)];
+        }
+
+        @Override
+        public void accept(char value) {
+            if (size == chars.length) {
+                chars = Arrays.copyOf(chars, size * 2);
+            }
+            chars[size++] = value;
+        }
+
+        char[] toArray() {
+            return size == chars.length ? chars : Arrays.copyOf(chars, size);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package adrspo.stream;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Mirrors {@link DoubleSummaryStatistics} (same accessors, {@code combine} and {@code toString}), but the
+ * sum carries a Neumaier compensation term, also across {@link #combine combined} partial results. The
+ * JDK class cannot be extended for this as its accessors are final.
+ * <p>
+ * The JDK's Kahan summation loses the small addend when a later value is larger than the running sum,
+ * e.g. {@code 1e100, 1.0, -1e100} sums to {@code 0.0}; Neumaier's variant keeps it and sums to
+ * {@code 1.0}. {@link #accept(double[], int, int)} runs four independent lanes so the compensated adds
+ * of neighbouring elements do not wait on each other, each using Knuth's branch-free two-sum: the same
+ * error term as Neumaier's, without a magnitude comparison that mispredicts on mixed-sign data.
+ */
+public class CompensatedStatistics implements DoubleConsumer {
+
+    private long count;
+    private double sum;
+    private double compensation;
+    private double simpleSum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    @Override
+    public void accept(double value) {
+        count++;
+        simpleSum += value;
+        add(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void accept(double[] values) {
+        accept(values, 0, values.length);
+    }
+
+    /**
+     * Accepts {@code values[from, to)}.
+     */
+    public void accept(double[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + values.length);
+        }
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        double c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+        double lo0 = Double.POSITIVE_INFINITY, lo1 = lo0;
+        double hi0 = Double.NEGATIVE_INFINITY, hi1 = hi0;
+        int index = from;
+        for (int end = to - 3; index < end; index += 4) {
+            double v0 = values[index];
+            double v1 = values[index + 1];
+            double v2 = values[index + 2];
+            double v3 = values[index + 3];
+            double t0 = s0 + v0;
+            double b0 = t0 - s0;
+            c0 += (s0 - (t0 - b0)) + (v0 - b0);
+            s0 = t0;
+            double t1 = s1 + v1;
+            double b1 = t1 - s1;
+            c1 += (s1 - (t1 - b1)) + (v1 - b1);
+            s1 = t1;
+            double t2 = s2 + v2;
+            double b2 = t2 - s2;
+            c2 += (s2 - (t2 - b2)) + (v2 - b2);
+            s2 = t2;
+            double t3 = s3 + v3;
+            double b3 = t3 - s3;
+            c3 += (s3 - (t3 - b3)) + (v3 - b3);
+            s3 = t3;
+
+            // plain comparisons rarely change their outcome and so predict well; Math.min/max pay for NaN and -0.0 on every element
+            lo0 = v0 < lo0 ? v0 : lo0;
+            lo1 = v1 < lo1 ? v1 : lo1;
+            lo0 = v2 < lo0 ? v2 : lo0;
+            lo1 = v3 < lo1 ? v3 : lo1;
+            hi0 = v0 > hi0 ? v0 : hi0;
+            hi1 = v1 > hi1 ? v1 : hi1;
+            hi0 = v2 > hi0 ? v2 : hi0;
+            hi1 = v3 > hi1 ? v3 : hi1;
+        }
+        count += index - from;
+        // getSum() only needs the plain sum to tell an overflow, and an infinite lane sum carries over
+        simpleSum += (s0 + s1) + (s2 + s3);
+        add(s0);
+        add(s1);
+        add(s2);
+        add(s3);
+        compensation += (c0 + c1) + (c2 + c3);
+        double lo = Math.min(lo0, lo1);
+        double hi = Math.max(hi0, hi1);
+        if (lo == 0.0 || hi == 0.0 || Double.isNaN(simpleSum)) {
+            // a NaN the comparisons skipped over, or a zero whose sign they may have got wrong
+            for (int i = from; i < index; i++) {
+                lo = Math.min(lo, values[i]);
+                hi = Math.max(hi, values[i]);
+            }
+        }
+        min = Math.min(min, lo);
+        max = Math.max(max, hi);
+        for (; index < to; index++) {
+            accept(values[index]);
+        }
+    }
+
+    public void combine(CompensatedStatistics other) {
+        count += other.count;
+        simpleSum += other.simpleSum;
+        add(other.sum);
+        compensation += other.compensation;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Folds in plain statistics, e.g. from {@code DoubleStream.summaryStatistics()}; their sum enters as one addend.
+     */
+    public void combine(DoubleSummaryStatistics other) {
+        count += other.getCount();
+        simpleSum += other.getSum();
+        add(other.getSum());
+        min = Math.min(min, other.getMin());
+        max = Math.max(max, other.getMax());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        double total = sum + compensation;
+        // as in the JDK: an overflow to infinity turns the compensation into NaN, the plain sum is right
+        if (Double.isNaN(total) && Double.isInfinite(simpleSum)) {
+            return simpleSum;
+        }
+        return total;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count > 0 ? getSum() / count : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, sum=%f, min=%f, average=%f, max=%f}",
+                getClass().getSimpleName(), getCount(), getSum(), getMin(), getAverage(), getMax());
+    }
+
+    private void add(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - total) + value;
+        } else {
+            compensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+}
@@ -0,0 +1,94 @@
+package adrspo.stream;
+
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Compensated {@code sum}/{@code average}/{@code summaryStatistics} for {@code double[]} and
+ * {@link DoubleStream} sources, and the matching collectors. Results come back as
+ * {@link CompensatedStatistics}, which has the accessors of {@link java.util.DoubleSummaryStatistics}.
+ */
+public final class CompensatedSums {
+
+    /**
+     * Elements per parallel task; big enough that the fork/join overhead disappears behind the adds.
+     */
+    static final int CHUNK = 1 << 16;
+
+    private CompensatedSums() {
+    }
+
+    public static double sum(double[] values) {
+        return summaryStatistics(values).getSum();
+    }
+
+    public static double average(double[] values) {
+        return summaryStatistics(values).getAverage();
+    }
+
+    public static CompensatedStatistics summaryStatistics(double[] values) {
+        CompensatedStatistics statistics = new CompensatedStatistics();
+        statistics.accept(values);
+        return statistics;
+    }
+
+    /**
+     * Splits {@code values} into chunks of {@value #CHUNK} elements, aggregated on the common pool and
+     * combined with their compensation terms, so the result is as tight as the sequential one.
+     */
+    public static CompensatedStatistics parallelSummaryStatistics(double[] values) {
+        int chunks = (values.length + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel().collect(
+                CompensatedStatistics::new,
+                (statistics, chunk) -> statistics.accept(values, chunk * CHUNK, Math.min(values.length, (chunk + 1) * CHUNK)),
+                CompensatedSums::combineInto);
+    }
+
+    public static CompensatedStatistics summaryStatistics(DoubleStream stream) {
+        return stream.collect(CompensatedStatistics::new, CompensatedStatistics::accept, CompensatedSums::combineInto);
+    }
+
+    /**
+     * Compensated {@code Collectors.summarizingDouble(mapper)}.
+     */
+    public static <T> Collector<T, ?, CompensatedStatistics> summarizingDouble(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                CompensatedStatistics::new,
+                (statistics, element) -> statistics.accept(mapper.applyAsDouble(element)),
+                CompensatedSums::combine,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Compensated {@code Collectors.summingDouble(mapper)}.
+     */
+    public static <T> Collector<T, ?, Double> summingDouble(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                CompensatedStatistics::new,
+                (statistics, element) -> statistics.accept(mapper.applyAsDouble(element)),
+                CompensatedSums::combine,
+                CompensatedStatistics::getSum);
+    }
+
+    /**
+     * Compensated {@code Collectors.averagingDouble(mapper)}.
+     */
+    public static <T> Collector<T, ?, Double> averagingDouble(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                CompensatedStatistics::new,
+                (statistics, element) -> statistics.accept(mapper.applyAsDouble(element)),
+                CompensatedSums::combine,
+                CompensatedStatistics::getAverage);
+    }
+
+    private static void combineInto(CompensatedStatistics left, CompensatedStatistics right) {
+        left.combine(right);
+    }
+
+    private static CompensatedStatistics combine(CompensatedStatistics left, CompensatedStatistics right) {
+        left.combine(right);
+        return left;
+    }
+}
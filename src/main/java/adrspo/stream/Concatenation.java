@@ -0,0 +1,180 @@
+package adrspo.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * N-ary {@code Stream.concat}.
+ * <p>
+ * Folding {@code Stream.concat} over n streams builds a left-leaning tree n levels deep: every element
+ * passes through up to n nested spliterators, traversal recurses n frames deep, and a split can only peel
+ * off the last stream. {@link #concatAll} keeps the parts in one flat array instead. It splits at the part
+ * boundary nearest half of the estimated size, found by binary search over the parts' prefix sums, and
+ * splits inside a part once it is down to one. The result is SIZED and SUBSIZED when every part is, so
+ * {@code toArray} presizes.
+ */
+public final class Concatenation {
+
+    private Concatenation() {
+    }
+
+    /**
+     * Concatenates {@code streams} in list order; the result is parallel if any of them is, and closing it
+     * closes every one of them.
+     */
+    public static <T> Stream<T> concatAll(List<? extends Stream<? extends T>> streams) {
+        Spliterator<T>[] parts = newArray(streams.size());
+        boolean parallel = false;
+        for (int index = 0; index < parts.length; index++) {
+            @SuppressWarnings("unchecked")
+            Stream<T> stream = (Stream<T>) Objects.requireNonNull(streams.get(index), "stream");
+            parts[index] = stream.spliterator();
+            parallel |= stream.isParallel();
+        }
+        List<Stream<? extends T>> toClose = new ArrayList<>(streams);
+        return StreamSupport.stream(new ConcatSpliterator<>(parts), parallel).onClose(() -> closeAll(toClose));
+    }
+
+    @SafeVarargs
+    public static <T> Stream<T> concatAll(Spliterator<T>... parts) {
+        Spliterator<T>[] copy = newArray(parts.length);
+        for (int index = 0; index < parts.length; index++) {
+            copy[index] = Objects.requireNonNull(parts[index], "spliterator");
+        }
+        return StreamSupport.stream(new ConcatSpliterator<>(copy), false);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> Spliterator<T>[] newArray(int length) {
+        return new Spliterator[length];
+    }
+
+    /**
+     * Closes every stream even if some fail, like nested {@code Stream.concat}: the first failure is thrown
+     * with the later ones suppressed.
+     */
+    private static void closeAll(List<? extends Stream<?>> streams) {
+        RuntimeException failure = null;
+        for (Stream<?> stream : streams) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else if (failure != e) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    static final class ConcatSpliterator<T> implements Spliterator<T> {
+
+        private final Spliterator<T>[] parts;
+        /**
+         * {@code prefixSizes[i]} is the estimated size of {@code parts[0, i)} before any traversal; only
+         * {@code parts[from]} is ever advanced or split, so the sums stay right for the parts after it.
+         */
+        private final long[] prefixSizes;
+        private final int characteristics;
+        private int from;
+        private final int to;
+
+        ConcatSpliterator(Spliterator<T>[] parts) {
+            this.parts = parts;
+            this.prefixSizes = new long[parts.length + 1];
+            int common = parts.length == 0 ? ORDERED | SIZED | SUBSIZED : ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE | CONCURRENT;
+            for (int index = 0; index < parts.length; index++) {
+                long size = parts[index].estimateSize();
+                long sum = prefixSizes[index] + size;
+                if (sum < 0) {
+                    sum = Long.MAX_VALUE;
+                    common &= ~(SIZED | SUBSIZED);
+                }
+                prefixSizes[index + 1] = sum;
+                common &= parts[index].characteristics();
+            }
+            this.characteristics = common;
+            this.to = parts.length;
+        }
+
+        private ConcatSpliterator(ConcatSpliterator<T> whole, int from, int to) {
+            this.parts = whole.parts;
+            this.prefixSizes = whole.prefixSizes;
+            this.characteristics = whole.characteristics;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (from < to) {
+                if (parts[from].tryAdvance(action)) {
+                    return true;
+                }
+                from++;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (int index = from; index < to; index++) {
+                parts[index].forEachRemaining(action);
+                // a throwing action leaves from at the part it was in
+                from = index + 1;
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (to - from <= 1) {
+                return from < to ? parts[from].trySplit() : null;
+            }
+            long first = parts[from].estimateSize();
+            long half = saturatedAdd(first, prefixSizes[to] - prefixSizes[from + 1]) >>> 1;
+            // the smallest boundary m in [from + 1, to - 1] with at least half of the estimate before it
+            long target = half - first + prefixSizes[from + 1];
+            int low = from + 1;
+            int high = to - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (prefixSizes[middle] >= target) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            Spliterator<T> prefix = low - from == 1 ? parts[from] : new ConcatSpliterator<>(this, from, low);
+            from = low;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (from >= to) {
+                return 0;
+            }
+            return saturatedAdd(parts[from].estimateSize(), prefixSizes[to] - prefixSizes[from + 1]);
+        }
+
+        @Override
+        public int characteristics() {
+            // a lone part may have been split, and a part that is SIZED but not SUBSIZED then no longer is
+            return to - from == 1 ? characteristics & parts[from].characteristics() : characteristics;
+        }
+
+        private static long saturatedAdd(long a, long b) {
+            long sum = a + b;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+    }
+}
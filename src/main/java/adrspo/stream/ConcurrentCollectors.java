@@ -0,0 +1,93 @@
+package adrspo.stream;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Concurrent grouping collectors whose per-key state is a striped {@link LongAdder}/{@link DoubleAdder}.
+ * <p>
+ * {@code groupingByConcurrent(classifier, counting())} funnels every element through
+ * {@link ConcurrentHashMap#computeIfAbsent} and a downstream container guarded by a lock, so a hot key
+ * serializes all workers. Here an existing key is found with a lock-free {@code get} and updated through
+ * the adder's per-thread cells; only the first sighting of a key takes the map's bin lock.
+ */
+public final class ConcurrentCollectors {
+
+    private ConcurrentCollectors() {
+    }
+
+    /**
+     * Concurrent {@code groupingBy(classifier, counting())}.
+     */
+    public static <T, K> Collector<T, ?, ConcurrentMap<K, Long>> groupingCounting(Function<? super T, ? extends K> classifier) {
+        return groupingSumming(classifier, element -> 1L);
+    }
+
+    /**
+     * Concurrent {@code groupingBy(classifier, summingLong(mapper))}.
+     */
+    public static <T, K> Collector<T, ?, ConcurrentMap<K, Long>> groupingSumming(Function<? super T, ? extends K> classifier,
+                                                                                ToLongFunction<? super T> mapper) {
+        return striped(
+                classifier,
+                LongAdder::new,
+                (adder, element) -> adder.add(mapper.applyAsLong(element)),
+                (adder, other) -> adder.add(other.sum()),
+                LongAdder::sum);
+    }
+
+    /**
+     * Concurrent {@code groupingBy(classifier, summingDouble(mapper))}. Like every concurrent double sum,
+     * the result may differ in the last bits between runs.
+     */
+    public static <T, K> Collector<T, ?, ConcurrentMap<K, Double>> groupingSummingDouble(Function<? super T, ? extends K> classifier,
+                                                                                        ToDoubleFunction<? super T> mapper) {
+        return striped(
+                classifier,
+                DoubleAdder::new,
+                (adder, element) -> adder.add(mapper.applyAsDouble(element)),
+                (adder, other) -> adder.add(other.sum()),
+                DoubleAdder::sum);
+    }
+
+    private static <T, K, C, R> Collector<T, ?, ConcurrentMap<K, R>> striped(Function<? super T, ? extends K> classifier,
+                                                                            Supplier<C> cellFactory,
+                                                                            BiConsumer<C, ? super T> update,
+                                                                            BiConsumer<C, C> merge,
+                                                                            Function<C, R> finisher) {
+        Function<K, C> newCell = key -> cellFactory.get();
+        return Collector.of(
+                ConcurrentHashMap<K, C>::new,
+                (cells, element) -> {
+                    K key = classifier.apply(element);
+                    C cell = cells.get(key);
+                    if (cell == null) {
+                        cell = cells.computeIfAbsent(key, newCell);
+                    }
+                    update.accept(cell, element);
+                },
+                (left, right) -> {
+                    // parallel streams share one container; this only runs if a caller combines explicitly
+                    right.forEach((key, cell) -> merge.accept(left.computeIfAbsent(key, newCell), cell));
+                    return left;
+                },
+                cells -> {
+                    ConcurrentMap<K, R> result = new ConcurrentHashMap<>((int) Math.min(Integer.MAX_VALUE, cells.size() * 4L / 3 + 1));
+                    for (Map.Entry<K, C> entry : cells.entrySet()) {
+                        result.put(entry.getKey(), finisher.apply(entry.getValue()));
+                    }
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED);
+    }
+}
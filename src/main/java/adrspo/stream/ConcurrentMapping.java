@@ -0,0 +1,185 @@
+package adrspo.stream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@code map} stage for blocking mappers (I/O, remote calls).
+ * <p>
+ * {@code parallel().map(fn)} runs {@code fn} on the common {@link java.util.concurrent.ForkJoinPool}, which is
+ * sized for CPU work: a mapper that blocks holds a worker, and a handful of them stall every parallel stream
+ * in the JVM. {@link #mapConcurrent} instead keeps at most {@code maxInFlight} mapper calls running on a
+ * separate executor and pulls the next upstream element only when a slot frees up, so it stays lazy under
+ * {@code limit}/{@code takeWhile}: at most {@code maxInFlight} elements are mapped beyond what the downstream
+ * consumes. Closing the stream drops the outstanding calls: those not yet started never run, those already
+ * running finish but their results are discarded.
+ */
+public final class ConcurrentMapping {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private static final ExecutorService BLOCKING = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "map-concurrent-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ConcurrentMapping() {
+    }
+
+    /**
+     * Maps on a shared pool of daemon threads that grows with demand.
+     */
+    public static <T, R> Stream<R> mapConcurrent(Stream<T> source, Function<? super T, ? extends R> mapper,
+                                                 int maxInFlight, boolean preserveOrder) {
+        return mapConcurrent(source, mapper, maxInFlight, preserveOrder, BLOCKING);
+    }
+
+    /**
+     * With {@code preserveOrder} results keep encounter order, and a slow element holds back the ones after
+     * it; without it each result is emitted as soon as it is ready. A mapper failure is rethrown when its
+     * result would have been emitted.
+     */
+    public static <T, R> Stream<R> mapConcurrent(Stream<T> source, Function<? super T, ? extends R> mapper,
+                                                 int maxInFlight, boolean preserveOrder, Executor executor) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(executor, "executor");
+        Spliterator<T> upstream = source.spliterator();
+        ConcurrentMappingSpliterator<T, R> spliterator = preserveOrder
+                ? new OrderedSpliterator<>(upstream, mapper, maxInFlight, executor)
+                : new UnorderedSpliterator<>(upstream, mapper, maxInFlight, executor);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::cancel)
+                .onClose(source::close);
+    }
+
+    private abstract static class ConcurrentMappingSpliterator<T, R> extends Spliterators.AbstractSpliterator<R> {
+
+        private final Spliterator<T> upstream;
+        private final Function<? super T, ? extends R> mapper;
+        private final int maxInFlight;
+        private final Executor executor;
+        private final Deque<CompletableFuture<R>> inFlight = new ArrayDeque<>();
+        private boolean exhausted;
+
+        ConcurrentMappingSpliterator(Spliterator<T> upstream, Function<? super T, ? extends R> mapper, int maxInFlight,
+                                     Executor executor, int characteristics) {
+            super(upstream.estimateSize(), characteristics);
+            this.upstream = upstream;
+            this.mapper = mapper;
+            this.maxInFlight = maxInFlight;
+            this.executor = executor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (!exhausted && inFlight.size() < maxInFlight) {
+                exhausted = !upstream.tryAdvance(this::submit);
+            }
+            if (inFlight.isEmpty()) {
+                return false;
+            }
+            CompletableFuture<R> next = nextCompleted(inFlight);
+            inFlight.remove(next);
+            action.accept(join(next));
+            return true;
+        }
+
+        void cancel() {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+        }
+
+        void onSubmitted(CompletableFuture<R> future) {
+        }
+
+        /**
+         * The in-flight call whose result is emitted next; may block until it completes.
+         */
+        abstract CompletableFuture<R> nextCompleted(Deque<CompletableFuture<R>> inFlight);
+
+        private void submit(T element) {
+            CompletableFuture<R> future = CompletableFuture.supplyAsync(() -> mapper.apply(element), executor);
+            inFlight.add(future);
+            onSubmitted(future);
+        }
+
+        private R join(CompletableFuture<R> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                cancel();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class OrderedSpliterator<T, R> extends ConcurrentMappingSpliterator<T, R> {
+
+        OrderedSpliterator(Spliterator<T> upstream, Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+            super(upstream, mapper, maxInFlight, executor, upstream.characteristics() & (ORDERED | SIZED));
+        }
+
+        @Override
+        CompletableFuture<R> nextCompleted(Deque<CompletableFuture<R>> inFlight) {
+            return inFlight.peekFirst();
+        }
+    }
+
+    private static final class UnorderedSpliterator<T, R> extends ConcurrentMappingSpliterator<T, R> {
+
+        private final BlockingQueue<CompletableFuture<R>> completed = new LinkedBlockingQueue<>();
+
+        UnorderedSpliterator(Spliterator<T> upstream, Function<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+            super(upstream, mapper, maxInFlight, executor, upstream.characteristics() & SIZED);
+        }
+
+        @Override
+        void onSubmitted(CompletableFuture<R> future) {
+            future.whenComplete((result, failure) -> completed.add(future));
+        }
+
+        @Override
+        CompletableFuture<R> nextCompleted(Deque<CompletableFuture<R>> inFlight) {
+            try {
+                return completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("Interrupted while waiting for a mapped element");
+            }
+        }
+
+        @Override
+        void cancel() {
+            super.cancel();
+            completed.clear();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package adrspo.stream;
+
+final class CountAggregation<T> extends Aggregation<T, Long> {
+
+    private long count;
+
+    CountAggregation(Window window) {
+        super(window);
+    }
+
+    @Override
+    public Long current() {
+        return count;
+    }
+
+    @Override
+    void add(T element) {
+        if (window.kind() != Window.Kind.SLIDING || count < window.size()) {
+            count++;
+        }
+    }
+
+    @Override
+    void reset() {
+        count = 0;
+    }
+}
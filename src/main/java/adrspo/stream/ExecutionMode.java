@@ -0,0 +1,23 @@
+package adrspo.stream;
+
+/**
+ * Where {@link AdaptiveExecution} runs a pipeline.
+ */
+public enum ExecutionMode {
+
+    /**
+     * On the calling thread: too little work to pay for splitting and task handoff.
+     */
+    SEQUENTIAL,
+
+    /**
+     * As a parallel stream on the caller's {@code ForkJoinPool}, normally the common pool.
+     */
+    COMMON_POOL,
+
+    /**
+     * As a parallel stream on a separate, larger pool, for pipelines that spend most of their time blocked
+     * and would otherwise hold common-pool workers.
+     */
+    DEDICATED_POOL
+}
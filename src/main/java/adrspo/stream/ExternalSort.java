@@ -0,0 +1,284 @@
+package adrspo.stream;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code sorted()} replacements for inputs that do not fit on the heap, plus the cheaper special cases.
+ * <ul>
+ * <li>{@link #sorted(Stream, Comparator, SpillCodec, int)}: external merge sort. The source is cut into
+ * runs of {@code runSize} elements; full runs are sorted and spilled on the common pool while the next one
+ * is filled, then merged lazily as the downstream pulls. Equal elements keep their encounter order.</li>
+ * <li>{@link #sorted(IntStream)}/{@link #sorted(LongStream)}: in-memory {@link RadixSort}.</li>
+ * <li>{@link #sortedLimit(Stream, Comparator, int)}: {@code sorted(comparator).limit(k)} in one pass over
+ * a bounded heap, without buffering the stream.</li>
+ * </ul>
+ */
+public final class ExternalSort {
+
+    private static final int MAX_MERGE_FAN_IN = 256;
+
+    private static final int SORTED_ARRAY = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED
+            | Spliterator.SORTED | Spliterator.IMMUTABLE;
+
+    private ExternalSort() {
+    }
+
+    public static <T extends Comparable<? super T>> Stream<T> sorted(Stream<T> source, SpillCodec<T> codec, int runSize) {
+        return sorted(source, Comparator.naturalOrder(), codec, runSize);
+    }
+
+    /**
+     * Temporary files are deleted once the stream is consumed or closed.
+     */
+    public static <T> Stream<T> sorted(Stream<T> source, Comparator<? super T> comparator, SpillCodec<T> codec, int runSize) {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        MergingSpliterator<T> spliterator = new MergingSpliterator<>(source.spliterator(), comparator, codec, runSize);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::cleanUp)
+                .onClose(source::close);
+    }
+
+    /**
+     * The source is sorted when the terminal operation starts.
+     */
+    public static IntStream sorted(IntStream source) {
+        return StreamSupport.intStream(() -> {
+            int[] values = source.toArray();
+            RadixSort.sort(values);
+            return Spliterators.spliterator(values, SORTED_ARRAY);
+        }, SORTED_ARRAY, source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * The source is sorted when the terminal operation starts.
+     */
+    public static LongStream sorted(LongStream source) {
+        return StreamSupport.longStream(() -> {
+            long[] values = source.toArray();
+            RadixSort.sort(values);
+            return Spliterators.spliterator(values, SORTED_ARRAY);
+        }, SORTED_ARRAY, source.isParallel()).onClose(source::close);
+    }
+
+    /**
+     * {@code sorted(comparator).limit(k)}, holding only {@code k} elements. The source is consumed when the
+     * terminal operation starts.
+     */
+    public static <T> Stream<T> sortedLimit(Stream<T> source, Comparator<? super T> comparator, int k) {
+        TopK<T> topK = new TopK<>(comparator, k);
+        return StreamSupport.stream(() -> {
+            source.sequential().forEachOrdered(topK::offer);
+            return topK.toSortedList().spliterator();
+        }, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED, source.isParallel()).onClose(source::close);
+    }
+
+    private static final class MergingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Spliterator<T> source;
+        private final Comparator<? super T> comparator;
+        private final SpillCodec<T> codec;
+        private final int runSize;
+
+        private Path directory;
+        private Iterator<T> inMemory;
+        private PriorityQueue<Run<T>> runs;
+
+        MergingSpliterator(Spliterator<T> source, Comparator<? super T> comparator, SpillCodec<T> codec, int runSize) {
+            // merged runs have an encounter order even when the source has none, and SORTED requires one
+            super(source.estimateSize(), source.characteristics() & SIZED | ORDERED | SORTED);
+            this.source = source;
+            this.comparator = comparator;
+            this.codec = codec;
+            this.runSize = runSize;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return comparator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (inMemory == null && runs == null) {
+                prepare();
+            }
+            if (inMemory != null) {
+                if (!inMemory.hasNext()) {
+                    return false;
+                }
+                action.accept(inMemory.next());
+                return true;
+            }
+            Run<T> run = runs.poll();
+            if (run == null) {
+                cleanUp();
+                return false;
+            }
+            T element = run.element;
+            if (run.advance()) {
+                runs.add(run);
+            } else {
+                run.close();
+            }
+            action.accept(element);
+            return true;
+        }
+
+        void cleanUp() {
+            if (runs != null) {
+                runs.forEach(Run::close);
+                runs.clear();
+            }
+            SpillFiles.deleteRecursively(directory);
+            directory = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void prepare() {
+            Deque<CompletableFuture<Path>> spilling = new ArrayDeque<>();
+            List<Path> runFiles = new ArrayList<>();
+            int maxInFlight = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+            while (true) {
+                T[] buffer = (T[]) new Object[runSize];
+                int filled = fill(buffer);
+                if (filled < runSize && spilling.isEmpty() && runFiles.isEmpty()) {
+                    // everything fits in a single run: no disk involved
+                    Arrays.parallelSort(buffer, 0, filled, comparator);
+                    inMemory = Arrays.asList(buffer).subList(0, filled).iterator();
+                    return;
+                }
+                if (filled > 0) {
+                    if (directory == null) {
+                        directory = SpillFiles.createDirectory("sort");
+                    }
+                    spilling.add(CompletableFuture.supplyAsync(() -> spill(buffer, filled)));
+                    if (spilling.size() > maxInFlight) {
+                        runFiles.add(spilling.poll().join());
+                    }
+                }
+                if (filled < runSize) {
+                    break;
+                }
+            }
+            while (!spilling.isEmpty()) {
+                runFiles.add(spilling.poll().join());
+            }
+            while (runFiles.size() > MAX_MERGE_FAN_IN) {
+                List<Path> merged = new ArrayList<>();
+                for (int from = 0; from < runFiles.size(); from += MAX_MERGE_FAN_IN) {
+                    merged.add(merge(runFiles.subList(from, Math.min(runFiles.size(), from + MAX_MERGE_FAN_IN))));
+                }
+                runFiles = merged;
+            }
+            runs = open(runFiles);
+        }
+
+        private int fill(T[] buffer) {
+            int[] filled = {0};
+            while (filled[0] < buffer.length && source.tryAdvance(element -> buffer[filled[0]++] = element)) {
+                // keep pulling
+            }
+            return filled[0];
+        }
+
+        private Path spill(T[] buffer, int filled) {
+            Arrays.sort(buffer, 0, filled, comparator);
+            Path file = SpillFiles.createFile(directory);
+            try (DataOutputStream output = SpillFiles.output(file)) {
+                for (int i = 0; i < filled; i++) {
+                    codec.write(output, buffer[i]);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return file;
+        }
+
+        /**
+         * Merges consecutive runs into one, for inputs with more runs than can be merged at once.
+         */
+        private Path merge(List<Path> runFiles) {
+            PriorityQueue<Run<T>> group = open(runFiles);
+            Path file = SpillFiles.createFile(directory);
+            try (DataOutputStream output = SpillFiles.output(file)) {
+                Run<T> run;
+                while ((run = group.poll()) != null) {
+                    codec.write(output, run.element);
+                    if (run.advance()) {
+                        group.add(run);
+                    } else {
+                        run.close();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return file;
+        }
+
+        private PriorityQueue<Run<T>> open(List<Path> runFiles) {
+            // ties go to the earlier run, which keeps the sort stable
+            Comparator<Run<T>> byElement = (left, right) -> comparator.compare(left.element, right.element);
+            PriorityQueue<Run<T>> queue = new PriorityQueue<>(Math.max(1, runFiles.size()), byElement.thenComparingInt(run -> run.index));
+            for (int index = 0; index < runFiles.size(); index++) {
+                Run<T> run = new Run<>(runFiles.get(index), codec, index);
+                if (run.advance()) {
+                    queue.add(run);
+                } else {
+                    run.close();
+                }
+            }
+            return queue;
+        }
+    }
+
+    /**
+     * Cursor over a sorted run file.
+     */
+    private static final class Run<T> {
+
+        private final Path file;
+        private final SpillCodec<T> codec;
+        private final DataInputStream input;
+        private final int index;
+        private T element;
+
+        Run(Path file, SpillCodec<T> codec, int index) {
+            this.file = file;
+            this.codec = codec;
+            this.index = index;
+            this.input = SpillFiles.input(file);
+        }
+
+        boolean advance() {
+            try {
+                element = codec.read(input);
+                return true;
+            } catch (EOFException e) {
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            SpillFiles.close(input);
+            SpillFiles.delete(file);
+        }
+    }
+}
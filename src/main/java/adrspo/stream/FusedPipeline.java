@@ -0,0 +1,356 @@
+package adrspo.stream;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.*;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Opt-in, sequential replacement for filter/map/flatMap chains that compiles the whole chain into one
+ * {@link MethodHandle} (see {@link Fusion}) instead of a chain of {@code Sink}s.
+ * <p>
+ * A pipeline is immutable; each terminal compiles once per pipeline and is reused on later calls, so build
+ * the pipeline once and run it many times. Primitive sources stay unboxed until a {@code mapToObj}.
+ * <pre>
+ * FusedPipeline.range(1, 101).filter(x -&gt; x % 20 == 0).mapToObj(Integer::valueOf).toList();
+ * </pre>
+ */
+public final class FusedPipeline {
+
+    private FusedPipeline() {
+    }
+
+    public static IntPipeline ofInts(int[] values) {
+        return new IntPipeline((step, state) -> Fusion.run(step, state, values), UnaryOperator.identity());
+    }
+
+    /**
+     * {@code from} inclusive, {@code to} exclusive, like {@link java.util.stream.IntStream#range}.
+     */
+    public static IntPipeline range(int from, int to) {
+        return new IntPipeline((step, state) -> Fusion.run(step, state, from, to), UnaryOperator.identity());
+    }
+
+    public static LongPipeline ofLongs(long[] values) {
+        return new LongPipeline((step, state) -> Fusion.run(step, state, values), UnaryOperator.identity());
+    }
+
+    public static DoublePipeline ofDoubles(double[] values) {
+        return new DoublePipeline((step, state) -> Fusion.run(step, state, values), UnaryOperator.identity());
+    }
+
+    public static <T> ObjectPipeline<T> of(List<? extends T> values) {
+        return new ObjectPipeline<>((step, state) -> Fusion.run(step, state, values), UnaryOperator.identity());
+    }
+
+    @SafeVarargs
+    public static <T> ObjectPipeline<T> of(T... values) {
+        List<T> list = new ArrayList<>(values.length);
+        for (T value : values) {
+            list.add(value);
+        }
+        return of(list);
+    }
+
+    @FunctionalInterface
+    interface Source {
+
+        void run(MethodHandle step, Object state);
+    }
+
+    abstract static class Stage {
+
+        final Source source;
+        final UnaryOperator<MethodHandle> chain;
+        private final ConcurrentMap<String, MethodHandle> compiled = new ConcurrentHashMap<>();
+
+        Stage(Source source, UnaryOperator<MethodHandle> chain) {
+            this.source = source;
+            this.chain = chain;
+        }
+
+        /**
+         * The chain with {@code operator} appended: it wraps the downstream step before this stage's operators do.
+         */
+        UnaryOperator<MethodHandle> then(UnaryOperator<MethodHandle> operator) {
+            return downstream -> chain.apply(operator.apply(downstream));
+        }
+
+        <S> S run(String terminal, Supplier<MethodHandle> accept, S state) {
+            MethodHandle step = compiled.computeIfAbsent(terminal, key -> chain.apply(accept.get()));
+            source.run(step, state);
+            return state;
+        }
+    }
+
+    public static final class IntPipeline extends Stage {
+
+        IntPipeline(Source source, UnaryOperator<MethodHandle> chain) {
+            super(source, chain);
+        }
+
+        public IntPipeline filter(IntPredicate predicate) {
+            MethodHandle test = Fusion.bind(IntPredicate.class, "test", methodType(boolean.class, int.class), predicate);
+            return new IntPipeline(source, then(downstream -> Fusion.filter(downstream, test)));
+        }
+
+        public IntPipeline map(IntUnaryOperator mapper) {
+            MethodHandle apply = Fusion.bind(IntUnaryOperator.class, "applyAsInt", methodType(int.class, int.class), mapper);
+            return new IntPipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public LongPipeline mapToLong(IntToLongFunction mapper) {
+            MethodHandle apply = Fusion.bind(IntToLongFunction.class, "applyAsLong", methodType(long.class, int.class), mapper);
+            return new LongPipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public DoublePipeline mapToDouble(IntToDoubleFunction mapper) {
+            MethodHandle apply = Fusion.bind(IntToDoubleFunction.class, "applyAsDouble", methodType(double.class, int.class), mapper);
+            return new DoublePipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public <U> ObjectPipeline<U> mapToObj(IntFunction<? extends U> mapper) {
+            MethodHandle apply = Fusion.bind(IntFunction.class, "apply", methodType(Object.class, int.class), mapper);
+            return new ObjectPipeline<>(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public IntPipeline flatMap(IntFunction<int[]> mapper) {
+            MethodHandle apply = Fusion.bind(IntFunction.class, "apply", methodType(Object.class, int.class), mapper);
+            return new IntPipeline(source, then(downstream -> Fusion.flatMapToInt(downstream, apply)));
+        }
+
+        public long count() {
+            return run("count", () -> Fusion.counting(int.class), new long[1])[0];
+        }
+
+        public int sum() {
+            return (int) summaryStatistics().getSum();
+        }
+
+        public OptionalDouble average() {
+            IntSummaryStatistics statistics = summaryStatistics();
+            return statistics.getCount() > 0 ? OptionalDouble.of(statistics.getAverage()) : OptionalDouble.empty();
+        }
+
+        public IntSummaryStatistics summaryStatistics() {
+            return run("statistics", () -> Fusion.terminal(Fusion.INT_STATISTICS, int.class), new IntSummaryStatistics());
+        }
+
+        /**
+         * The operator is applied inside the fused step, so the reduction stays unboxed.
+         */
+        public int reduce(int identity, IntBinaryOperator operator) {
+            return run("reduce", () -> Fusion.terminal(Fusion.INT_REDUCTION, int.class), new Fusion.IntReduction(identity, operator)).result;
+        }
+
+        public OptionalInt reduce(IntBinaryOperator operator) {
+            Fusion.IntReduction reduction = run("reduce", () -> Fusion.terminal(Fusion.INT_REDUCTION, int.class), new Fusion.IntReduction(operator));
+            return reduction.found ? OptionalInt.of(reduction.result) : OptionalInt.empty();
+        }
+
+        public int[] toArray() {
+            return run("toArray", () -> Fusion.terminal(Fusion.INT_LIST, int.class), new IntArrayList()).toArray();
+        }
+
+        public void forEach(IntConsumer action) {
+            run("forEach", () -> Fusion.terminal(Fusion.INT_CONSUMER, int.class), action);
+        }
+    }
+
+    public static final class LongPipeline extends Stage {
+
+        LongPipeline(Source source, UnaryOperator<MethodHandle> chain) {
+            super(source, chain);
+        }
+
+        public LongPipeline filter(LongPredicate predicate) {
+            MethodHandle test = Fusion.bind(LongPredicate.class, "test", methodType(boolean.class, long.class), predicate);
+            return new LongPipeline(source, then(downstream -> Fusion.filter(downstream, test)));
+        }
+
+        public LongPipeline map(LongUnaryOperator mapper) {
+            MethodHandle apply = Fusion.bind(LongUnaryOperator.class, "applyAsLong", methodType(long.class, long.class), mapper);
+            return new LongPipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public DoublePipeline mapToDouble(LongToDoubleFunction mapper) {
+            MethodHandle apply = Fusion.bind(LongToDoubleFunction.class, "applyAsDouble", methodType(double.class, long.class), mapper);
+            return new DoublePipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public <U> ObjectPipeline<U> mapToObj(LongFunction<? extends U> mapper) {
+            MethodHandle apply = Fusion.bind(LongFunction.class, "apply", methodType(Object.class, long.class), mapper);
+            return new ObjectPipeline<>(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public long count() {
+            return run("count", () -> Fusion.counting(long.class), new long[1])[0];
+        }
+
+        public long sum() {
+            return summaryStatistics().getSum();
+        }
+
+        public OptionalDouble average() {
+            LongSummaryStatistics statistics = summaryStatistics();
+            return statistics.getCount() > 0 ? OptionalDouble.of(statistics.getAverage()) : OptionalDouble.empty();
+        }
+
+        public LongSummaryStatistics summaryStatistics() {
+            return run("statistics", () -> Fusion.terminal(Fusion.LONG_STATISTICS, long.class), new LongSummaryStatistics());
+        }
+
+        public long reduce(long identity, LongBinaryOperator operator) {
+            return run("reduce", () -> Fusion.terminal(Fusion.LONG_REDUCTION, long.class), new Fusion.LongReduction(identity, operator)).result;
+        }
+
+        public OptionalLong reduce(LongBinaryOperator operator) {
+            Fusion.LongReduction reduction = run("reduce", () -> Fusion.terminal(Fusion.LONG_REDUCTION, long.class), new Fusion.LongReduction(operator));
+            return reduction.found ? OptionalLong.of(reduction.result) : OptionalLong.empty();
+        }
+
+        public void forEach(LongConsumer action) {
+            run("forEach", () -> Fusion.terminal(Fusion.LONG_CONSUMER, long.class), action);
+        }
+    }
+
+    public static final class DoublePipeline extends Stage {
+
+        DoublePipeline(Source source, UnaryOperator<MethodHandle> chain) {
+            super(source, chain);
+        }
+
+        public DoublePipeline filter(DoublePredicate predicate) {
+            MethodHandle test = Fusion.bind(DoublePredicate.class, "test", methodType(boolean.class, double.class), predicate);
+            return new DoublePipeline(source, then(downstream -> Fusion.filter(downstream, test)));
+        }
+
+        public DoublePipeline map(DoubleUnaryOperator mapper) {
+            MethodHandle apply = Fusion.bind(DoubleUnaryOperator.class, "applyAsDouble", methodType(double.class, double.class), mapper);
+            return new DoublePipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public <U> ObjectPipeline<U> mapToObj(DoubleFunction<? extends U> mapper) {
+            MethodHandle apply = Fusion.bind(DoubleFunction.class, "apply", methodType(Object.class, double.class), mapper);
+            return new ObjectPipeline<>(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public long count() {
+            return run("count", () -> Fusion.counting(double.class), new long[1])[0];
+        }
+
+        /**
+         * Compensated, so equal to {@link java.util.stream.DoubleStream#sum()}.
+         */
+        public double sum() {
+            return summaryStatistics().getSum();
+        }
+
+        public OptionalDouble average() {
+            DoubleSummaryStatistics statistics = summaryStatistics();
+            return statistics.getCount() > 0 ? OptionalDouble.of(statistics.getAverage()) : OptionalDouble.empty();
+        }
+
+        public DoubleSummaryStatistics summaryStatistics() {
+            return run("statistics", () -> Fusion.terminal(Fusion.DOUBLE_STATISTICS, double.class), new DoubleSummaryStatistics());
+        }
+
+        public double reduce(double identity, DoubleBinaryOperator operator) {
+            return run("reduce", () -> Fusion.terminal(Fusion.DOUBLE_REDUCTION, double.class), new Fusion.DoubleReduction(identity, operator)).result;
+        }
+
+        public OptionalDouble reduce(DoubleBinaryOperator operator) {
+            Fusion.DoubleReduction reduction = run("reduce", () -> Fusion.terminal(Fusion.DOUBLE_REDUCTION, double.class), new Fusion.DoubleReduction(operator));
+            return reduction.found ? OptionalDouble.of(reduction.result) : OptionalDouble.empty();
+        }
+
+        public void forEach(DoubleConsumer action) {
+            run("forEach", () -> Fusion.terminal(Fusion.DOUBLE_CONSUMER, double.class), action);
+        }
+    }
+
+    public static final class ObjectPipeline<T> extends Stage {
+
+        ObjectPipeline(Source source, UnaryOperator<MethodHandle> chain) {
+            super(source, chain);
+        }
+
+        public ObjectPipeline<T> filter(Predicate<? super T> predicate) {
+            MethodHandle test = Fusion.bind(Predicate.class, "test", methodType(boolean.class, Object.class), predicate);
+            return new ObjectPipeline<>(source, then(downstream -> Fusion.filter(downstream, test)));
+        }
+
+        public <R> ObjectPipeline<R> map(Function<? super T, ? extends R> mapper) {
+            MethodHandle apply = Fusion.bind(Function.class, "apply", methodType(Object.class, Object.class), mapper);
+            return new ObjectPipeline<>(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public IntPipeline mapToInt(ToIntFunction<? super T> mapper) {
+            MethodHandle apply = Fusion.bind(ToIntFunction.class, "applyAsInt", methodType(int.class, Object.class), mapper);
+            return new IntPipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public LongPipeline mapToLong(ToLongFunction<? super T> mapper) {
+            MethodHandle apply = Fusion.bind(ToLongFunction.class, "applyAsLong", methodType(long.class, Object.class), mapper);
+            return new LongPipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public DoublePipeline mapToDouble(ToDoubleFunction<? super T> mapper) {
+            MethodHandle apply = Fusion.bind(ToDoubleFunction.class, "applyAsDouble", methodType(double.class, Object.class), mapper);
+            return new DoublePipeline(source, then(downstream -> Fusion.map(downstream, apply)));
+        }
+
+        public <R> ObjectPipeline<R> flatMap(Function<? super T, ? extends Iterable<? extends R>> mapper) {
+            MethodHandle apply = Fusion.bind(Function.class, "apply", methodType(Object.class, Object.class), mapper);
+            return new ObjectPipeline<>(source, then(downstream -> Fusion.flatMap(downstream, apply)));
+        }
+
+        public IntPipeline flatMapToInt(Function<? super T, int[]> mapper) {
+            MethodHandle apply = Fusion.bind(Function.class, "apply", methodType(Object.class, Object.class), mapper);
+            return new IntPipeline(source, then(downstream -> Fusion.flatMapToInt(downstream, apply)));
+        }
+
+        public long count() {
+            return run("count", () -> Fusion.counting(Object.class), new long[1])[0];
+        }
+
+        public T reduce(T identity, BinaryOperator<T> operator) {
+            return run("reduce", () -> Fusion.terminal(Fusion.REDUCTION, Object.class), new Fusion.Reduction<>(identity, operator)).result;
+        }
+
+        /**
+         * @throws NullPointerException if the result is {@code null}, like {@link java.util.stream.Stream#reduce(BinaryOperator)}
+         */
+        public Optional<T> reduce(BinaryOperator<T> operator) {
+            Fusion.Reduction<T> reduction = run("reduce", () -> Fusion.terminal(Fusion.REDUCTION, Object.class), new Fusion.Reduction<>(operator));
+            return reduction.found ? Optional.of(reduction.result) : Optional.empty();
+        }
+
+        public void forEach(Consumer<? super T> action) {
+            run("forEach", () -> Fusion.terminal(Fusion.CONSUMER, Object.class), action);
+        }
+
+        public <A, R> R collect(Collector<? super T, A, R> collector) {
+            Fusion.Accumulation<A, T> accumulation = new Fusion.Accumulation<>(collector.accumulator(), collector.supplier().get());
+            run("collect", () -> Fusion.terminal(Fusion.ACCUMULATION, Object.class), accumulation);
+            return collector.finisher().apply(accumulation.container);
+        }
+
+        public List<T> toList() {
+            return collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package adrspo.stream;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * {@link MethodHandle} building blocks for {@link FusedPipeline}.
+ * <p>
+ * A compiled pipeline is one <em>step</em> handle of type {@code (Object state, V element)void}, where
+ * {@code V} is the source's element type ({@code int}, {@code long}, {@code double} or {@code Object}).
+ * Operators wrap the downstream step, the terminal's {@code accept} sits at the bottom, and a source loop
+ * calls the step once per element. The JIT customizes a handle once it gets hot, so the whole chain ends
+ * up as one inlined method with primitives kept unboxed.
+ */
+final class Fusion {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    static final MethodHandle INCREMENT = method(Fusion.class, "increment", methodType(void.class, long[].class));
+    static final MethodHandle INT_STATISTICS = virtual(IntSummaryStatistics.class, "accept", methodType(void.class, int.class));
+    static final MethodHandle LONG_STATISTICS = virtual(LongSummaryStatistics.class, "accept", methodType(void.class, long.class));
+    static final MethodHandle DOUBLE_STATISTICS = virtual(DoubleSummaryStatistics.class, "accept", methodType(void.class, double.class));
+    static final MethodHandle INT_CONSUMER = virtual(IntConsumer.class, "accept", methodType(void.class, int.class));
+    static final MethodHandle LONG_CONSUMER = virtual(LongConsumer.class, "accept", methodType(void.class, long.class));
+    static final MethodHandle DOUBLE_CONSUMER = virtual(DoubleConsumer.class, "accept", methodType(void.class, double.class));
+    static final MethodHandle CONSUMER = virtual(Consumer.class, "accept", methodType(void.class, Object.class));
+    static final MethodHandle INT_LIST = virtual(IntArrayList.class, "add", methodType(void.class, int.class));
+    static final MethodHandle ACCUMULATION = virtual(Accumulation.class, "accept", methodType(void.class, Object.class));
+    static final MethodHandle INT_REDUCTION = virtual(IntReduction.class, "accept", methodType(void.class, int.class));
+    static final MethodHandle LONG_REDUCTION = virtual(LongReduction.class, "accept", methodType(void.class, long.class));
+    static final MethodHandle DOUBLE_REDUCTION = virtual(DoubleReduction.class, "accept", methodType(void.class, double.class));
+    static final MethodHandle REDUCTION = virtual(Reduction.class, "accept", methodType(void.class, Object.class));
+
+    private static final MethodHandle FOR_EACH_INT = method(Fusion.class, "forEach", methodType(void.class, MethodHandle.class, Object.class, int[].class));
+    private static final MethodHandle FOR_EACH = method(Fusion.class, "forEach", methodType(void.class, MethodHandle.class, Object.class, Iterable.class));
+
+    private Fusion() {
+    }
+
+    /**
+     * State of a {@code collect} terminal: the collector's accumulator and its container.
+     */
+    static final class Accumulation<A, T> {
+
+        private final BiConsumer<A, ? super T> accumulator;
+        final A container;
+
+        Accumulation(BiConsumer<A, ? super T> accumulator, A container) {
+            this.accumulator = accumulator;
+            this.container = container;
+        }
+
+        void accept(T element) {
+            accumulator.accept(container, element);
+        }
+    }
+
+    /**
+     * State of a {@code reduce} terminal: the operator and the result so far, which is the identity or, without
+     * one, the first element.
+     */
+    static final class IntReduction {
+
+        private final IntBinaryOperator operator;
+        boolean found;
+        int result;
+
+        IntReduction(IntBinaryOperator operator) {
+            this.operator = operator;
+        }
+
+        IntReduction(int identity, IntBinaryOperator operator) {
+            this.operator = operator;
+            this.found = true;
+            this.result = identity;
+        }
+
+        void accept(int element) {
+            if (found) {
+                result = operator.applyAsInt(result, element);
+            } else {
+                found = true;
+                result = element;
+            }
+        }
+    }
+
+    static final class LongReduction {
+
+        private final LongBinaryOperator operator;
+        boolean found;
+        long result;
+
+        LongReduction(LongBinaryOperator operator) {
+            this.operator = operator;
+        }
+
+        LongReduction(long identity, LongBinaryOperator operator) {
+            this.operator = operator;
+            this.found = true;
+            this.result = identity;
+        }
+
+        void accept(long element) {
+            if (found) {
+                result = operator.applyAsLong(result, element);
+            } else {
+                found = true;
+                result = element;
+            }
+        }
+    }
+
+    static final class DoubleReduction {
+
+        private final DoubleBinaryOperator operator;
+        boolean found;
+        double result;
+
+        DoubleReduction(DoubleBinaryOperator operator) {
+            this.operator = operator;
+        }
+
+        DoubleReduction(double identity, DoubleBinaryOperator operator) {
+            this.operator = operator;
+            this.found = true;
+            this.result = identity;
+        }
+
+        void accept(double element) {
+            if (found) {
+                result = operator.applyAsDouble(result, element);
+            } else {
+                found = true;
+                result = element;
+            }
+        }
+    }
+
+    static final class Reduction<T> {
+
+        private final BinaryOperator<T> operator;
+        boolean found;
+        T result;
+
+        Reduction(BinaryOperator<T> operator) {
+            this.operator = operator;
+        }
+
+        Reduction(T identity, BinaryOperator<T> operator) {
+            this.operator = operator;
+            this.found = true;
+            this.result = identity;
+        }
+
+        void accept(T element) {
+            if (found) {
+                result = operator.apply(result, element);
+            } else {
+                found = true;
+                result = element;
+            }
+        }
+    }
+
+    /**
+     * Binds a functional interface method to its instance.
+     */
+    static MethodHandle bind(Class<?> functionalInterface, String name, MethodType type, Object function) {
+        return virtual(functionalInterface, name, type).bindTo(function);
+    }
+
+    /**
+     * A terminal {@code accept(state, element)} handle, adapted to the step type.
+     */
+    static MethodHandle terminal(MethodHandle accept, Class<?> elementType) {
+        return accept.asType(step(elementType));
+    }
+
+    static MethodHandle counting(Class<?> elementType) {
+        return terminal(MethodHandles.dropArguments(INCREMENT, 1, elementType), elementType);
+    }
+
+    static MethodHandle filter(MethodHandle downstream, MethodHandle predicate) {
+        return MethodHandles.guardWithTest(
+                MethodHandles.dropArguments(predicate, 0, Object.class),
+                downstream,
+                MethodHandles.empty(downstream.type()));
+    }
+
+    static MethodHandle map(MethodHandle downstream, MethodHandle mapper) {
+        return MethodHandles.filterArguments(downstream, 1, mapper);
+    }
+
+    /**
+     * {@code mapper} returns the {@code int[]} to flatten.
+     */
+    static MethodHandle flatMapToInt(MethodHandle downstream, MethodHandle mapper) {
+        return map(FOR_EACH_INT.bindTo(downstream), mapper.asType(mapper.type().changeReturnType(int[].class)));
+    }
+
+    /**
+     * {@code mapper} returns the {@link Iterable} to flatten.
+     */
+    static MethodHandle flatMap(MethodHandle downstream, MethodHandle mapper) {
+        return map(FOR_EACH.bindTo(downstream), mapper.asType(mapper.type().changeReturnType(Iterable.class)));
+    }
+
+    static void run(MethodHandle step, Object state, int[] values) {
+        try {
+            for (int value : values) {
+                step.invokeExact(state, value);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void run(MethodHandle step, Object state, int from, int to) {
+        try {
+            for (int value = from; value < to; value++) {
+                step.invokeExact(state, value);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void run(MethodHandle step, Object state, long[] values) {
+        try {
+            for (long value : values) {
+                step.invokeExact(state, value);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void run(MethodHandle step, Object state, double[] values) {
+        try {
+            for (double value : values) {
+                step.invokeExact(state, value);
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    static void run(MethodHandle step, Object state, List<?> values) {
+        try {
+            if (values instanceof RandomAccess) {
+                for (int i = 0, size = values.size(); i < size; i++) {
+                    step.invokeExact(state, (Object) values.get(i));
+                }
+            } else {
+                for (Object value : values) {
+                    step.invokeExact(state, value);
+                }
+            }
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static void increment(long[] count) {
+        count[0]++;
+    }
+
+    private static void forEach(MethodHandle step, Object state, int[] values) throws Throwable {
+        for (int value : values) {
+            step.invokeExact(state, value);
+        }
+    }
+
+    private static void forEach(MethodHandle step, Object state, Iterable<?> values) throws Throwable {
+        for (Object value : values) {
+            step.invokeExact(state, value);
+        }
+    }
+
+    private static MethodType step(Class<?> elementType) {
+        return methodType(void.class, Object.class, elementType);
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new UndeclaredThrowableException(t);
+    }
+
+    private static MethodHandle method(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle virtual(Class<?> owner, String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package adrspo.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * {@code groupingBy(classifier, counting())} over a window; a sliding window remembers the keys of the
+ * elements it holds so the oldest one can be decremented on eviction.
+ */
+final class GroupingCountAggregation<T, K> extends Aggregation<T, Map<K, Long>> {
+
+    private final Function<? super T, ? extends K> classifier;
+    private final Map<K, long[]> counts = new HashMap<>();
+
+    // sliding window only
+    private final Object[] keys;
+    private long sequence;
+
+    GroupingCountAggregation(Window window, Function<? super T, ? extends K> classifier) {
+        super(window);
+        this.classifier = classifier;
+        this.keys = window.kind() == Window.Kind.SLIDING ? new Object[window.size()] : null;
+    }
+
+    @Override
+    public Map<K, Long> current() {
+        Map<K, Long> snapshot = new HashMap<>(counts.size() * 4 / 3 + 1);
+        counts.forEach((key, count) -> snapshot.put(key, count[0]));
+        return snapshot;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void add(T element) {
+        K key = classifier.apply(element);
+        if (keys != null) {
+            int slot = (int) (sequence++ % keys.length);
+            if (sequence > keys.length) {
+                K evicted = (K) keys[slot];
+                long[] count = counts.get(evicted);
+                if (--count[0] == 0) {
+                    counts.remove(evicted);
+                }
+            }
+            keys[slot] = key;
+        }
+        counts.computeIfAbsent(key, k -> new long[1])[0]++;
+    }
+
+    @Override
+    void reset() {
+        counts.clear();
+    }
+}
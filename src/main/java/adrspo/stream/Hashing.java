@@ -0,0 +1,44 @@
+package adrspo.stream;
+
+/**
+ * Hash mixing and table sizing shared by the open-addressing primitive tables.
+ */
+final class Hashing {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    /**
+     * Fibonacci scrambling, so that sequential keys do not cluster under linear probing.
+     */
+    static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * MurmurHash3 finalizer.
+     */
+    static long mix64(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    static int tableSize(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        long required = Math.max(2L, (long) Math.ceil(expectedSize / loadFactor));
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+}
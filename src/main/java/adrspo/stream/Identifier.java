@@ -0,0 +1,147 @@
+package adrspo.stream;
+
+import java.util.UUID;
+
+/**
+ * A {@link Person} identifier. Depending on the {@link IdentifierStrategy} it is kept as text, as a
+ * compact 128-bit value that is formatted on first read, or not generated at all until first read.
+ */
+public abstract class Identifier {
+
+    Identifier() {
+    }
+
+    public static Identifier of(String text) {
+        return new Text(text);
+    }
+
+    public static Identifier of(UUID uuid) {
+        return of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public static Identifier of(long mostSignificantBits, long leastSignificantBits) {
+        return new Binary(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a textual identifier is not a UUID
+     */
+    public abstract long getMostSignificantBits();
+
+    /**
+     * @throws IllegalArgumentException if a textual identifier is not a UUID
+     */
+    public abstract long getLeastSignificantBits();
+
+    public UUID toUuid() {
+        return new UUID(getMostSignificantBits(), getLeastSignificantBits());
+    }
+
+    @Override
+    public abstract String toString();
+
+    private static final class Text extends Identifier {
+
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public long getMostSignificantBits() {
+            return UUID.fromString(text).getMostSignificantBits();
+        }
+
+        @Override
+        public long getLeastSignificantBits() {
+            return UUID.fromString(text).getLeastSignificantBits();
+        }
+
+        @Override
+        public UUID toUuid() {
+            return UUID.fromString(text);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static final class Binary extends Identifier {
+
+        private final long mostSignificantBits;
+        private final long leastSignificantBits;
+        // racy single-check: String is immutable, so the worst case is formatting twice
+        private String text;
+
+        Binary(long mostSignificantBits, long leastSignificantBits) {
+            this.mostSignificantBits = mostSignificantBits;
+            this.leastSignificantBits = leastSignificantBits;
+        }
+
+        @Override
+        public long getMostSignificantBits() {
+            return mostSignificantBits;
+        }
+
+        @Override
+        public long getLeastSignificantBits() {
+            return leastSignificantBits;
+        }
+
+        @Override
+        public String toString() {
+            String result = text;
+            if (result == null) {
+                result = new UUID(mostSignificantBits, leastSignificantBits).toString();
+                text = result;
+            }
+            return result;
+        }
+    }
+
+    static final class Lazy extends Identifier {
+
+        private final IdentifierStrategy strategy;
+        private volatile Identifier resolved;
+
+        Lazy(IdentifierStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        private Identifier resolved() {
+            Identifier result = resolved;
+            if (result == null) {
+                synchronized (this) {
+                    result = resolved;
+                    if (result == null) {
+                        result = strategy.next();
+                        resolved = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        boolean isResolved() {
+            return resolved != null;
+        }
+
+        @Override
+        public long getMostSignificantBits() {
+            return resolved().getMostSignificantBits();
+        }
+
+        @Override
+        public long getLeastSignificantBits() {
+            return resolved().getLeastSignificantBits();
+        }
+
+        @Override
+        public String toString() {
+            return resolved().toString();
+        }
+    }
+}
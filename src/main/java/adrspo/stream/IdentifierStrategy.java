@@ -0,0 +1,43 @@
+package adrspo.stream;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of {@link Person} identifiers; all built-in strategies produce version 4 (random) UUIDs.
+ */
+@FunctionalInterface
+public interface IdentifierStrategy {
+
+    /**
+     * {@code UUID.randomUUID().toString()} computed eagerly; the historical behaviour.
+     */
+    IdentifierStrategy SECURE_RANDOM = () -> Identifier.of(UUID.randomUUID().toString());
+
+    /**
+     * {@link java.security.SecureRandom}-backed like {@link #SECURE_RANDOM}, but kept as two {@code long}s
+     * and only formatted when read.
+     */
+    IdentifierStrategy SECURE_RANDOM_BINARY = () -> Identifier.of(UUID.randomUUID());
+
+    /**
+     * Non-cryptographic {@link ThreadLocalRandom} bits kept as two {@code long}s; no contention under
+     * parallel construction, but the identifiers are predictable.
+     */
+    IdentifierStrategy THREAD_LOCAL_RANDOM = () -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return Identifier.of(mostSignificantBits, leastSignificantBits);
+    };
+
+    Identifier next();
+
+    /**
+     * Defers {@code strategy} until the identifier is first read, so unread identifiers cost nothing
+     * beyond a small holder.
+     */
+    static IdentifierStrategy lazy(IdentifierStrategy strategy) {
+        return () -> new Identifier.Lazy(strategy);
+    }
+}
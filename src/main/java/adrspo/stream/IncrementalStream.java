@@ -0,0 +1,147 @@
+package adrspo.stream;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Push-based counterpart of {@link Stream} for unbounded sources. Elements are pushed into the
+ * {@link #create() source} one at a time and flow through {@code filter}/{@code map}/{@code flatMap}/
+ * {@code distinct} stages into aggregations whose results are always current, so nothing is ever
+ * re-scanned. Every stage may feed several downstream stages or aggregations.
+ * <p>
+ * Pipelines are not thread-safe; push from a single thread.
+ *
+ * <pre>{@code
+ * IncrementalStream.Source<Integer> numbers = IncrementalStream.create();
+ * Aggregation<Integer, WindowStatistics> evens = numbers.filter(x -> x % 2 == 0)
+ *         .summaryStatistics(Integer::doubleValue, Window.sliding(100));
+ * numbers.pushAll(Stream.iterate(2, x -> x * 2).limit(20));
+ * evens.current().getAverage();
+ * }</pre>
+ *
+ * @param <T> the element type
+ */
+public class IncrementalStream<T> {
+
+    private final List<Consumer<? super T>> downstream = new ArrayList<>();
+
+    IncrementalStream() {
+    }
+
+    public static <T> Source<T> create() {
+        return new Source<>();
+    }
+
+    /**
+     * Entry point of a pipeline.
+     */
+    public static final class Source<T> extends IncrementalStream<T> {
+
+        private Source() {
+        }
+
+        public void push(T element) {
+            emit(element);
+        }
+
+        /**
+         * Pushes every element of a (finite) batch stream, in encounter order.
+         */
+        public void pushAll(Stream<? extends T> elements) {
+            elements.sequential().forEachOrdered(this::emit);
+        }
+    }
+
+    public IncrementalStream<T> filter(Predicate<? super T> predicate) {
+        IncrementalStream<T> child = new IncrementalStream<>();
+        subscribe(element -> {
+            if (predicate.test(element)) {
+                child.emit(element);
+            }
+        });
+        return child;
+    }
+
+    public <R> IncrementalStream<R> map(Function<? super T, ? extends R> mapper) {
+        IncrementalStream<R> child = new IncrementalStream<>();
+        subscribe(element -> child.emit(mapper.apply(element)));
+        return child;
+    }
+
+    public <R> IncrementalStream<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
+        IncrementalStream<R> child = new IncrementalStream<>();
+        subscribe(element -> {
+            try (Stream<? extends R> mapped = mapper.apply(element)) {
+                if (mapped != null) {
+                    mapped.sequential().forEachOrdered(child::emit);
+                }
+            }
+        });
+        return child;
+    }
+
+    /**
+     * Like {@link Stream#distinct()}, remembers every element it has let through.
+     */
+    public IncrementalStream<T> distinct() {
+        IncrementalStream<T> child = new IncrementalStream<>();
+        Set<T> seen = new HashSet<>();
+        subscribe(element -> {
+            if (seen.add(element)) {
+                child.emit(element);
+            }
+        });
+        return child;
+    }
+
+    public IncrementalStream<T> peek(Consumer<? super T> action) {
+        IncrementalStream<T> child = new IncrementalStream<>();
+        subscribe(element -> {
+            action.accept(element);
+            child.emit(element);
+        });
+        return child;
+    }
+
+    /**
+     * Terminal callback, like {@link Stream#forEach(Consumer)} but for every element as it arrives.
+     */
+    public void forEach(Consumer<? super T> action) {
+        subscribe(action);
+    }
+
+    public Aggregation<T, Long> count(Window window) {
+        return aggregate(new CountAggregation<>(window));
+    }
+
+    public Aggregation<T, WindowStatistics> summaryStatistics(ToDoubleFunction<? super T> mapper, Window window) {
+        return aggregate(new StatisticsAggregation<>(window, mapper));
+    }
+
+    public <K> Aggregation<T, Map<K, Long>> groupingCounting(Function<? super T, ? extends K> classifier, Window window) {
+        return aggregate(new GroupingCountAggregation<>(window, classifier));
+    }
+
+    private <R> Aggregation<T, R> aggregate(Aggregation<T, R> aggregation) {
+        subscribe(aggregation::accept);
+        return aggregation;
+    }
+
+    private void subscribe(Consumer<? super T> consumer) {
+        downstream.add(consumer);
+    }
+
+    final void emit(T element) {
+        for (int i = 0; i < downstream.size(); i++) {
+            downstream.get(i).accept(element);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package adrspo.stream;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Spliterator over the index range {@code [from, to)} of a random-access source, splitting in halves.
+ */
+class IndexSpliterator<T> implements Spliterator<T> {
+
+    private final IntFunction<? extends T> elementAt;
+    private final int characteristics;
+    private int from;
+    private final int to;
+
+    IndexSpliterator(IntFunction<? extends T> elementAt, int from, int to, int characteristics) {
+        this.elementAt = elementAt;
+        this.from = from;
+        this.to = to;
+        this.characteristics = characteristics | ORDERED | SIZED | SUBSIZED;
+    }
+
+    /**
+     * Creates the spliterator for a sub-range; overridden when every split needs its own state.
+     */
+    IndexSpliterator<T> slice(int from, int to) {
+        return new IndexSpliterator<>(elementAt, from, to, characteristics);
+    }
+
+    T elementAt(int index) {
+        return elementAt.apply(index);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(elementAt(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        int end = to;
+        for (int index = from; index < end; index++) {
+            action.accept(elementAt(index));
+        }
+        from = end;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int middle = (from + to) >>> 1;
+        if (middle <= from) {
+            return null;
+        }
+        Spliterator<T> prefix = slice(from, middle);
+        from = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
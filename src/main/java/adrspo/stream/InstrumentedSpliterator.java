@@ -0,0 +1,69 @@
+package adrspo.stream;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Source spliterator that reports its splits and its first traversal to a {@link PipelineMetrics}.
+ */
+final class InstrumentedSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T> source;
+    private final PipelineMetrics metrics;
+    private boolean traversed;
+
+    InstrumentedSpliterator(Spliterator<T> source, PipelineMetrics metrics) {
+        this.source = source;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        countTraversal();
+        return source.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        countTraversal();
+        source.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<T> prefix = source.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        metrics.countSplit();
+        return new InstrumentedSpliterator<>(prefix, metrics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return source.getExactSizeIfKnown();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics();
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+    private void countTraversal() {
+        if (!traversed) {
+            traversed = true;
+            metrics.countLeafTask();
+        }
+    }
+}
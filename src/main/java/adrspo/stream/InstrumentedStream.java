@@ -0,0 +1,349 @@
+package adrspo.stream;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.*;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link Stream} that records every operator applied to it as a stage of a {@link PipelineMetrics}.
+ * <p>
+ * Functional operators have their function wrapped; {@code distinct}, {@code sorted}, {@code limit} and
+ * {@code skip} are counted by a {@code peek} on either side. The time of a {@code flatMap} stage covers
+ * creating the inner streams, not traversing them. Conversions to primitive streams are recorded, but
+ * stages after them are not.
+ */
+final class InstrumentedStream<T> implements Stream<T> {
+
+    private final Stream<T> delegate;
+    private final PipelineMetrics metrics;
+    private final int stageIndex;
+    private final List<StageMetrics.Recorder> recorders;
+
+    InstrumentedStream(Stream<T> delegate, PipelineMetrics metrics) {
+        this(delegate, metrics, 0, new ArrayList<>());
+    }
+
+    private InstrumentedStream(Stream<T> delegate, PipelineMetrics metrics, int stageIndex, List<StageMetrics.Recorder> recorders) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.stageIndex = stageIndex;
+        this.recorders = recorders;
+    }
+
+    @Override
+    public Stream<T> filter(Predicate<? super T> predicate) {
+        StageMetrics.Recorder stage = stage("filter");
+        return next(delegate.filter(element -> stage.test(predicate, element)));
+    }
+
+    @Override
+    public <R> Stream<R> map(Function<? super T, ? extends R> mapper) {
+        StageMetrics.Recorder stage = oneToOneStage("map");
+        return next(delegate.map(element -> stage.apply(mapper, element)));
+    }
+
+    @Override
+    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
+        StageMetrics.Recorder stage = oneToOneStage("mapToInt");
+        return delegate.mapToInt(element -> stage.applyAsInt(mapper, element));
+    }
+
+    @Override
+    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
+        StageMetrics.Recorder stage = oneToOneStage("mapToLong");
+        return delegate.mapToLong(element -> stage.applyAsLong(mapper, element));
+    }
+
+    @Override
+    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+        StageMetrics.Recorder stage = oneToOneStage("mapToDouble");
+        return delegate.mapToDouble(element -> stage.applyAsDouble(mapper, element));
+    }
+
+    @Override
+    public <R> Stream<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
+        StageMetrics.Recorder stage = stage("flatMap");
+        return next(delegate.flatMap(element -> {
+            StageMetrics.Cell cell = stage.begin();
+            Stream<? extends R> result = mapper.apply(element);
+            stage.end(cell, 0);
+            return result == null ? null : result.peek(inner -> stage.countOutput());
+        }));
+    }
+
+    @Override
+    public IntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
+        StageMetrics.Recorder stage = stage("flatMapToInt");
+        return delegate.flatMapToInt(element -> {
+            StageMetrics.Cell cell = stage.begin();
+            IntStream result = mapper.apply(element);
+            stage.end(cell, 0);
+            return result == null ? null : result.peek(inner -> stage.countOutput());
+        });
+    }
+
+    @Override
+    public LongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
+        StageMetrics.Recorder stage = stage("flatMapToLong");
+        return delegate.flatMapToLong(element -> {
+            StageMetrics.Cell cell = stage.begin();
+            LongStream result = mapper.apply(element);
+            stage.end(cell, 0);
+            return result == null ? null : result.peek(inner -> stage.countOutput());
+        });
+    }
+
+    @Override
+    public DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
+        StageMetrics.Recorder stage = stage("flatMapToDouble");
+        return delegate.flatMapToDouble(element -> {
+            StageMetrics.Cell cell = stage.begin();
+            DoubleStream result = mapper.apply(element);
+            stage.end(cell, 0);
+            return result == null ? null : result.peek(inner -> stage.countOutput());
+        });
+    }
+
+    @Override
+    public Stream<T> distinct() {
+        return counted("distinct", Stream::distinct);
+    }
+
+    @Override
+    public Stream<T> sorted() {
+        return counted("sorted", Stream::sorted);
+    }
+
+    @Override
+    public Stream<T> sorted(Comparator<? super T> comparator) {
+        return counted("sorted", stream -> stream.sorted(comparator));
+    }
+
+    @Override
+    public Stream<T> peek(Consumer<? super T> action) {
+        StageMetrics.Recorder stage = oneToOneStage("peek");
+        return next(delegate.peek(element -> stage.accept(action, element)));
+    }
+
+    @Override
+    public Stream<T> limit(long maxSize) {
+        return counted("limit", stream -> stream.limit(maxSize));
+    }
+
+    @Override
+    public Stream<T> skip(long n) {
+        return counted("skip", stream -> stream.skip(n));
+    }
+
+    @Override
+    public Stream<T> takeWhile(Predicate<? super T> predicate) {
+        StageMetrics.Recorder stage = stage("takeWhile");
+        return next(delegate.takeWhile(element -> stage.test(predicate, element)));
+    }
+
+    @Override
+    public Stream<T> dropWhile(Predicate<? super T> predicate) {
+        StageMetrics.Recorder stage = stage("dropWhile");
+        return next(delegate
+                .dropWhile(element -> {
+                    StageMetrics.Cell cell = stage.begin();
+                    boolean dropped = predicate.test(element);
+                    stage.end(cell, 0);
+                    return dropped;
+                })
+                .peek(element -> stage.countOutput()));
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        StageMetrics.Recorder stage = oneToOneStage("forEach");
+        runTerminal(() -> delegate.forEach(element -> stage.accept(action, element)));
+    }
+
+    @Override
+    public void forEachOrdered(Consumer<? super T> action) {
+        StageMetrics.Recorder stage = oneToOneStage("forEachOrdered");
+        runTerminal(() -> delegate.forEachOrdered(element -> stage.accept(action, element)));
+    }
+
+    @Override
+    public Object[] toArray() {
+        return terminal(() -> delegate.toArray());
+    }
+
+    @Override
+    public <A> A[] toArray(IntFunction<A[]> generator) {
+        return terminal(() -> delegate.toArray(generator));
+    }
+
+    @Override
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        return terminal(() -> delegate.reduce(identity, accumulator));
+    }
+
+    @Override
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        return terminal(() -> delegate.reduce(accumulator));
+    }
+
+    @Override
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        return terminal(() -> delegate.reduce(identity, accumulator, combiner));
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+        return terminal(() -> delegate.collect(supplier, accumulator, combiner));
+    }
+
+    @Override
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        return terminal(() -> delegate.collect(collector));
+    }
+
+    @Override
+    public Optional<T> min(Comparator<? super T> comparator) {
+        return terminal(() -> delegate.min(comparator));
+    }
+
+    @Override
+    public Optional<T> max(Comparator<? super T> comparator) {
+        return terminal(() -> delegate.max(comparator));
+    }
+
+    @Override
+    public long count() {
+        return terminal(delegate::count);
+    }
+
+    @Override
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return terminal(() -> delegate.anyMatch(predicate));
+    }
+
+    @Override
+    public boolean allMatch(Predicate<? super T> predicate) {
+        return terminal(() -> delegate.allMatch(predicate));
+    }
+
+    @Override
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        return terminal(() -> delegate.noneMatch(predicate));
+    }
+
+    @Override
+    public Optional<T> findFirst() {
+        return terminal(delegate::findFirst);
+    }
+
+    @Override
+    public Optional<T> findAny() {
+        return terminal(delegate::findAny);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return delegate.iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return delegate.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return delegate.isParallel();
+    }
+
+    @Override
+    public Stream<T> sequential() {
+        return same(delegate.sequential());
+    }
+
+    @Override
+    public Stream<T> parallel() {
+        return same(delegate.parallel());
+    }
+
+    @Override
+    public Stream<T> unordered() {
+        return same(delegate.unordered());
+    }
+
+    @Override
+    public Stream<T> onClose(Runnable closeHandler) {
+        return same(delegate.onClose(closeHandler));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private StageMetrics.Recorder stage(String operation) {
+        return recorder(metrics.stage(stageIndex, operation, false));
+    }
+
+    private StageMetrics.Recorder oneToOneStage(String operation) {
+        return recorder(metrics.stage(stageIndex, operation, true));
+    }
+
+    private StageMetrics.Recorder recorder(StageMetrics stage) {
+        StageMetrics.Recorder recorder = new StageMetrics.Recorder(stage);
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    private <R> Stream<R> next(Stream<R> stream) {
+        return new InstrumentedStream<>(stream, metrics, stageIndex + 1, recorders);
+    }
+
+    private Stream<T> same(Stream<T> stream) {
+        return stream == delegate ? this : new InstrumentedStream<>(stream, metrics, stageIndex, recorders);
+    }
+
+    private Stream<T> counted(String operation, UnaryOperator<Stream<T>> operator) {
+        StageMetrics.Recorder stage = stage(operation);
+        return next(operator.apply(delegate.peek(element -> stage.countInput())).peek(element -> stage.countOutput()));
+    }
+
+    private void runTerminal(Runnable operation) {
+        terminal(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * A sequential terminal operation runs every stage on the calling thread, so the stages count into cells
+     * of this pipeline instance and hand them over once it returns.
+     */
+    private <R> R terminal(Supplier<R> operation) {
+        boolean confined = !delegate.isParallel();
+        if (confined) {
+            recorders.forEach(StageMetrics.Recorder::confine);
+        }
+        long allocatedBefore = StageMetrics.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (confined) {
+                recorders.forEach(StageMetrics.Recorder::release);
+            }
+            long allocatedAfter = StageMetrics.currentThreadAllocatedBytes();
+            metrics.countRun(nanos, allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+        }
+    }
+}
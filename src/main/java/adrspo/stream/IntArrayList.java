@@ -0,0 +1,81 @@
+package adrspo.stream;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Growable {@code int[]} that never boxes its elements.
+ */
+public final class IntArrayList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        elements = new int[initialCapacity];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    public void addAll(IntArrayList other) {
+        if (size + other.size > elements.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * The backing array itself when it is exactly full, so a presized list hands over its elements without a copy.
+     */
+    int[] toArrayNoCopy() {
+        return size == elements.length ? elements : toArray();
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,62 @@
+package adrspo.stream;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * {@link java.util.stream.Collector} counterpart for {@link IntStream}: the accumulator takes a raw
+ * {@code int}, so elements are never boxed on their way into the container.
+ *
+ * @param <A> the mutable accumulation type
+ * @param <R> the result type
+ */
+public interface IntCollector<A, R> {
+
+    Supplier<A> supplier();
+
+    ObjIntConsumer<A> accumulator();
+
+    BiConsumer<A, A> combiner();
+
+    Function<A, R> finisher();
+
+    default R collect(IntStream stream) {
+        return finisher().apply(stream.collect(supplier(), accumulator(), combiner()));
+    }
+
+    static <A, R> IntCollector<A, R> of(Supplier<A> supplier,
+                                        ObjIntConsumer<A> accumulator,
+                                        BiConsumer<A, A> combiner,
+                                        Function<A, R> finisher) {
+        return new IntCollector<A, R>() {
+            @Override
+            public Supplier<A> supplier() {
+                return supplier;
+            }
+
+            @Override
+            public ObjIntConsumer<A> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            public BiConsumer<A, A> combiner() {
+                return combiner;
+            }
+
+            @Override
+            public Function<A, R> finisher() {
+                return finisher;
+            }
+        };
+    }
+
+    static <A> IntCollector<A, A> of(Supplier<A> supplier,
+                                     ObjIntConsumer<A> accumulator,
+                                     BiConsumer<A, A> combiner) {
+        return of(supplier, accumulator, combiner, Function.identity());
+    }
+}
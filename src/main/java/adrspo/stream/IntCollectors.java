@@ -0,0 +1,95 @@
+package adrspo.stream;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Primitive replacements for the boxing {@link java.util.stream.Collectors} used on numeric data.
+ * Keys and values stay {@code int}/{@code long} all the way into open-addressing tables and growable arrays.
+ */
+public final class IntCollectors {
+
+    private IntCollectors() {
+    }
+
+    /**
+     * {@code groupingBy(classifier, counting())} for an {@code IntStream}.
+     */
+    public static IntCollector<IntLongHashMap, IntLongHashMap> groupingCounting(IntUnaryOperator classifier) {
+        return IntCollector.of(
+                IntLongHashMap::new,
+                (counts, value) -> counts.addTo(classifier.applyAsInt(value), 1L),
+                IntLongHashMap::addAll);
+    }
+
+    /**
+     * {@code groupingBy(classifier, counting())} for object streams whose grouping key is an {@code int},
+     * e.g. {@code groupingByIntCounting(String::length)}.
+     */
+    public static <T> Collector<T, ?, IntLongHashMap> groupingByIntCounting(ToIntFunction<? super T> classifier) {
+        return Collector.of(
+                IntLongHashMap::new,
+                (counts, element) -> counts.addTo(classifier.applyAsInt(element), 1L),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                },
+                Collector.Characteristics.IDENTITY_FINISH,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * {@code groupingBy(classifier, summingLong(...))} for an {@code IntStream}, summing the elements themselves.
+     */
+    public static IntCollector<IntLongHashMap, IntLongHashMap> groupingSumming(IntUnaryOperator classifier) {
+        return IntCollector.of(
+                IntLongHashMap::new,
+                (sums, value) -> sums.addTo(classifier.applyAsInt(value), value),
+                IntLongHashMap::addAll);
+    }
+
+    /**
+     * {@code partitioningBy(predicate)} for an {@code IntStream}; encounter order is kept within each side.
+     */
+    public static IntCollector<IntArrayList[], Map<Boolean, int[]>> partitioningIntArrays(IntPredicate predicate) {
+        return IntCollector.of(
+                () -> new IntArrayList[]{new IntArrayList(), new IntArrayList()},
+                (partitions, value) -> partitions[predicate.test(value) ? 1 : 0].add(value),
+                (left, right) -> {
+                    left[0].addAll(right[0]);
+                    left[1].addAll(right[1]);
+                },
+                partitions -> {
+                    Map<Boolean, int[]> result = new HashMap<>(4);
+                    result.put(Boolean.FALSE, partitions[0].toArray());
+                    result.put(Boolean.TRUE, partitions[1].toArray());
+                    return result;
+                });
+    }
+
+    /**
+     * {@code partitioningBy(predicate, counting())} for an {@code IntStream}: index 0 counts the
+     * rejected elements and index 1 the accepted ones.
+     */
+    public static IntCollector<long[], long[]> partitioningCounting(IntPredicate predicate) {
+        return IntCollector.of(
+                () -> new long[2],
+                (counts, value) -> counts[predicate.test(value) ? 1 : 0]++,
+                (left, right) -> {
+                    left[0] += right[0];
+                    left[1] += right[1];
+                });
+    }
+
+    public static IntCollector<IntHashSet, IntHashSet> toIntSet() {
+        return IntCollector.of(IntHashSet::new, IntHashSet::add, IntHashSet::addAll);
+    }
+
+    public static IntCollector<IntArrayList, IntArrayList> toIntList() {
+        return IntCollector.of(IntArrayList::new, IntArrayList::add, IntArrayList::addAll);
+    }
+}
@@ -0,0 +1,118 @@
+package adrspo.stream;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Open-addressing (linear probing) set of {@code int} values.
+ */
+public final class IntHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public IntHashSet() {
+        this(16);
+    }
+
+    public IntHashSet(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize, LOAD_FACTOR));
+    }
+
+    /**
+     * @return true if the value was not already present
+     */
+    public boolean add(int value) {
+        int slot = Hashing.mix(value) & mask;
+        while (used[slot]) {
+            if (keys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    public void addAll(IntHashSet other) {
+        other.forEach(this::add);
+    }
+
+    public boolean contains(int value) {
+        int slot = Hashing.mix(value) & mask;
+        while (used[slot]) {
+            if (keys[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                action.accept(keys[slot]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        int index = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                values[index++] = keys[slot];
+            }
+        }
+        return values;
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(toArray());
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                int newSlot = Hashing.mix(oldKeys[slot]) & mask;
+                while (used[newSlot]) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                used[newSlot] = true;
+                keys[newSlot] = oldKeys[slot];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,180 @@
+package adrspo.stream;
+
+/**
+ * Open-addressing (linear probing) map from {@code int} keys to {@code long} values.
+ * Absent keys read as {@code 0}, which makes it a natural counter/summing table.
+ */
+public final class IntLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    public IntLongHashMap() {
+        this(16);
+    }
+
+    public IntLongHashMap(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize, LOAD_FACTOR));
+    }
+
+    public void put(int key, long value) {
+        int slot = slotFor(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Adds {@code delta} to the value mapped to {@code key}, inserting it when absent.
+     */
+    public void addTo(int key, long delta) {
+        int slot = slotFor(key);
+        values[slot] += delta;
+    }
+
+    public void addAll(IntLongHashMap other) {
+        other.forEach(this::addTo);
+    }
+
+    public long get(int key) {
+        return getOrDefault(key, 0L);
+    }
+
+    public long getOrDefault(int key, long defaultValue) {
+        int slot = Hashing.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    public boolean containsKey(int key) {
+        int slot = Hashing.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(EntryConsumer action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    public int[] keys() {
+        int[] result = new int[size];
+        int index = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                result[index++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    private int slotFor(int key) {
+        int slot = Hashing.mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+            return slotFor(key);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                int newSlot = Hashing.mix(oldKeys[slot]) & mask;
+                while (used[newSlot]) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                used[newSlot] = true;
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntLongHashMap)) {
+            return false;
+        }
+        IntLongHashMap other = (IntLongHashMap) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot] && (!other.containsKey(keys[slot]) || other.get(keys[slot]) != values[slot])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                hash += keys[slot] ^ Long.hashCode(values[slot]);
+            }
+        }
+        return hash;
+    }
+}
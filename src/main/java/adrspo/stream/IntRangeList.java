@@ -0,0 +1,122 @@
+package adrspo.stream;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable {@code List<Integer>} view of an {@code int} range, holding nothing but its first element and
+ * size. Replaces {@code IntStream.range(from, to).boxed().collect(toList())}: {@link #get}, {@link #size},
+ * {@link #contains} and {@link #stream} never materialize the elements, and boxing happens per read.
+ */
+public final class IntRangeList extends AbstractList<Integer> implements RandomAccess {
+
+    private final int first;
+    private final int size;
+
+    private IntRangeList(int first, int size) {
+        this.first = first;
+        this.size = size;
+    }
+
+    /**
+     * {@code [from, to)}, empty if {@code to <= from}.
+     */
+    public static IntRangeList range(int from, int to) {
+        return of(from, (long) to - from);
+    }
+
+    /**
+     * {@code [from, to]}, empty if {@code to < from}.
+     */
+    public static IntRangeList rangeClosed(int from, int to) {
+        return of(from, (long) to - from + 1);
+    }
+
+    private static IntRangeList of(int from, long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A list holds at most " + Integer.MAX_VALUE + " elements, not " + size);
+        }
+        return new IntRangeList(from, (int) Math.max(0, size));
+    }
+
+    public int getInt(int index) {
+        Objects.checkIndex(index, size);
+        return first + index;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Integer)) {
+            return -1;
+        }
+        long offset = (long) (Integer) o - first;
+        return offset >= 0 && offset < size ? (int) offset : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public IntRangeList subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        return new IntRangeList(first + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+        return new IndexSpliterator<>(this::getInt, 0, size,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.DISTINCT);
+    }
+
+    public IntStream intStream() {
+        return size == 0 ? IntStream.empty() : IntStream.rangeClosed(first, first + (size - 1));
+    }
+
+    public int[] toIntArray() {
+        int[] elements = new int[size];
+        for (int index = 0; index < size; index++) {
+            elements[index] = first + index;
+        }
+        return elements;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IntRangeList) {
+            IntRangeList other = (IntRangeList) o;
+            return size == other.size && (size == 0 || first == other.first);
+        }
+        return o instanceof List && super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return size == 0 ? "[]" : "[" + first + ".." + (first + (size - 1)) + "]";
+    }
+}
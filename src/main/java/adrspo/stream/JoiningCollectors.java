@@ -0,0 +1,206 @@
+package adrspo.stream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * {@code Collectors.joining} without {@link java.util.StringJoiner}'s repeated buffer growth.
+ * <p>
+ * Accumulation only records the elements and their total length; parallel partitions are merged by
+ * appending those references, never the chars. The finisher then presizes one builder to the exact length,
+ * so it never regrows, appends every element into it and copies the finished buffer into the String.
+ * {@link #joiningTo} encodes the same sequence straight into a channel instead of building a String.
+ */
+public final class JoiningCollectors {
+
+    private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+    private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+
+    private JoiningCollectors() {
+    }
+
+    public static Collector<CharSequence, ?, String> joining() {
+        return joining("", "", "");
+    }
+
+    public static Collector<CharSequence, ?, String> joining(CharSequence delimiter) {
+        return joining(delimiter, "", "");
+    }
+
+    public static Collector<CharSequence, ?, String> joining(CharSequence delimiter, CharSequence prefix, CharSequence suffix) {
+        Layout layout = new Layout(delimiter, prefix, suffix);
+        return parts(layout::toString);
+    }
+
+    /**
+     * Writes the joined text to {@code channel} in {@code charset} and returns the number of bytes written.
+     * The channel is left open.
+     */
+    public static Collector<CharSequence, ?, Long> joiningTo(WritableByteChannel channel, Charset charset,
+                                                             CharSequence delimiter, CharSequence prefix, CharSequence suffix) {
+        Objects.requireNonNull(channel, "channel");
+        Objects.requireNonNull(charset, "charset");
+        Layout layout = new Layout(delimiter, prefix, suffix);
+        return parts(parts -> layout.write(parts, channel, charset));
+    }
+
+    private static <R> Collector<CharSequence, ?, R> parts(Function<Parts, R> finisher) {
+        return Collector.of(Parts::new, Parts::add, Parts::merge, finisher);
+    }
+
+    /**
+     * Elements seen so far and the sum of their lengths.
+     */
+    private static final class Parts {
+
+        private final List<String> elements = new ArrayList<>();
+        private long length;
+
+        void add(CharSequence element) {
+            // a String cannot change before the finisher runs; other sequences are copied now, as StringJoiner does
+            String value = String.valueOf(element);
+            elements.add(value);
+            length += value.length();
+        }
+
+        Parts merge(Parts following) {
+            if (elements.isEmpty()) {
+                return following;
+            }
+            elements.addAll(following.elements);
+            length += following.length;
+            return this;
+        }
+    }
+
+    private static final class Layout {
+
+        private final String delimiter;
+        private final String prefix;
+        private final String suffix;
+
+        Layout(CharSequence delimiter, CharSequence prefix, CharSequence suffix) {
+            this.delimiter = delimiter.toString();
+            this.prefix = prefix.toString();
+            this.suffix = suffix.toString();
+        }
+
+        String toString(Parts parts) {
+            List<String> elements = parts.elements;
+            long length = prefix.length() + parts.length + suffix.length()
+                    + (long) delimiter.length() * Math.max(0, elements.size() - 1);
+            if (length > MAX_LENGTH) {
+                throw new OutOfMemoryError("Joined string would be " + length + " chars long");
+            }
+            // presized, so appending never regrows; toString still copies the buffer into the String
+            StringBuilder joined = new StringBuilder((int) length).append(prefix);
+            for (int i = 0; i < elements.size(); i++) {
+                if (i > 0) {
+                    joined.append(delimiter);
+                }
+                joined.append(elements.get(i));
+            }
+            return joined.append(suffix).toString();
+        }
+
+        long write(Parts parts, WritableByteChannel channel, Charset charset) {
+            ChannelWriter writer = new ChannelWriter(channel, charset);
+            try {
+                writer.write(prefix);
+                List<String> elements = parts.elements;
+                for (int i = 0; i < elements.size(); i++) {
+                    if (i > 0) {
+                        writer.write(delimiter);
+                    }
+                    writer.write(elements.get(i));
+                }
+                writer.write(suffix);
+                return writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    /**
+     * Copies consecutive strings into a char chunk and encodes each full chunk through one reusable buffer.
+     */
+    private static final class ChannelWriter {
+
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder;
+        private final char[] chunk = new char[CHANNEL_BUFFER_SIZE / 2];
+        private final CharBuffer chars = CharBuffer.wrap(chunk);
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_BUFFER_SIZE);
+        private int filled;
+        private long written;
+
+        ChannelWriter(WritableByteChannel channel, Charset charset) {
+            this.channel = channel;
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        void write(String value) throws IOException {
+            int length = value.length();
+            int offset = 0;
+            while (offset < length) {
+                int count = Math.min(length - offset, chunk.length - filled);
+                value.getChars(offset, offset + count, chunk, filled);
+                filled += count;
+                offset += count;
+                if (filled == chunk.length) {
+                    encodeChunk(false);
+                }
+            }
+        }
+
+        long finish() throws IOException {
+            encodeChunk(true);
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            drain();
+            return written;
+        }
+
+        private void encodeChunk(boolean endOfInput) throws IOException {
+            chars.clear().limit(filled);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, endOfInput);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    break;
+                } else {
+                    result.throwException();
+                }
+            }
+            // the first half of a surrogate pair split across chunks stays for the next one
+            filled = chars.remaining();
+            System.arraycopy(chunk, chars.position(), chunk, 0, filled);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package adrspo.stream;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Growable {@code long[]} that never boxes its elements.
+ */
+public final class LongArrayList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] elements;
+    private int size;
+
+    public LongArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        elements = new long[initialCapacity];
+    }
+
+    public void add(long value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    public void addAll(LongArrayList other) {
+        if (size + other.size > elements.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * The backing array itself when it is exactly full, so a presized list hands over its elements without a copy.
+     */
+    long[] toArrayNoCopy() {
+        return size == elements.length ? elements : toArray();
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
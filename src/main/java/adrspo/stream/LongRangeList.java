@@ -0,0 +1,124 @@
+package adrspo.stream;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable {@code List<Long>} view of a {@code long} range, holding nothing but its first element and
+ * size. Replaces {@code LongStream.range(from, to).boxed().collect(toList())}: {@link #get}, {@link #size},
+ * {@link #contains} and {@link #stream} never materialize the elements, and boxing happens per read.
+ */
+public final class LongRangeList extends AbstractList<Long> implements RandomAccess {
+
+    private final long first;
+    private final int size;
+
+    private LongRangeList(long first, int size) {
+        this.first = first;
+        this.size = size;
+    }
+
+    /**
+     * {@code [from, to)}, empty if {@code to <= from}.
+     */
+    public static LongRangeList range(long from, long to) {
+        return of(from, to <= from ? 0 : to - from);
+    }
+
+    /**
+     * {@code [from, to]}, empty if {@code to < from}.
+     */
+    public static LongRangeList rangeClosed(long from, long to) {
+        return of(from, to < from ? 0 : to - from + 1);
+    }
+
+    private static LongRangeList of(long from, long size) {
+        // a difference beyond Long.MAX_VALUE wraps negative, but is still right read unsigned
+        if (size > Integer.MAX_VALUE || size < 0) {
+            throw new IllegalArgumentException("A list holds at most " + Integer.MAX_VALUE + " elements, not " + Long.toUnsignedString(size));
+        }
+        return new LongRangeList(from, (int) size);
+    }
+
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return first + index;
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Long)) {
+            return -1;
+        }
+        long offset = (Long) o - first;
+        // compared unsigned so an offset that overflowed negative counts as out of range
+        return Long.compareUnsigned(offset, size) < 0 ? (int) offset : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public LongRangeList subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        return new LongRangeList(first + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    public Spliterator<Long> spliterator() {
+        return new IndexSpliterator<>(this::getLong, 0, size,
+                Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.DISTINCT);
+    }
+
+    public LongStream longStream() {
+        return size == 0 ? LongStream.empty() : LongStream.rangeClosed(first, first + (size - 1));
+    }
+
+    public long[] toLongArray() {
+        long[] elements = new long[size];
+        for (int index = 0; index < size; index++) {
+            elements[index] = first + index;
+        }
+        return elements;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof LongRangeList) {
+            LongRangeList other = (LongRangeList) o;
+            return size == other.size && (size == 0 || first == other.first);
+        }
+        return o instanceof List && super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return size == 0 ? "[]" : "[" + first + ".." + (first + (size - 1)) + "]";
+    }
+}
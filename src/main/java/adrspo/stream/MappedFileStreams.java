@@ -0,0 +1,171 @@
+package adrspo.stream;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stream sources over memory-mapped files. Records are handed out as views into the mapping rather
+ * than copies, and spliterators split on record boundaries so that {@code parallel()} spreads a
+ * single file across cores.
+ * <p>
+ * Files are mapped in windows of {@code windowSize} bytes; a record may not be longer than
+ * {@code maxRecordLength}, which is how much consecutive windows overlap.
+ */
+public final class MappedFileStreams {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    public static final int DEFAULT_MAX_RECORD_LENGTH = 1 << 20;
+
+    private final int windowSize;
+    private final int maxRecordLength;
+
+    public MappedFileStreams() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    public MappedFileStreams(int windowSize, int maxRecordLength) {
+        if (windowSize <= 0 || maxRecordLength <= 0 || (long) windowSize + maxRecordLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid window size " + windowSize + " or max record length " + maxRecordLength);
+        }
+        this.windowSize = windowSize;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Newline-terminated single-byte text records; a trailing {@code '\r'} is dropped.
+     */
+    public Stream<CharSequence> lines(Path file) throws IOException {
+        MappedRegions regions = MappedRegions.map(file, windowSize, maxRecordLength);
+        return StreamSupport.stream(new MappedLineSpliterator(regions, 0, regions.size()), false);
+    }
+
+    /**
+     * Fixed-width single-byte text records; a trailing partial record is ignored.
+     */
+    public Stream<CharSequence> records(Path file, int recordLength) throws IOException {
+        checkRecordLength(recordLength);
+        MappedRegions regions = MappedRegions.map(file, windowSize, maxRecordLength);
+        return StreamSupport.stream(new FixedWidthSpliterator(regions, recordLength, 0, regions.size() / recordLength), false);
+    }
+
+    /**
+     * Big-endian 32-bit integers, as written by {@link java.io.DataOutputStream#writeInt(int)}.
+     */
+    public IntStream ints(Path file) throws IOException {
+        checkRecordLength(Integer.BYTES);
+        MappedRegions regions = MappedRegions.map(file, windowSize, maxRecordLength);
+        return StreamSupport.intStream(new IntRecordSpliterator(regions, 0, regions.size() / Integer.BYTES), false);
+    }
+
+    private void checkRecordLength(int recordLength) {
+        if (recordLength <= 0 || recordLength > maxRecordLength) {
+            throw new IllegalArgumentException("Record length must be in (0, " + maxRecordLength + "]: " + recordLength);
+        }
+    }
+
+    private static final class FixedWidthSpliterator implements Spliterator<CharSequence> {
+
+        private final MappedRegions regions;
+        private final int recordLength;
+        private long from;
+        private final long to;
+
+        FixedWidthSpliterator(MappedRegions regions, int recordLength, long from, long to) {
+            this.regions = regions;
+            this.recordLength = recordLength;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CharSequence> action) {
+            if (from >= to) {
+                return false;
+            }
+            long position = from++ * recordLength;
+            action.accept(new ByteSequence(regions.window(position), regions.offset(position), recordLength));
+            return true;
+        }
+
+        @Override
+        public Spliterator<CharSequence> trySplit() {
+            long middle = from + (to - from) / 2;
+            if (middle <= from) {
+                return null;
+            }
+            Spliterator<CharSequence> prefix = new FixedWidthSpliterator(regions, recordLength, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    private static final class IntRecordSpliterator implements Spliterator.OfInt {
+
+        private final MappedRegions regions;
+        private long from;
+        private final long to;
+
+        IntRecordSpliterator(MappedRegions regions, long from, long to) {
+            this.regions = regions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            long position = from++ * Integer.BYTES;
+            action.accept(regions.window(position).getInt(regions.offset(position)));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            long end = to;
+            for (long index = from; index < end; index++) {
+                long position = index * Integer.BYTES;
+                action.accept(regions.window(position).getInt(regions.offset(position)));
+            }
+            from = end;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            long middle = from + (to - from) / 2;
+            if (middle <= from) {
+                return null;
+            }
+            OfInt prefix = new IntRecordSpliterator(regions, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
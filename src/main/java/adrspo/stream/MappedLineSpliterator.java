@@ -0,0 +1,73 @@
+package adrspo.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Newline-delimited records over {@code [from, to)} of a {@link MappedRegions}; {@code from} is always the
+ * start of a line. Splits land on the first line boundary after the midpoint.
+ */
+final class MappedLineSpliterator implements Spliterator<CharSequence> {
+
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final MappedRegions regions;
+    private long from;
+    private final long to;
+
+    MappedLineSpliterator(MappedRegions regions, long from, long to) {
+        this.regions = regions;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super CharSequence> action) {
+        if (from >= to) {
+            return false;
+        }
+        // a line of at most overlap bytes never leaves the window it starts in
+        ByteBuffer window = regions.window(from);
+        int offset = regions.offset(from);
+        int scanEnd = offset + (int) Math.min(to - from, regions.overlap() + 1L);
+        int end = offset;
+        while (end < scanEnd && window.get(end) != NEW_LINE) {
+            end++;
+        }
+        int length = end - offset;
+        if (length > regions.overlap()) {
+            throw new IllegalStateException("Line at position " + from + " is longer than " + regions.overlap() + " bytes");
+        }
+        from += end < scanEnd ? length + 1 : length;
+        if (length > 0 && window.get(end - 1) == CARRIAGE_RETURN) {
+            length--;
+        }
+        action.accept(new ByteSequence(window, offset, length));
+        return true;
+    }
+
+    @Override
+    public Spliterator<CharSequence> trySplit() {
+        long middle = from + (to - from) / 2;
+        long newLine = regions.indexOf(NEW_LINE, middle, to);
+        if (newLine < 0 || newLine + 1 >= to) {
+            return null;
+        }
+        Spliterator<CharSequence> prefix = new MappedLineSpliterator(regions, from, newLine + 1);
+        from = newLine + 1;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        // bytes, not lines: only used to balance splits
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,86 @@
+package adrspo.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only file mapped as a series of overlapping windows, so that files larger than a single
+ * {@link MappedByteBuffer} can be addressed by {@code long} position. Window {@code i} covers
+ * {@code [i * windowSize, (i + 1) * windowSize + overlap)}: any record that starts inside a window
+ * and is at most {@code overlap} bytes long is fully readable from that one window.
+ */
+final class MappedRegions {
+
+    private final long size;
+    private final int windowSize;
+    private final int overlap;
+    private final MappedByteBuffer[] windows;
+
+    private MappedRegions(long size, int windowSize, int overlap, MappedByteBuffer[] windows) {
+        this.size = size;
+        this.windowSize = windowSize;
+        this.overlap = overlap;
+        this.windows = windows;
+    }
+
+    static MappedRegions map(Path file, int windowSize, int overlap) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + windowSize - 1) / windowSize);
+            MappedByteBuffer[] windows = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i * windowSize;
+                long length = Math.min((long) windowSize + overlap, size - start);
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            // mappings stay valid once the channel is closed
+            return new MappedRegions(size, windowSize, overlap, windows);
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    int overlap() {
+        return overlap;
+    }
+
+    /**
+     * The window holding {@code position} in its non-overlapping part.
+     */
+    ByteBuffer window(long position) {
+        return windows[(int) (position / windowSize)];
+    }
+
+    int offset(long position) {
+        return (int) (position % windowSize);
+    }
+
+    byte get(long position) {
+        return window(position).get(offset(position));
+    }
+
+    /**
+     * Position of the first {@code value} in {@code [from, to)}, or {@code -1}.
+     */
+    long indexOf(byte value, long from, long to) {
+        long position = from;
+        while (position < to) {
+            ByteBuffer window = window(position);
+            int offset = offset(position);
+            int end = (int) Math.min(windowSize, offset + (to - position));
+            for (int i = offset; i < end; i++) {
+                if (window.get(i) == value) {
+                    return position + (i - offset);
+                }
+            }
+            position += end - offset;
+        }
+        return -1;
+    }
+}
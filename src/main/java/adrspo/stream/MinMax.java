@@ -0,0 +1,14 @@
+package adrspo.stream;
+
+import lombok.Value;
+
+/**
+ * Both bounds found by {@link SelectionCollectors#minMax}. Either may be {@code null} when nulls are ordered
+ * rather than rejected or skipped.
+ */
+@Value
+public class MinMax<T> {
+
+    T min;
+    T max;
+}
@@ -0,0 +1,181 @@
+package adrspo.stream;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Parallel {@code anyMatch}/{@code allMatch}/{@code noneMatch}/{@code findAny} for costly predicates.
+ * <p>
+ * A parallel JDK stream splits its source up front into about four tasks per worker and checks for
+ * cancellation only between elements, so a predicate that takes milliseconds keeps other workers busy well
+ * after the answer is known. Here all workers share one flag: it is checked before every element, and a
+ * {@link CancellablePredicate} can also poll it while it runs. Work is split to match the measured cost:
+ * a worker processes batches that grow until one takes about {@value #TARGET_BATCH_MICROS} µs, and
+ * between batches hands half of its remainder to idle workers, so with an expensive predicate every
+ * element is soon spread across the pool.
+ * <p>
+ * Runs in the calling thread's {@code ForkJoinPool}, or the common pool, like a parallel stream, whether or
+ * not the stream passed in is parallel. The work is split through the stream's spliterator, though, and a
+ * sequential stream that already has stages hands out one that will not split: the whole search then runs
+ * on the calling thread. Pass the bare source and fold any mapping or filtering into the predicate.
+ */
+public final class ParallelMatching {
+
+    static final long TARGET_BATCH_MICROS = 100;
+
+    private static final long TARGET_BATCH_NANOS = TimeUnit.MICROSECONDS.toNanos(TARGET_BATCH_MICROS);
+
+    private ParallelMatching() {
+    }
+
+    /**
+     * A predicate that may poll {@code cancelled} and return early, with any result, once it is true.
+     */
+    @FunctionalInterface
+    public interface CancellablePredicate<T> {
+
+        boolean test(T element, BooleanSupplier cancelled);
+    }
+
+    public static <T> boolean anyMatch(Stream<T> stream, Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return anyMatch(stream, (element, cancelled) -> predicate.test(element));
+    }
+
+    public static <T> boolean anyMatch(Stream<T> stream, CancellablePredicate<? super T> predicate) {
+        return search(stream, predicate, true) != null;
+    }
+
+    public static <T> boolean allMatch(Stream<T> stream, Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return allMatch(stream, (element, cancelled) -> predicate.test(element));
+    }
+
+    public static <T> boolean allMatch(Stream<T> stream, CancellablePredicate<? super T> predicate) {
+        return search(stream, predicate, false) == null;
+    }
+
+    public static <T> boolean noneMatch(Stream<T> stream, Predicate<? super T> predicate) {
+        return !anyMatch(stream, predicate);
+    }
+
+    public static <T> boolean noneMatch(Stream<T> stream, CancellablePredicate<? super T> predicate) {
+        return !anyMatch(stream, predicate);
+    }
+
+    /**
+     * Any element matching {@code predicate}, not necessarily the first.
+     *
+     * @throws NullPointerException if the element found is {@code null}, as in {@link Stream#findAny()}
+     */
+    public static <T> Optional<T> findAny(Stream<T> stream, Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return findAny(stream, (element, cancelled) -> predicate.test(element));
+    }
+
+    public static <T> Optional<T> findAny(Stream<T> stream, CancellablePredicate<? super T> predicate) {
+        Hit<T> hit = search(stream, predicate, true);
+        return hit == null ? Optional.empty() : Optional.of(hit.element);
+    }
+
+    /**
+     * The first element found whose predicate result equals {@code wanted}, or {@code null}.
+     */
+    private static <T> Hit<T> search(Stream<T> stream, CancellablePredicate<? super T> predicate, boolean wanted) {
+        Objects.requireNonNull(predicate, "predicate");
+        Search<T> search = new Search<>(predicate, wanted);
+        new SearchTask<>(null, stream.spliterator(), search).invoke();
+        return search.hit.get();
+    }
+
+    private static final class Hit<T> {
+
+        final T element;
+
+        Hit(T element) {
+            this.element = element;
+        }
+    }
+
+    /**
+     * State shared by every task of one search; the hit doubles as the cancellation flag.
+     */
+    private static final class Search<T> implements BooleanSupplier {
+
+        final CancellablePredicate<? super T> predicate;
+        final boolean wanted;
+        final AtomicReference<Hit<T>> hit = new AtomicReference<>();
+        volatile boolean failed;
+
+        Search(CancellablePredicate<? super T> predicate, boolean wanted) {
+            this.predicate = predicate;
+            this.wanted = wanted;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return failed || hit.get() != null;
+        }
+    }
+
+    private static final class SearchTask<T> extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<T> spliterator;
+        private final Search<T> search;
+
+        SearchTask(CountedCompleter<?> completer, Spliterator<T> spliterator, Search<T> search) {
+            super(completer);
+            this.spliterator = spliterator;
+            this.search = search;
+        }
+
+        @Override
+        public void compute() {
+            Search<T> search = this.search;
+            Spliterator<T> remaining = this.spliterator;
+            int batch = 1;
+            try {
+                while (!search.getAsBoolean()) {
+                    if (ForkJoinTask.getSurplusQueuedTaskCount() <= 0) {
+                        Spliterator<T> prefix = remaining.trySplit();
+                        if (prefix != null) {
+                            addToPendingCount(1);
+                            new SearchTask<>(this, prefix, search).fork();
+                        }
+                    }
+                    long start = System.nanoTime();
+                    int processed = 0;
+                    while (processed < batch && !search.getAsBoolean() && remaining.tryAdvance(this::test)) {
+                        processed++;
+                    }
+                    if (processed < batch) {
+                        break;
+                    }
+                    if (System.nanoTime() - start < TARGET_BATCH_NANOS && batch < 1 << 20) {
+                        batch <<= 1;
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                search.failed = true;
+                throw e;
+            }
+            tryComplete();
+        }
+
+        private void test(T element) {
+            if (search.predicate.test(element, search) == search.wanted && search.hit.get() == null) {
+                search.hit.compareAndSet(null, new Hit<>(element));
+            }
+        }
+    }
+}
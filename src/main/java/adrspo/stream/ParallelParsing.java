@@ -0,0 +1,115 @@
+package adrspo.stream;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Parse-and-aggregate over decimal strings without boxing the running total.
+ * <p>
+ * The input is cut into chunks, each chunk is summed into its own slot on the common {@link ForkJoinPool}
+ * and the slots are combined in a single pass. Partial sums are carried as 128-bit {@code {low, high}}
+ * pairs, so only the final total is checked: it throws {@link ArithmeticException} instead of wrapping
+ * around like an {@code int} reduce, and a partial sum that overflows on the way, which depends on how the
+ * input was cut, does not.
+ */
+public final class ParallelParsing {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int MIN_CHUNK_SIZE = 1 << 12;
+
+    private ParallelParsing() {
+    }
+
+    /**
+     * @throws NumberFormatException if an element is not a decimal {@code long}
+     * @throws ArithmeticException   if the sum overflows a {@code long}
+     */
+    public static long sum(CharSequence[] values) {
+        return sum(values.length, i -> values[i]);
+    }
+
+    /**
+     * @see #sum(CharSequence[])
+     */
+    public static long sum(List<? extends CharSequence> values) {
+        if (!(values instanceof RandomAccess)) {
+            return sum(values.toArray(new CharSequence[0]));
+        }
+        return sum(values.size(), values::get);
+    }
+
+    /**
+     * Collector form for sources that are only available as a stream, e.g.
+     * {@code IntStream.rangeClosed(1, n).mapToObj(Integer::toString).parallel().collect(summingParsed())}.
+     * Each split accumulates into a {@code long[2]}; only the final result is boxed.
+     */
+    public static Collector<CharSequence, long[], Long> summingParsed() {
+        return Collector.of(
+                () -> new long[2],
+                (sum, value) -> add(sum, parse(value)),
+                (left, right) -> {
+                    add(left, right[0], right[1]);
+                    return left;
+                },
+                ParallelParsing::toLongExact,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    static long parse(CharSequence value) {
+        return value instanceof String
+                ? Long.parseLong((String) value)
+                : Long.parseLong(value, 0, value.length(), 10);
+    }
+
+    private static int chunkCount(int size) {
+        int workers = ForkJoinPool.getCommonPoolParallelism() + 1;
+        return Math.max(1, Math.min(workers * CHUNKS_PER_WORKER, size / MIN_CHUNK_SIZE));
+    }
+
+    private static int chunkStart(int chunk, int chunks, int size) {
+        return (int) ((long) size * chunk / chunks);
+    }
+
+    private static long sum(int size, IntFunction<? extends CharSequence> element) {
+        int chunks = chunkCount(size);
+        long[][] partialSums = new long[chunks][];
+        IntStream.range(0, chunks)
+                .parallel()
+                .forEach(chunk -> {
+                    long[] sum = new long[2];
+                    for (int i = chunkStart(chunk, chunks, size); i < chunkStart(chunk + 1, chunks, size); i++) {
+                        add(sum, parse(element.apply(i)));
+                    }
+                    partialSums[chunk] = sum;
+                });
+        long[] total = new long[2];
+        for (long[] partialSum : partialSums) {
+            add(total, partialSum[0], partialSum[1]);
+        }
+        return toLongExact(total);
+    }
+
+    private static void add(long[] sum, long value) {
+        add(sum, value, value >> 63);
+    }
+
+    /**
+     * Adds the 128-bit two's complement value {@code {low, high}} to {@code sum}.
+     */
+    private static void add(long[] sum, long low, long high) {
+        long total = sum[0] + low;
+        sum[1] += high + (Long.compareUnsigned(total, sum[0]) < 0 ? 1 : 0);
+        sum[0] = total;
+    }
+
+    private static long toLongExact(long[] sum) {
+        if (sum[1] != sum[0] >> 63) {
+            throw new ArithmeticException("long overflow");
+        }
+        return sum[0];
+    }
+}
@@ -0,0 +1,120 @@
+package adrspo.stream;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code takeWhile}/{@code dropWhile} for ordered parallel work over random-access lists.
+ * <p>
+ * On an ordered parallel stream the JDK cannot emit a split's elements until every split before it is
+ * known to pass, so it buffers whole subtrees and the stage is close to sequential. Here the list is
+ * split into chunks that test their elements independently, each stopping at its first failure, which it
+ * folds into a shared minimum: the global cut. A chunk that starts at or after the cut found so far has
+ * nothing to contribute and stops. The cut is then applied with {@code subList}, so the stage costs
+ * O(cut / p) predicate calls plus a chunk or so, and nothing is buffered.
+ * <p>
+ * The predicate runs on every element before the cut, and possibly on some after it, in any order. For
+ * {@link #takeWhile} and {@link #dropWhile} that happens when the terminal operation starts, as with the
+ * JDK stages.
+ */
+public final class ParallelPrefixes {
+
+    private ParallelPrefixes() {
+    }
+
+    /**
+     * The length of the longest prefix of {@code list} whose elements all match {@code predicate}.
+     */
+    public static <T> int prefixLength(List<? extends T> list, Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        if (!(list instanceof RandomAccess)) {
+            int length = 0;
+            for (T element : list) {
+                if (!predicate.test(element)) {
+                    break;
+                }
+                length++;
+            }
+            return length;
+        }
+        int size = list.size();
+        AtomicInteger cut = new AtomicInteger(size);
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        int chunk = Math.max(1, size / (pool.getParallelism() * 4));
+        new ScanTask<>(null, list, predicate, 0, size, chunk, cut).invoke();
+        return cut.get();
+    }
+
+    /**
+     * {@code list.parallelStream().takeWhile(predicate)}.
+     */
+    public static <T> Stream<T> takeWhile(List<T> list, Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return StreamSupport.stream(() -> list.subList(0, prefixLength(list, predicate)).spliterator(), subListCharacteristics(list), true);
+    }
+
+    /**
+     * {@code list.parallelStream().dropWhile(predicate)}.
+     */
+    public static <T> Stream<T> dropWhile(List<T> list, Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "predicate");
+        return StreamSupport.stream(() -> list.subList(prefixLength(list, predicate), list.size()).spliterator(), subListCharacteristics(list), true);
+    }
+
+    /**
+     * The characteristics of the spliterators {@code list}'s sublists hand out, read from an empty one.
+     * {@code List.spliterator()} only promises ORDERED and SIZED, and the stream must be told exactly.
+     */
+    private static int subListCharacteristics(List<?> list) {
+        return list.subList(0, 0).spliterator().characteristics();
+    }
+
+    private static final class ScanTask<T> extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends T> list;
+        private final Predicate<? super T> predicate;
+        private final int from;
+        private int to;
+        private final int chunk;
+        private final AtomicInteger cut;
+
+        ScanTask(CountedCompleter<?> completer, List<? extends T> list, Predicate<? super T> predicate,
+                 int from, int to, int chunk, AtomicInteger cut) {
+            super(completer);
+            this.list = list;
+            this.predicate = predicate;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.cut = cut;
+        }
+
+        @Override
+        public void compute() {
+            // fork suffixes and keep the prefix, so the lowest indices, which decide the cut, are tested first
+            while (to - from > chunk && from < cut.get()) {
+                int middle = (from + to) >>> 1;
+                addToPendingCount(1);
+                new ScanTask<>(this, list, predicate, middle, to, chunk, cut).fork();
+                to = middle;
+            }
+            for (int index = from; index < to && index < cut.get(); index++) {
+                if (!predicate.test(list.get(index))) {
+                    cut.accumulateAndGet(index, Math::min);
+                    break;
+                }
+            }
+            tryComplete();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package adrspo.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Objects;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class Person {
+
+    private static volatile IdentifierStrategy defaultIdentifierStrategy = IdentifierStrategy.SECURE_RANDOM;
+
+    private String name;
+    private final Identifier identifier;
+
+    public Person() {
+        this(null);
+    }
+
+    public Person(String name) {
+        this(name, defaultIdentifierStrategy);
+    }
+
+    public Person(String name, IdentifierStrategy identifierStrategy) {
+        this(name, identifierStrategy.next());
+    }
+
+    public Person(String name, String identifier) {
+        this(name, Identifier.of(identifier));
+    }
+
+    /**
+     * Strategy used by the constructors that do not take an identifier.
+     */
+    public static void setDefaultIdentifierStrategy(IdentifierStrategy identifierStrategy) {
+        defaultIdentifierStrategy = Objects.requireNonNull(identifierStrategy);
+    }
+
+    public String getIdentifier() {
+        return identifier.toString();
+    }
+
+    public UUID getIdentifierUuid() {
+        return identifier.toUuid();
+    }
+}
@@ -0,0 +1,347 @@
+package adrspo.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Columnar, off-heap storage for {@link Person} records.
+ * <p>
+ * Each record takes 20 bytes of direct memory: the identifier as two {@code long}s and an {@code int}
+ * reference into a dictionary of distinct names, whose UTF-8 bytes live in a direct byte arena. The
+ * dictionary is looked up through an open-addressing index, also in direct memory, of 8 bytes per slot (the
+ * hash of the name's bytes and its id) kept at most half full, so distinct names cost no heap either.
+ * <p>
+ * Appending is not thread-safe; once filled, the store may be read and streamed concurrently.
+ */
+public final class PersonStore {
+
+    private static final int RECORD_BYTES = 2 * Long.BYTES + Integer.BYTES;
+    private static final int NO_NAME = -1;
+    private static final int SLOT_BYTES = 2 * Integer.BYTES;
+
+    private ByteBuffer records;
+    private ByteBuffer nameOffsets;
+    private ByteBuffer nameArena;
+    private ByteBuffer nameIndex;
+    private int nameCount;
+    private int size;
+
+    public PersonStore() {
+        this(1024);
+    }
+
+    public PersonStore(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        records = allocate(Math.max(1, expectedSize) * RECORD_BYTES);
+        nameOffsets = allocate(64 * Integer.BYTES);
+        nameOffsets.putInt(0, 0);
+        nameArena = allocate(1024);
+        nameIndex = allocate(64 * SLOT_BYTES);
+    }
+
+    public static Collector<Person, ?, PersonStore> toPersonStore() {
+        return Collector.of(
+                PersonStore::new,
+                PersonStore::add,
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+    }
+
+    /**
+     * @return the index of the appended record
+     * @throws IllegalArgumentException if the identifier is not a UUID
+     */
+    public int add(Person person) {
+        return add(person.getName(), person.getIdentifierUuid());
+    }
+
+    public int add(String name, UUID identifier) {
+        return add(name, identifier.getMostSignificantBits(), identifier.getLeastSignificantBits());
+    }
+
+    public void addAll(PersonStore other) {
+        for (int index = 0; index < other.size; index++) {
+            add(other.name(index),
+                    other.records.getLong(index * RECORD_BYTES),
+                    other.records.getLong(index * RECORD_BYTES + Long.BYTES));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int distinctNames() {
+        return nameCount;
+    }
+
+    /**
+     * Dictionary id of the name at {@code index}, {@code -1} for a {@code null} name. Equal names share an id,
+     * so grouping and equality checks can work on ids without decoding anything.
+     */
+    public int nameId(int index) {
+        return records.getInt(checkIndex(index) * RECORD_BYTES + 2 * Long.BYTES);
+    }
+
+    public String name(int index) {
+        return decodeName(nameId(index));
+    }
+
+    public UUID identifier(int index) {
+        int offset = checkIndex(index) * RECORD_BYTES;
+        return new UUID(records.getLong(offset), records.getLong(offset + Long.BYTES));
+    }
+
+    /**
+     * Materializes the record at {@code index} as a heap {@link Person}.
+     */
+    public Person get(int index) {
+        int offset = checkIndex(index) * RECORD_BYTES;
+        return new Person(name(index), Identifier.of(records.getLong(offset), records.getLong(offset + Long.BYTES)));
+    }
+
+    /**
+     * Reusable accessor positioned on a single record; see {@link Flyweight}.
+     */
+    public Flyweight flyweight() {
+        return new Flyweight();
+    }
+
+    public Stream<Person> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Spliterator<Person> spliterator() {
+        return new IndexSpliterator<>(this::get, 0, size, Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    /**
+     * Streams the records through one {@link Flyweight} per split instead of materializing them.
+     * Elements are only valid until the next one is emitted, so map them to values before any
+     * stateful or collecting stage.
+     */
+    public Stream<Flyweight> flyweights() {
+        return StreamSupport.stream(flyweightSpliterator(), false);
+    }
+
+    public Spliterator<Flyweight> flyweightSpliterator() {
+        return new FlyweightSpliterator(0, size);
+    }
+
+    public IntStream indices() {
+        return IntStream.range(0, size);
+    }
+
+    /**
+     * Off-heap bytes currently reserved by this store.
+     */
+    public long offHeapBytes() {
+        return (long) records.capacity() + nameOffsets.capacity() + nameArena.capacity() + nameIndex.capacity();
+    }
+
+    /**
+     * Read-only view of one record. Moving it with {@link #moveTo(int)} allocates nothing.
+     */
+    public final class Flyweight {
+
+        private int index;
+
+        private Flyweight() {
+        }
+
+        public Flyweight moveTo(int index) {
+            this.index = checkIndex(index);
+            return this;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int getNameId() {
+            return nameId(index);
+        }
+
+        public String getName() {
+            return name(index);
+        }
+
+        public long getIdentifierMostSignificantBits() {
+            return records.getLong(index * RECORD_BYTES);
+        }
+
+        public long getIdentifierLeastSignificantBits() {
+            return records.getLong(index * RECORD_BYTES + Long.BYTES);
+        }
+
+        public String getIdentifier() {
+            return identifier(index).toString();
+        }
+
+        public Person toPerson() {
+            return get(index);
+        }
+    }
+
+    private final class FlyweightSpliterator extends IndexSpliterator<Flyweight> {
+
+        private final Flyweight flyweight = new Flyweight();
+
+        FlyweightSpliterator(int from, int to) {
+            super(null, from, to, Spliterator.NONNULL);
+        }
+
+        @Override
+        IndexSpliterator<Flyweight> slice(int from, int to) {
+            return new FlyweightSpliterator(from, to);
+        }
+
+        @Override
+        Flyweight elementAt(int index) {
+            return flyweight.moveTo(index);
+        }
+    }
+
+    private int add(String name, long mostSignificantBits, long leastSignificantBits) {
+        long required = (long) (size + 1) * RECORD_BYTES;
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("PersonStore is full: " + size + " records");
+        }
+        records = ensureCapacity(records, (int) required);
+        int offset = size * RECORD_BYTES;
+        records.putLong(offset, mostSignificantBits);
+        records.putLong(offset + Long.BYTES, leastSignificantBits);
+        records.putInt(offset + 2 * Long.BYTES, encodeName(name));
+        return size++;
+    }
+
+    private int encodeName(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes);
+        int mask = nameIndex.capacity() / SLOT_BYTES - 1;
+        int slot = hash & mask;
+        while (true) {
+            int offset = slot * SLOT_BYTES;
+            int stored = nameIndex.getInt(offset + Integer.BYTES);
+            if (stored == 0) {
+                break;
+            }
+            if (nameIndex.getInt(offset) == hash && nameEquals(stored - 1, bytes)) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int newId = nameCount++;
+        int start = nameOffsets.getInt(newId * Integer.BYTES);
+        nameArena = ensureCapacity(nameArena, start + bytes.length);
+        ByteBuffer target = nameArena.duplicate();
+        target.position(start);
+        target.put(bytes);
+        nameOffsets = ensureCapacity(nameOffsets, (newId + 2) * Integer.BYTES);
+        nameOffsets.putInt((newId + 1) * Integer.BYTES, start + bytes.length);
+        insertName(nameIndex, hash, newId);
+        if ((long) nameCount * 2 * SLOT_BYTES > nameIndex.capacity()) {
+            rehashNames();
+        }
+        return newId;
+    }
+
+    private boolean nameEquals(int id, byte[] bytes) {
+        int start = nameOffsets.getInt(id * Integer.BYTES);
+        int end = nameOffsets.getInt((id + 1) * Integer.BYTES);
+        if (end - start != bytes.length) {
+            return false;
+        }
+        for (int index = 0; index < bytes.length; index++) {
+            if (nameArena.get(start + index) != bytes[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehashNames() {
+        ByteBuffer grown = allocate(nameIndex.capacity() << 1);
+        for (int offset = 0; offset < nameIndex.capacity(); offset += SLOT_BYTES) {
+            int stored = nameIndex.getInt(offset + Integer.BYTES);
+            if (stored != 0) {
+                insertName(grown, nameIndex.getInt(offset), stored - 1);
+            }
+        }
+        nameIndex = grown;
+    }
+
+    /**
+     * Stores {@code id + 1} in the first free slot from the hash, so that a zeroed slot reads as empty.
+     */
+    private static void insertName(ByteBuffer index, int hash, int id) {
+        int mask = index.capacity() / SLOT_BYTES - 1;
+        int slot = hash & mask;
+        while (index.getInt(slot * SLOT_BYTES + Integer.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.putInt(slot * SLOT_BYTES, hash);
+        index.putInt(slot * SLOT_BYTES + Integer.BYTES, id + 1);
+    }
+
+    private static int hash(byte[] bytes) {
+        int hash = Arrays.hashCode(bytes) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private String decodeName(int id) {
+        if (id == NO_NAME) {
+            return null;
+        }
+        int start = nameOffsets.getInt(id * Integer.BYTES);
+        int end = nameOffsets.getInt((id + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer source = nameArena.duplicate();
+        source.position(start);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return index;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int required) {
+        if (required <= buffer.capacity()) {
+            return buffer;
+        }
+        long grown = Math.max(required, (long) buffer.capacity() << 1);
+        ByteBuffer copy = allocate((int) Math.min(grown, Integer.MAX_VALUE - 8));
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        copy.put(source);
+        copy.clear();
+        return copy;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,210 @@
+package adrspo.stream;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Memoizes pipeline results, keyed by the source's identity and version plus a fingerprint of the operators.
+ * <p>
+ * Lambdas have no usable equality, so the caller names the operators with a fingerprint, e.g.
+ * {@code "groupingBy:length"}, or several parts through {@link #fingerprint(Object...)}. The version is
+ * whatever the caller bumps when the source changes; an older version is simply never asked for again and
+ * ages out. Entries are evicted least recently used beyond {@code maxEntries}, and with soft values the
+ * collector may drop them under memory pressure, which reads as a miss. Keys hold their source strongly,
+ * so a source whose versions are no longer asked for stays reachable until its entries are evicted or
+ * {@link #invalidate invalidated}; invalidate a source when replacing it rather than only bumping its version.
+ * <p>
+ * Every hit returns the same result instance. Results must be treated as immutable: a mutable result, such as
+ * the {@code HashMap} of {@code ArrayList}s from {@code groupingBy}, changed by one caller is what every later
+ * hit sees. Pass a {@code freeze} function, e.g. one wrapping the map and its lists unmodifiable, to
+ * {@link #get(Object, long, Object, Supplier, UnaryOperator)} where callers cannot be trusted not to modify it.
+ * <p>
+ * Two threads missing on the same key both run the pipeline; the result stored last wins.
+ */
+public final class PipelineCache {
+
+    private static final Object NULL = new Object();
+
+    private final int maxEntries;
+    private final boolean softValues;
+    private final Map<Key, Object> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PipelineCache(int maxEntries, boolean softValues) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.softValues = softValues;
+        this.entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > PipelineCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static Object fingerprint(Object... parts) {
+        return Arrays.asList(parts.clone());
+    }
+
+    /**
+     * The result of {@code pipeline}, computed at most once per source version and fingerprint while cached.
+     * The instance is shared by every hit and must not be modified.
+     */
+    public <R> R get(Object source, long version, Object fingerprint, Supplier<? extends R> pipeline) {
+        return get(source, version, fingerprint, pipeline, UnaryOperator.identity());
+    }
+
+    /**
+     * Like {@link #get(Object, long, Object, Supplier)}, storing and returning the result as passed through
+     * {@code freeze} once, on the miss that computed it.
+     */
+    public <R> R get(Object source, long version, Object fingerprint, Supplier<? extends R> pipeline, UnaryOperator<R> freeze) {
+        Key key = new Key(source, version, fingerprint);
+        Object cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return unmask(cached);
+        }
+        misses.increment();
+        R result = pipeline.get();
+        if (result != null) {
+            result = freeze.apply(result);
+        }
+        Object stored = result == null ? NULL : result;
+        synchronized (entries) {
+            entries.put(key, softValues ? new SoftReference<>(stored) : stored);
+        }
+        return result;
+    }
+
+    /**
+     * The elements of {@code pipeline}, materialized once and replayed as a fresh stream on every call.
+     */
+    public <T> Stream<T> stream(Object source, long version, Object fingerprint, Supplier<? extends Stream<T>> pipeline) {
+        List<T> elements = get(source, version, fingerprint, () -> {
+            try (Stream<T> stream = pipeline.get()) {
+                List<T> materialized = stream.collect(Collectors.toCollection(ArrayList::new));
+                return materialized;
+            }
+        }, Collections::unmodifiableList);
+        return elements.stream();
+    }
+
+    /**
+     * Drops every entry computed from {@code source}, whatever its version.
+     */
+    public void invalidate(Object source) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.source == source);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        return requests == 0 ? 0.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "}";
+    }
+
+    private Object lookup(Key key) {
+        synchronized (entries) {
+            Object value = entries.get(key);
+            if (value instanceof SoftReference) {
+                value = ((SoftReference<?>) value).get();
+                if (value == null) {
+                    entries.remove(key);
+                    evictions.increment();
+                }
+            }
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R unmask(Object value) {
+        return value == NULL ? null : (R) value;
+    }
+
+    /**
+     * Sources compare by identity: two equal lists are still two sources with their own versions.
+     */
+    private static final class Key {
+
+        private final Object source;
+        private final long version;
+        private final Object fingerprint;
+        private final int hash;
+
+        Key(Object source, long version, Object fingerprint) {
+            this.source = Objects.requireNonNull(source, "source");
+            this.version = version;
+            this.fingerprint = Objects.requireNonNull(fingerprint, "fingerprint");
+            this.hash = (System.identityHashCode(source) * 31 + Long.hashCode(version)) * 31 + fingerprint.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return source == other.source && version == other.version && fingerprint.equals(other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
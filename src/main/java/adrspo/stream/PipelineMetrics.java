@@ -0,0 +1,167 @@
+package adrspo.stream;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation of stream pipelines, aggregated per pipeline name across runs.
+ * <p>
+ * {@link #instrument} wraps a source stream; every operator applied to the result is recorded as a
+ * {@link StageMetrics} (elements in and out, estimated time and allocation), the source counts its splits
+ * and the leaf spliterators that were traversed (one per parallel task), and each terminal operation adds
+ * a run with its wall time and the bytes allocated on the calling thread. Metrics are published over JMX as
+ * a {@link PipelineMetricsMXBean}.
+ * <p>
+ * Instrumentation is off unless {@code -Dadrspo.stream.instrumentation=true} is set or
+ * {@link #setEnabled} is called; while off, {@link #instrument} returns its argument unchanged.
+ */
+public final class PipelineMetrics implements PipelineMetricsMXBean {
+
+    private static final ConcurrentMap<String, PipelineMetrics> PIPELINES = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = Boolean.getBoolean("adrspo.stream.instrumentation");
+
+    private final String name;
+    private final Map<String, StageMetrics> stages = new LinkedHashMap<>();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder splits = new LongAdder();
+    private final LongAdder leafTasks = new LongAdder();
+    private final LongAdder terminalNanos = new LongAdder();
+    private final LongAdder terminalAllocatedBytes = new LongAdder();
+
+    private PipelineMetrics(String name) {
+        this.name = name;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        PipelineMetrics.enabled = enabled;
+    }
+
+    /**
+     * The stream to build the pipeline on, instrumented under {@code pipeline} when instrumentation is on.
+     */
+    public static <T> Stream<T> instrument(Stream<T> source, String pipeline) {
+        if (!enabled) {
+            return source;
+        }
+        PipelineMetrics metrics = of(pipeline);
+        Stream<T> counted = StreamSupport.stream(new InstrumentedSpliterator<>(source.spliterator(), metrics), source.isParallel())
+                .onClose(source::close);
+        return new InstrumentedStream<>(counted, metrics);
+    }
+
+    /**
+     * The metrics of {@code pipeline}, created and registered with the platform MBean server on first use.
+     */
+    public static PipelineMetrics of(String pipeline) {
+        return PIPELINES.computeIfAbsent(pipeline, name -> {
+            PipelineMetrics metrics = new PipelineMetrics(name);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getRuns() {
+        return runs.sum();
+    }
+
+    @Override
+    public long getSplits() {
+        return splits.sum();
+    }
+
+    @Override
+    public long getLeafTasks() {
+        return leafTasks.sum();
+    }
+
+    @Override
+    public long getTerminalNanos() {
+        return terminalNanos.sum();
+    }
+
+    @Override
+    public long getTerminalAllocatedBytes() {
+        return terminalAllocatedBytes.sum();
+    }
+
+    @Override
+    public synchronized List<StageMetrics> getStages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    public synchronized StageMetrics getStage(String stage) {
+        return stages.get(stage);
+    }
+
+    @Override
+    public synchronized void reset() {
+        stages.values().forEach(StageMetrics::reset);
+        runs.reset();
+        splits.reset();
+        leafTasks.reset();
+        terminalNanos.reset();
+        terminalAllocatedBytes.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + "{runs=" + getRuns() + ", splits=" + getSplits() + ", leafTasks=" + getLeafTasks()
+                + ", nanos=" + getTerminalNanos() + ", stages=" + getStages() + "}";
+    }
+
+    /**
+     * Stages are named by position and operator, e.g. {@code 0:filter}, so that repeated runs of the same
+     * pipeline accumulate into the same counters. A one-to-one stage emits exactly the elements it takes.
+     */
+    synchronized StageMetrics stage(int index, String operation, boolean oneToOne) {
+        return stages.computeIfAbsent(index + ":" + operation, name -> new StageMetrics(name, oneToOne));
+    }
+
+    void countSplit() {
+        splits.increment();
+    }
+
+    void countLeafTask() {
+        leafTasks.increment();
+    }
+
+    void countRun(long nanos, long allocatedBytes) {
+        runs.increment();
+        terminalNanos.add(nanos);
+        if (allocatedBytes > 0) {
+            terminalAllocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    private static void register(PipelineMetrics metrics) {
+        try {
+            ObjectName objectName = new ObjectName("adrspo.stream:type=Pipeline,name=" + ObjectName.quote(metrics.name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // another class loader registered the same pipeline; its bean stays visible
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics of pipeline " + metrics.name, e);
+        }
+    }
+}
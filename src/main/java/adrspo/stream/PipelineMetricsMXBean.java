@@ -0,0 +1,25 @@
+package adrspo.stream;
+
+import java.util.List;
+
+/**
+ * JMX view of a {@link PipelineMetrics}, registered as {@code adrspo.stream:type=Pipeline,name="<name>"}.
+ */
+public interface PipelineMetricsMXBean {
+
+    String getName();
+
+    long getRuns();
+
+    long getSplits();
+
+    long getLeafTasks();
+
+    long getTerminalNanos();
+
+    long getTerminalAllocatedBytes();
+
+    List<StageMetrics> getStages();
+
+    void reset();
+}
@@ -0,0 +1,196 @@
+package adrspo.stream;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * What {@link AdaptiveExecution} has learned about one pipeline shape: the measured cost per element (or
+ * per run, for sources of unknown size), the share of that time spent on CPU, and the decisions taken.
+ * <p>
+ * The first {@value #SAMPLING_RUNS} runs are sequential samples, of which the cheapest cost and highest CPU
+ * share count: early runs are slowed by class loading and JIT compilation, which would otherwise pass for
+ * expensive or blocking work. Afterwards measurements are smoothed, so one noisy run does not flip the
+ * decision.
+ */
+public final class PipelineShape implements PipelineShapeMXBean {
+
+    /**
+     * Weight of the newest run in the smoothed measurements.
+     */
+    private static final double SMOOTHING = 0.25;
+
+    static final int SAMPLING_RUNS = 3;
+
+    private static final ConcurrentMap<String, PipelineShape> SHAPES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final LongAdder sequentialRuns = new LongAdder();
+    private final LongAdder commonPoolRuns = new LongAdder();
+    private final LongAdder dedicatedPoolRuns = new LongAdder();
+    private int samples;
+    private double nanosPerElement = Double.NaN;
+    private double nanosPerRun = Double.NaN;
+    private double cpuRatio = Double.NaN;
+    private volatile ExecutionMode lastMode;
+    private volatile long lastLeafSize;
+
+    private PipelineShape(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The shape called {@code name}, created and registered with the platform MBean server on first use.
+     */
+    public static PipelineShape of(String name) {
+        return SHAPES.computeIfAbsent(name, shape -> {
+            PipelineShape created = new PipelineShape(shape);
+            register(created);
+            return created;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getRuns() {
+        return sequentialRuns.sum() + commonPoolRuns.sum() + dedicatedPoolRuns.sum();
+    }
+
+    @Override
+    public long getSequentialRuns() {
+        return sequentialRuns.sum();
+    }
+
+    @Override
+    public long getCommonPoolRuns() {
+        return commonPoolRuns.sum();
+    }
+
+    @Override
+    public long getDedicatedPoolRuns() {
+        return dedicatedPoolRuns.sum();
+    }
+
+    /**
+     * Smoothed wall time per source element, or {@code NaN} before the first run over a sized source.
+     */
+    @Override
+    public synchronized double getNanosPerElement() {
+        return nanosPerElement;
+    }
+
+    /**
+     * Smoothed total work of a run, summed over all threads, or {@code NaN} before the first run.
+     */
+    @Override
+    public synchronized double getNanosPerRun() {
+        return nanosPerRun;
+    }
+
+    /**
+     * Smoothed share of the CPU time the runs could have used; well below 1 means the pipeline mostly waits.
+     */
+    @Override
+    public synchronized double getCpuRatio() {
+        return cpuRatio;
+    }
+
+    @Override
+    public ExecutionMode getLastMode() {
+        return lastMode;
+    }
+
+    @Override
+    public long getLastLeafSize() {
+        return lastLeafSize;
+    }
+
+    @Override
+    public synchronized void reset() {
+        sequentialRuns.reset();
+        commonPoolRuns.reset();
+        dedicatedPoolRuns.reset();
+        samples = 0;
+        nanosPerElement = Double.NaN;
+        nanosPerRun = Double.NaN;
+        cpuRatio = Double.NaN;
+        lastMode = null;
+        lastLeafSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{runs=" + getRuns() + ", lastMode=" + lastMode + ", lastLeafSize=" + lastLeafSize
+                + ", nanosPerElement=" + getNanosPerElement() + ", cpuRatio=" + getCpuRatio() + "}";
+    }
+
+    synchronized boolean isMeasured() {
+        return samples >= SAMPLING_RUNS;
+    }
+
+    void countRun(ExecutionMode mode, long leafSize) {
+        switch (mode) {
+            case SEQUENTIAL:
+                sequentialRuns.increment();
+                break;
+            case COMMON_POOL:
+                commonPoolRuns.increment();
+                break;
+            default:
+                dedicatedPoolRuns.increment();
+        }
+        lastMode = mode;
+        lastLeafSize = leafSize;
+    }
+
+    /**
+     * Folds in one run that traversed {@code elements} elements (-1 if unknown) in {@code nanos} of wall time
+     * summed over the threads involved, using {@code cpuRatio} of the CPU time available (-1 if unmeasured).
+     */
+    synchronized void record(long elements, long nanos, double cpuRatio) {
+        if (nanos <= 0) {
+            return;
+        }
+        boolean sampling = samples < SAMPLING_RUNS;
+        samples += sampling ? 1 : 0;
+        nanosPerRun = sampling ? min(nanosPerRun, nanos) : smooth(nanosPerRun, nanos);
+        if (elements > 0) {
+            double perElement = (double) nanos / elements;
+            nanosPerElement = sampling ? min(nanosPerElement, perElement) : smooth(nanosPerElement, perElement);
+        }
+        if (cpuRatio >= 0) {
+            this.cpuRatio = sampling ? max(this.cpuRatio, cpuRatio) : smooth(this.cpuRatio, cpuRatio);
+        }
+    }
+
+    private static double smooth(double current, double sample) {
+        return Double.isNaN(current) ? sample : current + SMOOTHING * (sample - current);
+    }
+
+    private static double min(double current, double sample) {
+        return Double.isNaN(current) ? sample : Math.min(current, sample);
+    }
+
+    private static double max(double current, double sample) {
+        return Double.isNaN(current) ? sample : Math.max(current, sample);
+    }
+
+    private static void register(PipelineShape shape) {
+        try {
+            ObjectName objectName = new ObjectName("adrspo.stream:type=PipelineShape,name=" + ObjectName.quote(shape.name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(shape, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            // another class loader registered the same shape; its bean stays visible
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register pipeline shape " + shape.name, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package adrspo.stream;
+
+/**
+ * JMX view of a {@link PipelineShape}, registered as {@code adrspo.stream:type=PipelineShape,name="<name>"}.
+ */
+public interface PipelineShapeMXBean {
+
+    String getName();
+
+    long getRuns();
+
+    long getSequentialRuns();
+
+    long getCommonPoolRuns();
+
+    long getDedicatedPoolRuns();
+
+    double getNanosPerElement();
+
+    double getNanosPerRun();
+
+    double getCpuRatio();
+
+    ExecutionMode getLastMode();
+
+    long getLastLeafSize();
+
+    void reset();
+}
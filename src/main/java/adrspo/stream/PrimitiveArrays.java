@@ -0,0 +1,57 @@
+package adrspo.stream;
+
+import java.util.stream.Collector;
+
+/**
+ * Collectors from boxed {@code Integer}/{@code Long} streams straight into {@code int[]}/{@code long[]}.
+ * <p>
+ * Elements are unboxed into a growable primitive buffer instead of an {@code ArrayList} of boxes. A
+ * {@code Collector} cannot see its stream's size, so when the source is SIZED, e.g. a {@code List},
+ * pass the size as {@code expectedSize}: the buffer is then allocated once and handed over without a
+ * trimming copy. Every parallel split allocates its own buffer, so on parallel streams leave the size out.
+ * <p>
+ * Where no {@code Collector} is required, {@code mapToInt(Integer::intValue).toArray()} is the faster way:
+ * the stream itself presizes exactly for SIZED sources. These are for downstream use, e.g.
+ * {@code groupingBy(classifier, toIntArray())}.
+ */
+public final class PrimitiveArrays {
+
+    private PrimitiveArrays() {
+    }
+
+    public static Collector<Integer, ?, int[]> toIntArray() {
+        return toIntArray(16);
+    }
+
+    public static Collector<Integer, ?, int[]> toIntArray(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        return Collector.of(
+                () -> new IntArrayList(expectedSize),
+                IntArrayList::add,
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                },
+                IntArrayList::toArrayNoCopy);
+    }
+
+    public static Collector<Long, ?, long[]> toLongArray() {
+        return toLongArray(16);
+    }
+
+    public static Collector<Long, ?, long[]> toLongArray(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        return Collector.of(
+                () -> new LongArrayList(expectedSize),
+                LongArrayList::add,
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                },
+                LongArrayList::toArrayNoCopy);
+    }
+}
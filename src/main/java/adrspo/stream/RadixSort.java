@@ -0,0 +1,85 @@
+package adrspo.stream;
+
+import java.util.Arrays;
+
+/**
+ * LSD radix sort for {@code int[]}/{@code long[]}, one byte per pass. Passes in which every key has the
+ * same byte are skipped, so narrow value ranges cost fewer passes.
+ */
+public final class RadixSort {
+
+    private static final int COMPARISON_SORT_THRESHOLD = 256;
+
+    private RadixSort() {
+    }
+
+    public static void sort(int[] values) {
+        if (values.length <= COMPARISON_SORT_THRESHOLD) {
+            Arrays.sort(values);
+            return;
+        }
+        int[] source = values;
+        int[] target = new int[values.length];
+        int[] counts = new int[256];
+        for (int shift = 0; shift < Integer.SIZE; shift += 8) {
+            Arrays.fill(counts, 0);
+            // flipping the sign bit makes the unsigned byte order match signed order
+            int flip = shift == Integer.SIZE - 8 ? 0x80 : 0;
+            for (int value : source) {
+                counts[((value >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (counts[((source[0] >>> shift) & 0xFF) ^ flip] == source.length) {
+                continue;
+            }
+            toOffsets(counts);
+            for (int value : source) {
+                target[counts[((value >>> shift) & 0xFF) ^ flip]++] = value;
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, values.length);
+        }
+    }
+
+    public static void sort(long[] values) {
+        if (values.length <= COMPARISON_SORT_THRESHOLD) {
+            Arrays.sort(values);
+            return;
+        }
+        long[] source = values;
+        long[] target = new long[values.length];
+        int[] counts = new int[256];
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            Arrays.fill(counts, 0);
+            int flip = shift == Long.SIZE - 8 ? 0x80 : 0;
+            for (long value : source) {
+                counts[(int) ((value >>> shift) & 0xFF) ^ flip]++;
+            }
+            if (counts[(int) ((source[0] >>> shift) & 0xFF) ^ flip] == source.length) {
+                continue;
+            }
+            toOffsets(counts);
+            for (long value : source) {
+                target[counts[(int) ((value >>> shift) & 0xFF) ^ flip]++] = value;
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, values.length);
+        }
+    }
+
+    private static void toOffsets(int[] counts) {
+        int offset = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            counts[i] = offset;
+            offset += count;
+        }
+    }
+}
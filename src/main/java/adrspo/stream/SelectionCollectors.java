@@ -0,0 +1,115 @@
+package adrspo.stream;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collector;
+
+/**
+ * Single-pass replacements for {@code sorted(comparator).limit(k)} and for separate {@code min}/{@code max}
+ * passes. Both keep constant state per split and merge across parallel splits.
+ */
+public final class SelectionCollectors {
+
+    /**
+     * What {@link #minMax} does with {@code null} elements.
+     */
+    public enum Nulls {
+        /** Throw {@link NullPointerException}, like {@code Stream.min}/{@code max}. */
+        REJECT,
+        /** Leave nulls out. */
+        SKIP,
+        /** Order nulls before every other element. */
+        FIRST,
+        /** Order nulls after every other element. */
+        LAST
+    }
+
+    private SelectionCollectors() {
+    }
+
+    /**
+     * The {@code k} smallest elements by {@code comparator}, in order; the same list as
+     * {@code sorted(comparator).limit(k)}, ties included, without buffering the stream.
+     */
+    public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return Collector.of(
+                () -> new TopK<T>(comparator, k),
+                TopK::offer,
+                TopK::merge,
+                TopK::toSortedList);
+    }
+
+    /**
+     * Minimum and maximum in one pass; empty if no element remains. On ties the first element wins, as with
+     * {@code Stream.min}/{@code max}.
+     */
+    public static <T> Collector<T, ?, Optional<MinMax<T>>> minMax(Comparator<? super T> comparator, Nulls nulls) {
+        Objects.requireNonNull(nulls, "nulls");
+        Comparator<? super T> ordering = nulls == Nulls.FIRST
+                ? Comparator.nullsFirst(comparator)
+                : nulls == Nulls.LAST ? Comparator.nullsLast(comparator) : comparator;
+        return Collector.of(
+                () -> new Bounds<T>(ordering),
+                (bounds, element) -> {
+                    if (element == null) {
+                        if (nulls == Nulls.SKIP) {
+                            return;
+                        }
+                        if (nulls == Nulls.REJECT) {
+                            throw new NullPointerException("minMax over a null element");
+                        }
+                    }
+                    bounds.add(element);
+                },
+                Bounds::merge,
+                Bounds::toMinMax);
+    }
+
+    private static final class Bounds<T> {
+
+        private final Comparator<? super T> comparator;
+        private boolean seen;
+        private T min;
+        private T max;
+
+        Bounds(Comparator<? super T> comparator) {
+            this.comparator = comparator;
+        }
+
+        void add(T element) {
+            if (!seen) {
+                seen = true;
+                min = element;
+                max = element;
+            } else if (comparator.compare(element, min) < 0) {
+                min = element;
+            } else if (comparator.compare(element, max) > 0) {
+                max = element;
+            }
+        }
+
+        Bounds<T> merge(Bounds<T> following) {
+            if (!seen) {
+                return following;
+            }
+            if (following.seen) {
+                if (comparator.compare(following.min, min) < 0) {
+                    min = following.min;
+                }
+                if (comparator.compare(following.max, max) > 0) {
+                    max = following.max;
+                }
+            }
+            return this;
+        }
+
+        Optional<MinMax<T>> toMinMax() {
+            return seen ? Optional.of(new MinMax<>(min, max)) : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package adrspo.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@code skip(n).limit(k)} that seeks instead of walking.
+ * <p>
+ * A sequential {@code skip(n)} calls {@code tryAdvance} n times. When the source is SIZED and SUBSIZED,
+ * as arrays, {@code RandomAccess} lists, ranges and the fixed-width {@link MappedFileStreams} records are,
+ * {@link #slice} instead splits it and drops every piece that lies wholly outside the slice without
+ * touching its elements: O(log n) splits, after which only the slice itself is traversed. The pieces are
+ * kept in encounter order, and the result stays SIZED and SUBSIZED, so an ordered parallel slice needs
+ * no buffering. Other sources fall back to {@code skip(n).limit(k)}, and so does a sequential pipeline with
+ * stages, whose spliterator will not split: the stream is never turned parallel behind the caller's back,
+ * which would run its stateful stages and lambdas on pool threads.
+ */
+public final class Slicing {
+
+    private Slicing() {
+    }
+
+    public static <T> Stream<T> slice(Stream<T> stream, long skip, long limit) {
+        checkSlice(skip, limit);
+        boolean parallel = stream.isParallel();
+        Spliterator<T> source = stream.spliterator();
+        List<Spliterator<T>> pieces = carve(source, skip, end(skip, limit), Window::new);
+        if (pieces == null) {
+            return StreamSupport.stream(source, parallel).skip(skip).limit(limit).onClose(stream::close);
+        }
+        Spliterator<T>[] parts = pieces.toArray(Concatenation.newArray(pieces.size()));
+        return StreamSupport.stream(new Concatenation.ConcatSpliterator<>(parts), parallel).onClose(stream::close);
+    }
+
+    public static IntStream slice(IntStream stream, long skip, long limit) {
+        checkSlice(skip, limit);
+        boolean parallel = stream.isParallel();
+        Spliterator.OfInt source = stream.spliterator();
+        List<Spliterator.OfInt> pieces = carve(source, skip, end(skip, limit), IntWindow::new);
+        if (pieces == null) {
+            return StreamSupport.intStream(source, parallel).skip(skip).limit(limit).onClose(stream::close);
+        }
+        return StreamSupport.intStream(new IntPieces(pieces.toArray(new Spliterator.OfInt[0]), 0, pieces.size()), parallel)
+                .onClose(stream::close);
+    }
+
+    /**
+     * Page {@code page} (from 0) of {@code pageSize} elements.
+     */
+    public static <T> Stream<T> page(Stream<T> stream, long page, int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + pageSize);
+        }
+        return slice(stream, Math.multiplyExact(page, (long) pageSize), pageSize);
+    }
+
+    private static void checkSlice(long skip, long limit) {
+        if (skip < 0 || limit < 0) {
+            throw new IllegalArgumentException("Negative skip " + skip + " or limit " + limit);
+        }
+    }
+
+    private static long end(long skip, long limit) {
+        long end = skip + limit;
+        return end < 0 ? Long.MAX_VALUE : end;
+    }
+
+    /**
+     * The pieces covering {@code [from, to)} of {@code spliterator}, or null when it is not SIZED and SUBSIZED
+     * or does not split at all, in which case seeking would save nothing over walking.
+     */
+    private static <S extends Spliterator<?>> List<S> carve(S spliterator, long from, long to, WindowFactory<S> window) {
+        if (!spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        S prefix = (S) spliterator.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        List<S> pieces = new ArrayList<>();
+        long prefixSize = prefix.estimateSize();
+        if (from < prefixSize) {
+            carve(prefix, from, Math.min(to, prefixSize), pieces, window);
+        }
+        carve(spliterator, Math.max(0, from - prefixSize), to - prefixSize, pieces, window);
+        return pieces;
+    }
+
+    /**
+     * Appends to {@code pieces}, in encounter order, spliterators covering exactly {@code [from, to)} of
+     * {@code spliterator}, which must be SIZED and SUBSIZED.
+     */
+    private static <S extends Spliterator<?>> void carve(S spliterator, long from, long to, List<S> pieces,
+                                                         WindowFactory<S> window) {
+        S rest = spliterator;
+        while (true) {
+            long size = rest.estimateSize();
+            if (from >= size || from >= to) {
+                return;
+            }
+            if (from == 0 && to >= size) {
+                pieces.add(rest);
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            S prefix = (S) rest.trySplit();
+            if (prefix == null) {
+                pieces.add(window.create(rest, from, Math.min(to, size) - from));
+                return;
+            }
+            long prefixSize = prefix.estimateSize();
+            if (from < prefixSize) {
+                carve(prefix, from, Math.min(to, prefixSize), pieces, window);
+            }
+            from = Math.max(0, from - prefixSize);
+            to -= prefixSize;
+        }
+    }
+
+    @FunctionalInterface
+    private interface WindowFactory<S> {
+
+        S create(S source, long skip, long length);
+    }
+
+    /**
+     * The last resort for a piece that will not split further: skips by walking, then stops after {@code length}.
+     */
+    private static final class Window<T> implements Spliterator<T> {
+
+        private final Spliterator<T> source;
+        private long skip;
+        private long remaining;
+
+        Window(Spliterator<T> source, long skip, long length) {
+            this.source = source;
+            this.skip = skip;
+            this.remaining = length;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            skipAhead();
+            if (remaining > 0 && source.tryAdvance(action)) {
+                remaining--;
+                return true;
+            }
+            remaining = 0;
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            skipAhead();
+            while (remaining > 0 && source.tryAdvance(action)) {
+                remaining--;
+            }
+            remaining = 0;
+        }
+
+        private void skipAhead() {
+            while (skip > 0 && source.tryAdvance(element -> {
+            })) {
+                skip--;
+            }
+            skip = 0;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | NONNULL | IMMUTABLE) | SIZED | SUBSIZED;
+        }
+    }
+
+    private static final class IntWindow implements Spliterator.OfInt {
+
+        private final Spliterator.OfInt source;
+        private long skip;
+        private long remaining;
+
+        IntWindow(Spliterator.OfInt source, long skip, long length) {
+            this.source = source;
+            this.skip = skip;
+            this.remaining = length;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            skipAhead();
+            if (remaining > 0 && source.tryAdvance(action)) {
+                remaining--;
+                return true;
+            }
+            remaining = 0;
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            skipAhead();
+            while (remaining > 0 && source.tryAdvance(action)) {
+                remaining--;
+            }
+            remaining = 0;
+        }
+
+        private void skipAhead() {
+            while (skip > 0 && source.tryAdvance((int value) -> {
+            })) {
+                skip--;
+            }
+            skip = 0;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & (ORDERED | NONNULL | IMMUTABLE) | SIZED | SUBSIZED;
+        }
+    }
+
+    /**
+     * The carved pieces of an {@code int} slice; there are O(log n) of them, so splitting halves their count.
+     */
+    private static final class IntPieces implements Spliterator.OfInt {
+
+        private final Spliterator.OfInt[] pieces;
+        private int from;
+        private final int to;
+
+        IntPieces(Spliterator.OfInt[] pieces, int from, int to) {
+            this.pieces = pieces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (from < to) {
+                if (pieces[from].tryAdvance(action)) {
+                    return true;
+                }
+                from++;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int index = from; index < to; index++) {
+                pieces[index].forEachRemaining(action);
+                from = index + 1;
+            }
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (to - from <= 1) {
+                return from < to ? pieces[from].trySplit() : null;
+            }
+            int middle = (from + to) >>> 1;
+            Spliterator.OfInt prefix = middle - from == 1 ? pieces[from] : new IntPieces(pieces, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (int index = from; index < to; index++) {
+                size += pieces[index].estimateSize();
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+            for (int index = from; index < to; index++) {
+                characteristics &= pieces[index].characteristics();
+            }
+            return characteristics & ~(DISTINCT | SORTED);
+        }
+    }
+}
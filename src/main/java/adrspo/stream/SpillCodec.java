@@ -0,0 +1,56 @@
+package adrspo.stream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding used by the stages that spill elements to temporary files.
+ *
+ * @param <T> the element type
+ */
+public interface SpillCodec<T> {
+
+    SpillCodec<Integer> INT = new SpillCodec<Integer>() {
+        @Override
+        public void write(DataOutput output, Integer value) throws IOException {
+            output.writeInt(value);
+        }
+
+        @Override
+        public Integer read(DataInput input) throws IOException {
+            return input.readInt();
+        }
+    };
+
+    SpillCodec<Long> LONG = new SpillCodec<Long>() {
+        @Override
+        public void write(DataOutput output, Long value) throws IOException {
+            output.writeLong(value);
+        }
+
+        @Override
+        public Long read(DataInput input) throws IOException {
+            return input.readLong();
+        }
+    };
+
+    /**
+     * Modified UTF-8, so strings are limited to 65535 encoded bytes.
+     */
+    SpillCodec<String> STRING = new SpillCodec<String>() {
+        @Override
+        public void write(DataOutput output, String value) throws IOException {
+            output.writeUTF(value);
+        }
+
+        @Override
+        public String read(DataInput input) throws IOException {
+            return input.readUTF();
+        }
+    };
+
+    void write(DataOutput output, T value) throws IOException;
+
+    T read(DataInput input) throws IOException;
+}
@@ -0,0 +1,330 @@
+package adrspo.stream;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Exact {@code distinct()} that keeps at most {@code maxElementsInMemory} elements on the heap.
+ * <p>
+ * Until the budget is reached it behaves like {@link java.util.stream.Stream#distinct()}: a hash set,
+ * first occurrences emitted as they arrive. Past the budget, the elements already emitted and the rest of
+ * the source are hash-partitioned to temporary files together with their encounter index. Each partition
+ * is then deduplicated on its own (re-partitioned with other hash bits if it still does not fit), its
+ * first occurrences are written out sorted by encounter index, and these runs are merged lazily, so the
+ * output keeps encounter order. As in {@link ExternalSort}, at most {@value #MAX_MERGE_FAN_IN} runs are
+ * open at once: beyond that, groups of runs are first merged into combined runs.
+ */
+final class SpillingDistinctSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private static final int FAN_OUT_BITS = 6;
+    private static final int FAN_OUT = 1 << FAN_OUT_BITS;
+    private static final int MAX_DEPTH = Integer.SIZE / FAN_OUT_BITS;
+    private static final int MAX_MERGE_FAN_IN = 256;
+
+    private final Spliterator<T> source;
+    private final SpillCodec<T> codec;
+    private final int maxElementsInMemory;
+
+    private Set<T> seen = new HashSet<>();
+    private long sequence;
+    private T pending;
+    private boolean hasPending;
+
+    private Path directory;
+    private Path[] partitionFiles;
+    private DataOutputStream[] partitions;
+    private List<Path> runFiles;
+    private PriorityQueue<Run<T>> runs;
+
+    SpillingDistinctSpliterator(Spliterator<T> source, SpillCodec<T> codec, int maxElementsInMemory) {
+        super(source.estimateSize(), source.characteristics() & ORDERED | DISTINCT);
+        if (maxElementsInMemory <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + maxElementsInMemory);
+        }
+        this.source = source;
+        this.codec = codec;
+        this.maxElementsInMemory = maxElementsInMemory;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (seen != null) {
+            if (!source.tryAdvance(this::inMemory)) {
+                seen = null;
+                return false;
+            }
+            if (hasPending) {
+                T element = pending;
+                pending = null;
+                hasPending = false;
+                if (seen.size() >= maxElementsInMemory) {
+                    spill();
+                }
+                action.accept(element);
+                return true;
+            }
+        }
+        if (partitions != null) {
+            source.forEachRemaining(this::toPartition);
+            resolve();
+        }
+        return runs != null && nextFromRuns(action);
+    }
+
+    /**
+     * Deletes every temporary file; called when the stream is closed or fully consumed.
+     */
+    void cleanUp() {
+        if (partitions != null) {
+            for (DataOutputStream partition : partitions) {
+                SpillFiles.close(partition);
+            }
+            partitions = null;
+        }
+        if (runs != null) {
+            runs.forEach(Run::close);
+            runs = null;
+        }
+        SpillFiles.deleteRecursively(directory);
+        directory = null;
+    }
+
+    private void inMemory(T element) {
+        sequence++;
+        if (seen.add(element)) {
+            pending = element;
+            hasPending = true;
+        }
+    }
+
+    private void spill() {
+        directory = SpillFiles.createDirectory("distinct");
+        partitions = new DataOutputStream[FAN_OUT];
+        Path[] files = new Path[FAN_OUT];
+        for (int i = 0; i < FAN_OUT; i++) {
+            files[i] = SpillFiles.createFile(directory);
+            partitions[i] = SpillFiles.output(files[i]);
+        }
+        partitionFiles = files;
+        for (T element : seen) {
+            write(partitions[partition(element, 0)], true, 0L, element);
+        }
+        seen = null;
+    }
+
+    private void toPartition(T element) {
+        write(partitions[partition(element, 0)], false, sequence++, element);
+    }
+
+    private void resolve() {
+        for (DataOutputStream partition : partitions) {
+            SpillFiles.close(partition);
+        }
+        partitions = null;
+        runFiles = new ArrayList<>();
+        for (Path file : partitionFiles) {
+            resolve(file, 0);
+        }
+        partitionFiles = null;
+        while (runFiles.size() > MAX_MERGE_FAN_IN) {
+            List<Path> merged = new ArrayList<>();
+            for (int from = 0; from < runFiles.size(); from += MAX_MERGE_FAN_IN) {
+                merged.add(merge(runFiles.subList(from, Math.min(runFiles.size(), from + MAX_MERGE_FAN_IN))));
+            }
+            runFiles = merged;
+        }
+        runs = open(runFiles);
+        runFiles = null;
+    }
+
+    private PriorityQueue<Run<T>> open(List<Path> files) {
+        PriorityQueue<Run<T>> opened = new PriorityQueue<>(Comparator.comparingLong(run -> run.sequence));
+        for (Path file : files) {
+            Run<T> run = new Run<>(file, codec);
+            if (run.advance()) {
+                opened.add(run);
+            } else {
+                run.close();
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Merges runs into one, still sorted by encounter index; their elements are disjoint, so nothing is dropped.
+     */
+    private Path merge(List<Path> files) {
+        PriorityQueue<Run<T>> group = open(files);
+        Path file = SpillFiles.createFile(directory);
+        try (DataOutputStream output = SpillFiles.output(file)) {
+            Run<T> run;
+            while ((run = group.poll()) != null) {
+                output.writeLong(run.sequence);
+                codec.write(output, run.element);
+                if (run.advance()) {
+                    group.add(run);
+                } else {
+                    run.close();
+                }
+            }
+        } catch (IOException e) {
+            group.forEach(Run::close);
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    /**
+     * Deduplicates one partition file into a run of first occurrences sorted by encounter index.
+     */
+    private void resolve(Path file, int depth) {
+        Set<T> emitted = new HashSet<>();
+        Map<T, Long> firstOccurrences = new HashMap<>();
+        boolean fits = true;
+        try (DataInputStream input = SpillFiles.input(file)) {
+            while (fits && !isEof(input)) {
+                boolean alreadyEmitted = input.readBoolean();
+                long index = input.readLong();
+                T element = codec.read(input);
+                if (alreadyEmitted) {
+                    emitted.add(element);
+                } else if (!emitted.contains(element)) {
+                    firstOccurrences.putIfAbsent(element, index);
+                }
+                fits = emitted.size() + firstOccurrences.size() <= maxElementsInMemory;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!fits) {
+            repartition(file, depth + 1);
+            return;
+        }
+        List<Map.Entry<T, Long>> survivors = new ArrayList<>(firstOccurrences.entrySet());
+        survivors.sort(Map.Entry.comparingByValue());
+        SpillFiles.delete(file);
+        if (survivors.isEmpty()) {
+            return;
+        }
+        Path runFile = SpillFiles.createFile(directory);
+        try (DataOutputStream output = SpillFiles.output(runFile)) {
+            for (Map.Entry<T, Long> survivor : survivors) {
+                output.writeLong(survivor.getValue());
+                codec.write(output, survivor.getKey());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        runFiles.add(runFile);
+    }
+
+    private void repartition(Path file, int depth) {
+        if (depth >= MAX_DEPTH) {
+            throw new IllegalStateException("Cannot split partition below " + maxElementsInMemory + " elements; too many equal hash codes");
+        }
+        Path[] files = new Path[FAN_OUT];
+        DataOutputStream[] outputs = new DataOutputStream[FAN_OUT];
+        for (int i = 0; i < FAN_OUT; i++) {
+            files[i] = SpillFiles.createFile(directory);
+            outputs[i] = SpillFiles.output(files[i]);
+        }
+        try (DataInputStream input = SpillFiles.input(file)) {
+            while (!isEof(input)) {
+                boolean alreadyEmitted = input.readBoolean();
+                long index = input.readLong();
+                T element = codec.read(input);
+                write(outputs[partition(element, depth)], alreadyEmitted, index, element);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (DataOutputStream output : outputs) {
+                SpillFiles.close(output);
+            }
+        }
+        SpillFiles.delete(file);
+        for (Path subPartition : files) {
+            resolve(subPartition, depth);
+        }
+    }
+
+    private boolean nextFromRuns(Consumer<? super T> action) {
+        Run<T> run = runs.poll();
+        if (run == null) {
+            cleanUp();
+            return false;
+        }
+        T element = run.element;
+        if (run.advance()) {
+            runs.add(run);
+        } else {
+            run.close();
+        }
+        action.accept(element);
+        return true;
+    }
+
+    private void write(DataOutputStream output, boolean alreadyEmitted, long index, T element) {
+        try {
+            output.writeBoolean(alreadyEmitted);
+            output.writeLong(index);
+            codec.write(output, element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int partition(Object element, int depth) {
+        return Integer.rotateRight(Hashing.mix(Objects.hashCode(element)), depth * FAN_OUT_BITS) & (FAN_OUT - 1);
+    }
+
+    private static boolean isEof(DataInputStream input) throws IOException {
+        input.mark(1);
+        if (input.read() < 0) {
+            return true;
+        }
+        input.reset();
+        return false;
+    }
+
+    /**
+     * Cursor over a run file of (encounter index, element) records.
+     */
+    private static final class Run<T> {
+
+        private final Path file;
+        private final SpillCodec<T> codec;
+        private final DataInputStream input;
+        private long sequence;
+        private T element;
+
+        Run(Path file, SpillCodec<T> codec) {
+            this.file = file;
+            this.codec = codec;
+            this.input = SpillFiles.input(file);
+        }
+
+        boolean advance() {
+            try {
+                sequence = input.readLong();
+                element = codec.read(input);
+                return true;
+            } catch (EOFException e) {
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            SpillFiles.close(input);
+            SpillFiles.delete(file);
+        }
+    }
+}
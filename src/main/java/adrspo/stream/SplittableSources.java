@@ -0,0 +1,122 @@
+package adrspo.stream;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sources that split as well as a range does, for the cases where {@code Stream.iterate} and
+ * {@code Stream.generate} do not.
+ * <p>
+ * {@code iterate} and {@code generate} are sequential by nature: the only way to split them is to buffer
+ * elements into arrays, so a parallel pipeline mostly waits on one thread producing them. The random
+ * sources here compute element {@code i} directly from the seed (SplitMix64, the generator behind
+ * {@link java.util.SplittableRandom}), and {@link #iterate(long, LongFunction)} takes a closed-form term,
+ * so both are plain index ranges. The same seed gives the same elements sequentially and in parallel.
+ */
+public final class SplittableSources {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private SplittableSources() {
+    }
+
+    /**
+     * The first {@code size} values of {@code new SplittableRandom(seed).nextLong()}.
+     */
+    public static LongStream randomLongs(long size, long seed) {
+        return indices(size).map(index -> mix64(seedAt(seed, index)));
+    }
+
+    /**
+     * The first {@code size} values of {@code new SplittableRandom(seed).nextInt()}.
+     */
+    public static IntStream randomInts(long size, long seed) {
+        return indices(size).mapToInt(index -> mix32(seedAt(seed, index)));
+    }
+
+    /**
+     * Uniform ints in {@code [origin, bound)}. Each element takes a single draw, scaled by multiplication,
+     * so unlike {@code SplittableRandom.ints(size, origin, bound)} there is no rejection loop to break
+     * index addressing; the bias is below 2<sup>-32</sup> per value.
+     */
+    public static IntStream randomInts(long size, int origin, int bound, long seed) {
+        if (origin >= bound) {
+            throw new IllegalArgumentException("bound must be greater than origin: " + origin + " >= " + bound);
+        }
+        long range = (long) bound - origin;
+        return indices(size).mapToInt(index -> origin + (int) (((mix32(seedAt(seed, index)) & 0xFFFFFFFFL) * range) >>> 32));
+    }
+
+    /**
+     * The first {@code size} values of {@code new SplittableRandom(seed).nextDouble()}.
+     */
+    public static DoubleStream randomDoubles(long size, long seed) {
+        return indices(size).mapToDouble(index -> (mix64(seedAt(seed, index)) >>> 11) * DOUBLE_UNIT);
+    }
+
+    /**
+     * Replacement for {@code Stream.generate(supplier).limit(size)} when the supplier needs randomness:
+     * element {@code i} is {@code generator.apply(r)} for the {@code i}-th random long {@code r}.
+     */
+    public static <T> Stream<T> generate(long size, long seed, LongFunction<? extends T> generator) {
+        Objects.requireNonNull(generator, "generator");
+        return randomLongs(size, seed).mapToObj(generator);
+    }
+
+    /**
+     * Replacement for {@code Stream.iterate(seed, f).limit(size)} when term {@code n} has a closed form,
+     * such as {@code n -> 2L << n} for {@code iterate(2, x -> x * 2)}.
+     */
+    public static <T> Stream<T> iterate(long size, LongFunction<? extends T> nthTerm) {
+        Objects.requireNonNull(nthTerm, "nthTerm");
+        return indices(size).mapToObj(nthTerm);
+    }
+
+    public static LongStream iterateLongs(long size, LongUnaryOperator nthTerm) {
+        Objects.requireNonNull(nthTerm, "nthTerm");
+        return indices(size).map(nthTerm);
+    }
+
+    /**
+     * A stream over an arbitrary iterator that hands out batches of doubling size, starting at one element,
+     * so that even a short source of expensive elements spreads across workers. A batch also closes once
+     * filling it has taken {@code maxBatchNanos}, so a slow iterator does not hold back the workers.
+     */
+    public static <T> Stream<T> fromIterator(Iterator<? extends T> iterator, long maxBatchNanos) {
+        return StreamSupport.stream(new BatchingSpliterator<>(iterator, BatchingSpliterator.MAX_BATCH_SIZE, maxBatchNanos), false);
+    }
+
+    public static <T> Stream<T> fromIterator(Iterator<? extends T> iterator) {
+        return fromIterator(iterator, BatchingSpliterator.DEFAULT_MAX_BATCH_NANOS);
+    }
+
+    private static LongStream indices(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        return LongStream.range(0, size);
+    }
+
+    private static long seedAt(long seed, long index) {
+        return seed + (index + 1) * GOLDEN_GAMMA;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+}
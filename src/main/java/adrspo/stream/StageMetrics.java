@@ -0,0 +1,378 @@
+package adrspo.stream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Counters of one instrumented stage. Input and output counts are exact, the output of a one-to-one stage
+ * such as {@code map} being its input; time is measured on one call in 1024 and allocation on one call in
+ * 16384, both scaled up.
+ * <p>
+ * A sequential run counts into {@link Cell}s of its own, created with the pipeline rather than looked up per
+ * element, and adds them to the stage when its terminal operation returns. A parallel run counts into one cell per worker
+ * thread, looked up through a thread-local. Either way a cheap stage pays for plain writes rather than
+ * contended atomics or clock reads. Cells of threads that have died are folded into one. Readers sum the
+ * cells and may see counts that lag behind runs still in progress.
+ */
+public final class StageMetrics {
+
+    private static final int SAMPLE_MASK = 1024 - 1;
+    private static final int ALLOCATION_SAMPLE_MASK = 16384 - 1;
+    private static final com.sun.management.ThreadMXBean ALLOCATION = allocationBean();
+
+    private final String name;
+    private final boolean oneToOne;
+    private final Cell retired = new Cell(null);
+    private final Queue<Cell> cells = new ConcurrentLinkedQueue<>(Collections.singleton(retired));
+    private final ThreadLocal<Cell> cell = ThreadLocal.withInitial(this::newCell);
+
+    StageMetrics(String name, boolean oneToOne) {
+        this.name = name;
+        this.oneToOne = oneToOne;
+    }
+
+    /**
+     * One thread's counters; {@code start} is the clock reading of the sample in progress, or 0, and
+     * {@code allocatedBefore} the allocation reading, or -1. The owner is
+     * held weakly, so that the cell can be retired once its thread is gone.
+     */
+    static final class Cell {
+
+        private final WeakReference<Thread> owner;
+        private long input;
+        private long output;
+        private long samples;
+        private long sampledNanos;
+        private long allocationSamples;
+        private long sampledAllocatedBytes;
+        private long start;
+        private long allocatedBefore = -1;
+
+        Cell(Thread owner) {
+            this.owner = owner == null ? null : new WeakReference<>(owner);
+        }
+
+        private boolean isDead() {
+            return owner != null && owner.get() == null;
+        }
+
+        private void add(Cell cell) {
+            input += cell.input;
+            output += cell.output;
+            samples += cell.samples;
+            sampledNanos += cell.sampledNanos;
+            allocationSamples += cell.allocationSamples;
+            sampledAllocatedBytes += cell.sampledAllocatedBytes;
+        }
+
+        private void clear() {
+            input = 0;
+            output = 0;
+            samples = 0;
+            sampledNanos = 0;
+            allocationSamples = 0;
+            sampledAllocatedBytes = 0;
+            start = 0;
+            allocatedBefore = -1;
+        }
+    }
+
+    /**
+     * The stage as seen by one pipeline instance. While {@link #confine confined} to a sequential terminal
+     * operation it counts into a cell of its own without any lookup; otherwise into the current thread's cell.
+     */
+    static final class Recorder {
+
+        private final StageMetrics stage;
+        private final Cell local = new Cell(null);
+        private boolean confined;
+
+        Recorder(StageMetrics stage) {
+            this.stage = stage;
+        }
+
+        /**
+         * Counts one input and starts a sample when due; pass the cell to {@link #end}.
+         */
+        Cell begin() {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) == 0) {
+                startSample(cell);
+            }
+            return cell;
+        }
+
+        void end(Cell cell, long outputs) {
+            if (cell.start != 0) {
+                endSample(cell);
+            }
+            cell.output += outputs;
+        }
+
+        /**
+         * Runs a filtering function, counting the elements it lets through. This and the one-to-one variants
+         * below keep the sampled call out of line, so that the common path inlines without any call of its own.
+         */
+        <T> boolean test(Predicate<? super T> predicate, T element) {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) != 0) {
+                boolean result = predicate.test(element);
+                cell.output += result ? 1 : 0;
+                return result;
+            }
+            return sampledTest(cell, predicate, element);
+        }
+
+        <T, R> R apply(Function<? super T, ? extends R> mapper, T element) {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) != 0) {
+                return mapper.apply(element);
+            }
+            return sampledApply(cell, mapper, element);
+        }
+
+        <T> int applyAsInt(ToIntFunction<? super T> mapper, T element) {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) != 0) {
+                return mapper.applyAsInt(element);
+            }
+            return sampledApplyAsInt(cell, mapper, element);
+        }
+
+        <T> long applyAsLong(ToLongFunction<? super T> mapper, T element) {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) != 0) {
+                return mapper.applyAsLong(element);
+            }
+            return sampledApplyAsLong(cell, mapper, element);
+        }
+
+        <T> double applyAsDouble(ToDoubleFunction<? super T> mapper, T element) {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) != 0) {
+                return mapper.applyAsDouble(element);
+            }
+            return sampledApplyAsDouble(cell, mapper, element);
+        }
+
+        <T> void accept(Consumer<? super T> action, T element) {
+            Cell cell = cell();
+            if ((++cell.input & SAMPLE_MASK) != 0) {
+                action.accept(element);
+            } else {
+                sampledAccept(cell, action, element);
+            }
+        }
+
+        void countInput() {
+            cell().input++;
+        }
+
+        void countOutput() {
+            cell().output++;
+        }
+
+        /**
+         * Every element of the run goes through the calling thread from now until {@link #release}.
+         */
+        void confine() {
+            confined = true;
+        }
+
+        /**
+         * Ends the confined run and adds its counts to the stage.
+         */
+        void release() {
+            if (confined) {
+                confined = false;
+                stage.cell().add(local);
+                local.clear();
+            }
+        }
+
+        private Cell cell() {
+            return confined ? local : stage.cell();
+        }
+
+        private static <T> boolean sampledTest(Cell cell, Predicate<? super T> predicate, T element) {
+            startSample(cell);
+            boolean result = predicate.test(element);
+            endSample(cell);
+            cell.output += result ? 1 : 0;
+            return result;
+        }
+
+        private static <T, R> R sampledApply(Cell cell, Function<? super T, ? extends R> mapper, T element) {
+            startSample(cell);
+            R result = mapper.apply(element);
+            endSample(cell);
+            return result;
+        }
+
+        private static <T> int sampledApplyAsInt(Cell cell, ToIntFunction<? super T> mapper, T element) {
+            startSample(cell);
+            int result = mapper.applyAsInt(element);
+            endSample(cell);
+            return result;
+        }
+
+        private static <T> long sampledApplyAsLong(Cell cell, ToLongFunction<? super T> mapper, T element) {
+            startSample(cell);
+            long result = mapper.applyAsLong(element);
+            endSample(cell);
+            return result;
+        }
+
+        private static <T> double sampledApplyAsDouble(Cell cell, ToDoubleFunction<? super T> mapper, T element) {
+            startSample(cell);
+            double result = mapper.applyAsDouble(element);
+            endSample(cell);
+            return result;
+        }
+
+        private static <T> void sampledAccept(Cell cell, Consumer<? super T> action, T element) {
+            startSample(cell);
+            action.accept(element);
+            endSample(cell);
+        }
+
+        private static void startSample(Cell cell) {
+            if (ALLOCATION != null && (cell.input & ALLOCATION_SAMPLE_MASK) == 0) {
+                cell.allocatedBefore = ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            long start = System.nanoTime();
+            cell.start = start == 0 ? 1 : start;
+        }
+
+        private static void endSample(Cell cell) {
+            cell.sampledNanos += System.nanoTime() - cell.start;
+            cell.samples++;
+            cell.start = 0;
+            if (cell.allocatedBefore >= 0) {
+                cell.sampledAllocatedBytes += ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId()) - cell.allocatedBefore;
+                cell.allocationSamples++;
+                cell.allocatedBefore = -1;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getInputCount() {
+        long input = 0;
+        for (Cell cell : cells) {
+            input += cell.input;
+        }
+        return input;
+    }
+
+    public long getOutputCount() {
+        if (oneToOne) {
+            return getInputCount();
+        }
+        long output = 0;
+        for (Cell cell : cells) {
+            output += cell.output;
+        }
+        return output;
+    }
+
+    public long getEstimatedNanos() {
+        long input = 0;
+        long samples = 0;
+        long nanos = 0;
+        for (Cell cell : cells) {
+            input += cell.input;
+            samples += cell.samples;
+            nanos += cell.sampledNanos;
+        }
+        return scale(nanos, input, samples);
+    }
+
+    /**
+     * Bytes allocated by the stage's function, or -1 where the JVM cannot measure per-thread allocation.
+     */
+    public long getEstimatedAllocatedBytes() {
+        if (ALLOCATION == null) {
+            return -1;
+        }
+        long input = 0;
+        long samples = 0;
+        long bytes = 0;
+        for (Cell cell : cells) {
+            input += cell.input;
+            samples += cell.allocationSamples;
+            bytes += cell.sampledAllocatedBytes;
+        }
+        return scale(bytes, input, samples);
+    }
+
+    @Override
+    public String toString() {
+        return name + "{in=" + getInputCount() + ", out=" + getOutputCount() + ", nanos~" + getEstimatedNanos()
+                + ", allocated~" + getEstimatedAllocatedBytes() + "}";
+    }
+
+    void reset() {
+        synchronized (retired) {
+            for (Cell cell : cells) {
+                cell.clear();
+            }
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 where the JVM cannot tell.
+     */
+    static long currentThreadAllocatedBytes() {
+        return ALLOCATION == null ? -1 : ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private Cell cell() {
+        return cell.get();
+    }
+
+    /**
+     * A thread's first use of the stage also retires the cells of threads that have died since the last one,
+     * so that short-lived and pooled threads do not accumulate cells.
+     */
+    private Cell newCell() {
+        for (Cell dead : cells) {
+            if (dead.isDead() && cells.remove(dead)) {
+                synchronized (retired) {
+                    retired.add(dead);
+                }
+            }
+        }
+        Cell cell = new Cell(Thread.currentThread());
+        cells.add(cell);
+        return cell;
+    }
+
+    private static long scale(long sampled, long input, long samples) {
+        return samples == 0 ? 0 : (long) ((double) sampled * input / samples);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            if (allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+                return allocation;
+            }
+        }
+        return null;
+    }
+}
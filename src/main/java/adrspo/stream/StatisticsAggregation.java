@@ -0,0 +1,128 @@
+package adrspo.stream;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Count, sum, min and max in O(1) amortized per element. A sliding window keeps its values in a ring
+ * buffer: the sum subtracts evicted values and is recomputed from the buffer once per full turn to stop
+ * rounding drift, while min and max come from monotonic deques of buffer positions.
+ */
+final class StatisticsAggregation<T> extends Aggregation<T, WindowStatistics> {
+
+    private final ToDoubleFunction<? super T> mapper;
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    // sliding window only
+    private final double[] values;
+    private final MonotonicDeque minimums;
+    private final MonotonicDeque maximums;
+    private long sequence;
+
+    StatisticsAggregation(Window window, ToDoubleFunction<? super T> mapper) {
+        super(window);
+        this.mapper = mapper;
+        boolean sliding = window.kind() == Window.Kind.SLIDING;
+        this.values = sliding ? new double[window.size()] : null;
+        this.minimums = sliding ? new MonotonicDeque(window.size(), true) : null;
+        this.maximums = sliding ? new MonotonicDeque(window.size(), false) : null;
+    }
+
+    @Override
+    public WindowStatistics current() {
+        if (count == 0) {
+            return WindowStatistics.EMPTY;
+        }
+        if (values == null) {
+            return new WindowStatistics(count, sum, min, max);
+        }
+        return new WindowStatistics(count, sum, values[minimums.first()], values[maximums.first()]);
+    }
+
+    @Override
+    void add(T element) {
+        double value = mapper.applyAsDouble(element);
+        if (values == null) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            return;
+        }
+        int slot = (int) (sequence % values.length);
+        if (count == values.length) {
+            sum -= values[slot];
+            minimums.evict(slot);
+            maximums.evict(slot);
+        } else {
+            count++;
+        }
+        values[slot] = value;
+        sum += value;
+        minimums.push(slot, values);
+        maximums.push(slot, values);
+        if (++sequence % values.length == 0) {
+            sum = exactSum();
+        }
+    }
+
+    @Override
+    void reset() {
+        count = 0;
+        sum = 0.0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    private double exactSum() {
+        double total = 0.0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Ring buffer positions whose values are monotonic from head to tail, so the head is always the
+     * window's minimum (or maximum).
+     */
+    private static final class MonotonicDeque {
+
+        private final int[] slots;
+        private final boolean ascending;
+        private int head;
+        private int size;
+
+        MonotonicDeque(int capacity, boolean ascending) {
+            this.slots = new int[capacity];
+            this.ascending = ascending;
+        }
+
+        int first() {
+            return slots[head];
+        }
+
+        void evict(int slot) {
+            if (size > 0 && slots[head] == slot) {
+                head = (head + 1) % slots.length;
+                size--;
+            }
+        }
+
+        void push(int slot, double[] values) {
+            double value = values[slot];
+            while (size > 0) {
+                double last = values[slots[(head + size - 1) % slots.length]];
+                if (ascending ? last <= value : last >= value) {
+                    break;
+                }
+                size--;
+            }
+            slots[(head + size) % slots.length] = slot;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package adrspo.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The {@code k} smallest elements offered so far, in a bounded max-heap. Ties are broken by encounter
+ * index, so the result equals {@code sorted(comparator).limit(k)} on the same input.
+ */
+final class TopK<T> {
+
+    private final Comparator<? super T> comparator;
+    private final int k;
+    private Object[] elements;
+    private long[] sequences;
+    private int size;
+    private long offered;
+
+    TopK(Comparator<? super T> comparator, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.comparator = comparator;
+        this.k = k;
+        this.elements = new Object[Math.min(k, 1 << 16)];
+        this.sequences = new long[elements.length];
+    }
+
+    void offer(T element) {
+        offer(element, offered++);
+    }
+
+    /**
+     * Folds in a top-k built from the elements that come after this one's in encounter order.
+     */
+    TopK<T> merge(TopK<T> following) {
+        for (int i = 0; i < following.size; i++) {
+            offer(following.element(i), offered + following.sequences[i]);
+        }
+        offered += following.offered;
+        return this;
+    }
+
+    List<T> toSortedList() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, this::compare);
+        List<T> sorted = new ArrayList<>(size);
+        for (Integer index : order) {
+            sorted.add(element(index));
+        }
+        return sorted;
+    }
+
+    private void offer(T element, long sequence) {
+        if (size < k) {
+            ensureCapacity();
+            elements[size] = element;
+            sequences[size] = sequence;
+            siftUp(size++);
+        } else if (k > 0 && compare(element, sequence, element(0), sequences[0]) < 0) {
+            elements[0] = element;
+            sequences[0] = sequence;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(index, parent) <= 0) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compare(left, largest) > 0) {
+                largest = left;
+            }
+            if (right < size && compare(right, largest) > 0) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(index, largest);
+            index = largest;
+        }
+    }
+
+    private int compare(int left, int right) {
+        return compare(element(left), sequences[left], element(right), sequences[right]);
+    }
+
+    private int compare(T left, long leftSequence, T right, long rightSequence) {
+        int result = comparator.compare(left, right);
+        return result != 0 ? result : Long.compare(leftSequence, rightSequence);
+    }
+
+    private void swap(int left, int right) {
+        Object element = elements[left];
+        elements[left] = elements[right];
+        elements[right] = element;
+        long sequence = sequences[left];
+        sequences[left] = sequences[right];
+        sequences[right] = sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int index) {
+        return (T) elements[index];
+    }
+
+    private void ensureCapacity() {
+        if (size == elements.length) {
+            int capacity = (int) Math.min(k, Math.max(16L, elements.length * 2L));
+            elements = Arrays.copyOf(elements, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+        }
+    }
+}
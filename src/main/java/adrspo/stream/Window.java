@@ -0,0 +1,62 @@
+package adrspo.stream;
+
+/**
+ * Count-based window over the elements reaching an incremental aggregation.
+ */
+public final class Window {
+
+    enum Kind {
+        UNBOUNDED, TUMBLING, SLIDING
+    }
+
+    private static final Window UNBOUNDED = new Window(Kind.UNBOUNDED, 0);
+
+    private final Kind kind;
+    private final int size;
+
+    private Window(Kind kind, int size) {
+        this.kind = kind;
+        this.size = size;
+    }
+
+    /**
+     * Every element ever pushed.
+     */
+    public static Window unbounded() {
+        return UNBOUNDED;
+    }
+
+    /**
+     * Consecutive, non-overlapping windows of {@code size} elements; the aggregate restarts when one fills up.
+     */
+    public static Window tumbling(int size) {
+        return new Window(Kind.TUMBLING, checkSize(size));
+    }
+
+    /**
+     * The last {@code size} elements, advancing by one element at a time.
+     */
+    public static Window sliding(int size) {
+        return new Window(Kind.SLIDING, checkSize(size));
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int checkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.UNBOUNDED ? "unbounded" : kind.name().toLowerCase() + "(" + size + ")";
+    }
+}
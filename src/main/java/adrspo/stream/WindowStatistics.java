@@ -0,0 +1,21 @@
+package adrspo.stream;
+
+import lombok.Value;
+
+/**
+ * Snapshot of {@code summaryStatistics()} over a window; mirrors {@link java.util.DoubleSummaryStatistics}.
+ */
+@Value
+public class WindowStatistics {
+
+    static final WindowStatistics EMPTY = new WindowStatistics(0, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    long count;
+    double sum;
+    double min;
+    double max;
+
+    public double getAverage() {
+        return count > 0 ? sum / count : 0.0;
+    }
+}
@@ -0,0 +1,143 @@
+import adrspo.stream.AdaptiveExecution;
+import adrspo.stream.ExecutionMode;
+import adrspo.stream.IntRangeList;
+import adrspo.stream.PipelineShape;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.management.ObjectName;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AdaptiveParallelism {
+
+    @Test
+    public void smallPipelinesStaySequential() {
+        for (int run = 0; run < 5; run++) {
+            long sum = AdaptiveExecution.execute("oneToHundredSum", IntStream.rangeClosed(1, 100).boxed(),
+                    s -> s.mapToLong(Integer::longValue).sum());
+
+            assertThat(sum, is(equalTo(5050L)));
+        }
+
+        PipelineShape shape = PipelineShape.of("oneToHundredSum");
+        assertThat(shape.getRuns(), is(equalTo(5L)));
+        assertThat(shape.getSequentialRuns(), is(equalTo(5L)));
+        assertThat(shape.getNanosPerElement(), is(greaterThan(0.0)));
+    }
+
+    @Test
+    public void samplingRunsOfAStatefulSourceStayOnTheCallingThread() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        AtomicLong peeked = new AtomicLong();
+
+        long count = AdaptiveExecution.execute("iterateLimit", Stream.iterate(0, x -> x + 1)
+                .peek(x -> threads.add(Thread.currentThread()))
+                .peek(x -> peeked.incrementAndGet())
+                .limit(200_000), Stream::count);
+
+        assertThat(count, is(equalTo(200_000L)));
+        assertThat(PipelineShape.of("iterateLimit").getLastMode(), is(ExecutionMode.SEQUENTIAL));
+        assertThat(threads, contains(Thread.currentThread()));
+        assertThat(peeked.get(), is(equalTo(200_000L)));
+    }
+
+    @Test
+    public void largeCpuBoundPipelinesGoParallelWhenThereAreWorkers() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 5; run++) {
+                long sum = pool.submit(() -> AdaptiveExecution.execute("reduceThreeArg", IntRangeList.range(0, 1_000_000).stream(),
+                        s -> s.reduce(0L, (total, x) -> total + slowSquare(x), Long::sum))).get();
+
+                assertThat(sum, is(equalTo(IntStream.range(0, 1_000_000).mapToLong(x -> (long) x * x).sum())));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        PipelineShape shape = PipelineShape.of("reduceThreeArg");
+        assertThat(shape.getSequentialRuns(), is(equalTo(3L)));
+        assertThat(shape.getCommonPoolRuns(), is(equalTo(2L)));
+        assertThat(shape.getLastMode(), is(ExecutionMode.COMMON_POOL));
+        assertThat(shape.getLastLeafSize(), is(both(greaterThan(1L)).and(lessThan(1_000_000L))));
+    }
+
+    @Test
+    public void blockingPipelinesMoveToTheDedicatedPool() {
+        List<Integer> ids = IntStream.range(0, 40).boxed().collect(toList());
+
+        for (int run = 0; run < 4; run++) {
+            List<Integer> fetched = AdaptiveExecution.execute("blockingFetch", ids.stream(), s -> s.map(id -> {
+                sleep(1);
+                return id * 10;
+            }).collect(toList()));
+
+            assertThat(fetched, is(equalTo(ids.stream().map(id -> id * 10).collect(toList()))));
+        }
+
+        PipelineShape shape = PipelineShape.of("blockingFetch");
+        assertThat(shape.getCpuRatio(), is(lessThan(AdaptiveExecution.BLOCKING_CPU_RATIO)));
+        assertThat(shape.getLastMode(), is(ExecutionMode.DEDICATED_POOL));
+    }
+
+    @Test
+    public void policy() {
+        assertThat(AdaptiveExecution.choose(1_000, 1.0, 8), is(ExecutionMode.SEQUENTIAL));
+        assertThat(AdaptiveExecution.choose(Double.NaN, 1.0, 8), is(ExecutionMode.SEQUENTIAL));
+        assertThat(AdaptiveExecution.choose(10_000_000, 1.0, 8), is(ExecutionMode.COMMON_POOL));
+        assertThat(AdaptiveExecution.choose(10_000_000, 1.0, 1), is(ExecutionMode.SEQUENTIAL));
+        assertThat(AdaptiveExecution.choose(10_000_000, 0.05, 1), is(ExecutionMode.DEDICATED_POOL));
+        assertThat(AdaptiveExecution.leafSize(1.0), is(equalTo(50_000L)));
+        assertThat(AdaptiveExecution.leafSize(1_000_000.0), is(equalTo(1L)));
+    }
+
+    @Test
+    public void unsizedSourcesAreJudgedByTheirRuns() {
+        for (int run = 0; run < 5; run++) {
+            List<String> words = AdaptiveExecution.execute("unsizedWords", Stream.iterate("a", w -> w + "a").limit(5),
+                    s -> s.filter(w -> w.length() % 2 == 1).collect(toList()));
+
+            assertThat(words, is(equalTo(Arrays.asList("a", "aaa", "aaaaa"))));
+        }
+
+        assertThat(PipelineShape.of("unsizedWords").getNanosPerRun(), is(greaterThan(0.0)));
+        assertThat(PipelineShape.of("unsizedWords").getLastMode(), is(ExecutionMode.SEQUENTIAL));
+    }
+
+    @Test
+    public void choicesArePublishedOverJmx() throws Exception {
+        AdaptiveExecution.execute("jmxShape", Stream.of(1, 2, 3), s -> s.count());
+
+        Object mode = ManagementFactory.getPlatformMBeanServer().getAttribute(
+                new ObjectName("adrspo.stream:type=PipelineShape,name=\"jmxShape\""), "LastMode");
+
+        assertThat(mode, is(equalTo("SEQUENTIAL")));
+    }
+
+    private static long slowSquare(int x) {
+        long square = (long) x * x;
+        for (int i = 0; i < 20; i++) {
+            square = Long.rotateLeft(square, 7);
+        }
+        return Long.rotateRight(square, 140);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
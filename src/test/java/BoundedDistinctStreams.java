@@ -0,0 +1,127 @@
+import adrspo.stream.BloomFilter;
+import adrspo.stream.BoundedDistinct;
+import adrspo.stream.SpillCodec;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BoundedDistinctStreams {
+
+    @Test
+    public void exactDistinctWithinBudget() {
+        Stream<Integer> duplicatedStream = Stream.concat(oneToHundredIntegers(), oneToHundredIntegers());
+
+        Stream<Integer> distinctedStream = BoundedDistinct.exact(duplicatedStream, SpillCodec.INT, 1000);
+
+        assertThat(
+                distinctedStream.collect(toList()),
+                is(equalTo(oneToHundredIntegers().collect(toList()))));
+    }
+
+    @Test
+    public void exactDistinctSpillingToDisk() {
+        Stream<Integer> duplicatedStream = Stream.concat(oneToHundredIntegers(), oneToHundredIntegers());
+
+        Stream<Integer> distinctedStream = BoundedDistinct.exact(duplicatedStream, SpillCodec.INT, 10);
+
+        assertThat(
+                distinctedStream.collect(toList()),
+                is(equalTo(oneToHundredIntegers().collect(toList()))));
+    }
+
+    @Test
+    public void exactDistinctRepartitionsOversizedPartitions() {
+        Random random = new Random(42);
+        List<Integer> values = IntStream.range(0, 200000).map(i -> random.nextInt(50000)).boxed().collect(toList());
+
+        try (Stream<Integer> distinctedStream = BoundedDistinct.exact(values.stream(), SpillCodec.INT, 100)) {
+            assertThat(distinctedStream.collect(toList()), is(equalTo(values.stream().distinct().collect(toList()))));
+        }
+    }
+
+    @Test
+    public void exactDistinctMergesMoreRunsThanItKeepsOpen() {
+        //30000 distinct values in a budget of 50 leave thousands of sub-partition runs, far above the merge fan-in
+        Random random = new Random(7);
+        List<Integer> values = IntStream.range(0, 60000).map(i -> random.nextInt(30000)).boxed().collect(toList());
+
+        try (Stream<Integer> distinctedStream = BoundedDistinct.exact(values.stream(), SpillCodec.INT, 50)) {
+            assertThat(distinctedStream.collect(toList()), is(equalTo(values.stream().distinct().collect(toList()))));
+        }
+    }
+
+    @Test
+    public void exactDistinctOfStrings() {
+        Stream<String> words = Stream.of("one", "two", "one", "three", "two", "four", "one", "five");
+
+        assertThat(BoundedDistinct.exact(words, SpillCodec.STRING, 2).collect(toList()),
+                contains("one", "two", "three", "four", "five"));
+    }
+
+    @Test
+    public void exactDistinctIsLazyBeforeSpilling() {
+        Stream<Integer> infiniteStream = Stream.iterate(1, x -> x % 7 + 1);
+
+        assertThat(BoundedDistinct.exact(infiniteStream, SpillCodec.INT, 100).limit(7).collect(toList()),
+                contains(1, 2, 3, 4, 5, 6, 7));
+    }
+
+    @Test
+    public void approximateDistinct() {
+        Stream<Integer> duplicatedStream = Stream.concat(oneToHundredIntegers(), oneToHundredIntegers());
+
+        Stream<Integer> distinctedStream = BoundedDistinct.approximate(duplicatedStream, 100, 1e-6);
+
+        assertThat(
+                distinctedStream.collect(toList()),
+                is(equalTo(oneToHundredIntegers().collect(toList()))));
+    }
+
+    @Test
+    public void approximateDistinctNeverEmitsDuplicates() {
+        List<Long> distinct = BoundedDistinct.approximate(
+                        IntStream.range(0, 100000).mapToObj(i -> (long) (i % 50000)), 50000, 0.01)
+                .collect(toList());
+
+        assertThat(distinct.stream().distinct().count(), is(equalTo((long) distinct.size())));
+        //about one percent of the distinct values is lost to false positives
+        assertThat(distinct.size(), is(both(greaterThan(48500)).and(lessThanOrEqualTo(50000))));
+    }
+
+    @Test
+    public void approximateDistinctStaysSequentialWhenMadeParallelDownstream() {
+        List<Integer> values = IntStream.range(0, 400000).map(i -> i % 100000).boxed().collect(toList());
+
+        List<Integer> distinct = BoundedDistinct.approximate(values.stream(), 100000, 0.01)
+                .parallel()
+                .collect(toList());
+
+        assertThat(distinct.stream().distinct().count(), is(equalTo((long) distinct.size())));
+        assertThat(distinct, is(equalTo(distinct.stream().sorted().collect(toList()))));
+        assertThat(distinct.size(), is(both(greaterThan(97000)).and(lessThanOrEqualTo(100000))));
+    }
+
+    @Test
+    public void bloomFilterHasNoFalseNegatives() {
+        BloomFilter<String> filter = new BloomFilter<>(1000, 0.01);
+
+        IntStream.range(0, 1000).forEach(i -> filter.put("element" + i));
+
+        assertThat(IntStream.range(0, 1000).allMatch(i -> filter.mightContain("element" + i)), is(true));
+        assertThat(IntStream.range(1000, 11000).filter(i -> filter.mightContain("element" + i)).count(), is(lessThan(300L)));
+    }
+
+
+    private Stream<Integer> oneToHundredIntegers() {
+        return IntStream
+                .rangeClosed(1, 100)
+                .mapToObj(Integer::valueOf);
+    }
+}
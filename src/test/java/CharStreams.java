@@ -0,0 +1,131 @@
+import adrspo.stream.CharSpliterator;
+import adrspo.stream.CharStream;
+import adrspo.stream.IntLongHashMap;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CharStreams {
+
+    @Test
+    public void flatMapToChar() {
+        CharStream chars = CharStream.flatMapToChar(Stream.of("flat", "Map"), s -> s);
+
+        assertThat(chars.boxed().collect(toList()), contains('f', 'l', 'a', 't', 'M', 'a', 'p'));
+    }
+
+    @Test
+    public void flatMapLatin1ToChar() {
+        CharStream chars = CharStream.flatMapLatin1ToChar(Stream.of("flat", "", "Map"), s -> s.getBytes(StandardCharsets.ISO_8859_1));
+
+        assertThat(chars.toCharArray(), is(equalTo("flatMap".toCharArray())));
+    }
+
+    @Test
+    public void nullMappingsAreEmpty() {
+        assertThat(CharStream.flatMapToChar(Stream.of("flat", "", "Map"), s -> s.isEmpty() ? null : s).toCharArray(),
+                is(equalTo("flatMap".toCharArray())));
+        assertThat(CharStream.flatMapLatin1ToChar(Stream.of("a", "b"), s -> null).count(), is(equalTo(0L)));
+
+        CharSpliterator stepped = CharStream.flatMapToChar(Stream.of("a", "b", "c"), s -> s.equals("b") ? null : s).spliterator();
+        StringBuilder chars = new StringBuilder();
+        CharStream.CharConsumer append = chars::append;
+        while (stepped.tryAdvance(append)) {
+        }
+        assertThat(chars.toString(), is(equalTo("ac")));
+    }
+
+    @Test
+    public void latin1BytesAboveAscii() {
+        byte[] bytes = "café".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThat(CharStream.ofLatin1(bytes).collect(new StringBuilder()).toString(), is(equalTo("café")));
+    }
+
+    @Test
+    public void mapToObj() {
+        List<Character> mappedToObject = CharStream.of("123").boxed().collect(toList());
+
+        assertThat(mappedToObject, contains('1', '2', '3'));
+    }
+
+    @Test
+    public void count() {
+        assertThat(CharStream.of("flatMap").count(), is(equalTo(7L)));
+        assertThat(CharStream.of("flatMap").filter(Character::isLowerCase).count(), is(equalTo(6L)));
+        assertThat(CharStream.flatMapToChar(Stream.of("flat", "Map"), s -> s).count(), is(equalTo(7L)));
+    }
+
+    @Test
+    public void histogram() {
+        IntLongHashMap histogram = CharStream.flatMapToChar(Stream.of("banana", "éé"), s -> s).histogram();
+
+        assertThat(histogram.size(), is(equalTo(4)));
+        assertThat(histogram.get('a'), is(equalTo(3L)));
+        assertThat(histogram.get('n'), is(equalTo(2L)));
+        assertThat(histogram.get('b'), is(equalTo(1L)));
+        assertThat(histogram.get('é'), is(equalTo(2L)));
+    }
+
+    @Test
+    public void filterAndMap() {
+        char[] upper = CharStream.of("flat Map").filter(Character::isLetter).map(Character::toUpperCase).toCharArray();
+
+        assertThat(new String(upper), is(equalTo("FLATMAP")));
+    }
+
+    @Test
+    public void asIntStreamSplitsInParallel() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            text.append("abc");
+        }
+
+        assertThat(CharStream.of(text).asIntStream().parallel().filter(c -> c == 'b').count(), is(equalTo(10000L)));
+        assertThat(CharStream.of(text).asIntStream().sum(), is(equalTo(text.chars().sum())));
+    }
+
+    @Test
+    public void tryAdvanceOneByOne() {
+        CharStream.CharConsumer ignore = c -> {
+        };
+        int advanced = 0;
+        for (CharSpliterator chars = CharStream.flatMapToChar(Stream.of("ab", "", "c"), s -> s).spliterator(); chars.tryAdvance(ignore); ) {
+            advanced++;
+        }
+
+        assertThat(advanced, is(equalTo(3)));
+    }
+
+    @Test
+    public void mappedAndIntViewsAdvanceOneByOne() {
+        StringBuilder mapped = new StringBuilder();
+        CharSpliterator chars = CharStream.of("abc").map(Character::toUpperCase).spliterator();
+        while (chars.tryAdvance((CharStream.CharConsumer) mapped::append)) {
+        }
+        List<Integer> codes = new ArrayList<>();
+        Spliterator.OfInt ints = CharStream.of("xy").asIntStream().spliterator();
+        while (ints.tryAdvance((IntConsumer) codes::add)) {
+        }
+
+        assertThat(mapped.toString(), is(equalTo("ABC")));
+        assertThat(codes, is(equalTo(Arrays.asList((int) 'x', (int) 'y'))));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void consumedOnlyOnce() {
+        CharStream chars = CharStream.of("abc");
+        chars.count();
+        chars.count();
+    }
+}
@@ -1,3 +1,4 @@
+import adrspo.stream.Person;
 import org.junit.Test;
 
 import java.util.*;
@@ -0,0 +1,115 @@
+import adrspo.stream.CompensatedStatistics;
+import adrspo.stream.CompensatedSums;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompensatedAggregation {
+
+    @Test
+    public void sumIsExactWhereTheNaiveSumRoundsAway() {
+        double[] values = {1.5, 2.3, 3.2};
+
+        assertThat(CompensatedSums.sum(values), is(equalTo(7.0)));
+        assertThat(CompensatedSums.average(new double[]{2.5, 2.8, 3.7}), is(equalTo(3.0)));
+    }
+
+    @Test
+    public void keepsSmallAddendsThatKahanLoses() {
+        double[] values = {1e100, 1.0, -1e100};
+
+        assertThat(DoubleStream.of(values).sum(), is(equalTo(0.0)));
+        assertThat(CompensatedSums.sum(values), is(equalTo(1.0)));
+        assertThat(CompensatedSums.summaryStatistics(DoubleStream.of(values)).getSum(), is(equalTo(1.0)));
+    }
+
+    @Test
+    public void matchesDoubleSummaryStatistics() {
+        double[] values = IntStream.range(0, 1003).mapToDouble(i -> (i * 37 % 101) - 50.5).toArray();
+
+        DoubleSummaryStatistics expected = DoubleStream.of(values).summaryStatistics();
+        CompensatedStatistics actual = CompensatedSums.summaryStatistics(values);
+
+        assertThat(actual.getCount(), is(equalTo(expected.getCount())));
+        assertThat(actual.getSum(), is(equalTo(expected.getSum())));
+        assertThat(actual.getMin(), is(equalTo(expected.getMin())));
+        assertThat(actual.getMax(), is(equalTo(expected.getMax())));
+        assertThat(actual.getAverage(), is(equalTo(expected.getAverage())));
+        assertThat(actual.toString(), startsWith("CompensatedStatistics{count=1003"));
+    }
+
+    @Test
+    public void emptyStatisticsMatchTheJdk() {
+        CompensatedStatistics empty = CompensatedSums.summaryStatistics(new double[0]);
+        DoubleSummaryStatistics expected = new DoubleSummaryStatistics();
+
+        assertThat(empty.getCount(), is(equalTo(0L)));
+        assertThat(empty.getSum(), is(equalTo(expected.getSum())));
+        assertThat(empty.getMin(), is(equalTo(expected.getMin())));
+        assertThat(empty.getMax(), is(equalTo(expected.getMax())));
+        assertThat(empty.getAverage(), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void parallelSplitsKeepTheirCompensation() {
+        double[] tenths = new double[1_000_003];
+        Arrays.fill(tenths, 0.1);
+
+        double sequential = CompensatedSums.sum(tenths);
+        double parallel = CompensatedSums.parallelSummaryStatistics(tenths).getSum();
+        double streamed = CompensatedSums.summaryStatistics(DoubleStream.of(tenths).parallel()).getSum();
+
+        assertThat(sequential, is(equalTo(100000.3)));
+        assertThat(parallel, is(equalTo(sequential)));
+        assertThat(streamed, is(equalTo(sequential)));
+    }
+
+    @Test
+    public void overflowAndNaNFollowTheJdk() {
+        assertThat(CompensatedSums.sum(new double[]{Double.MAX_VALUE, Double.MAX_VALUE, 1, 2, 3}), is(equalTo(Double.POSITIVE_INFINITY)));
+        assertThat(CompensatedSums.sum(new double[]{Double.NEGATIVE_INFINITY, -1}), is(equalTo(Double.NEGATIVE_INFINITY)));
+        assertThat(Double.isNaN(CompensatedSums.sum(new double[]{1, Double.NaN, 2, 3, 4})), is(true));
+        assertThat(Double.isNaN(CompensatedSums.summaryStatistics(new double[]{1, Double.NaN, 2, 3, 4}).getMax()), is(true));
+    }
+
+    @Test
+    public void signedZerosAsInMath() {
+        double[] values = {0.0, 1.0, 2.0, -0.0, 3.0, 4.0, 5.0, 6.0};
+        double[] negated = Arrays.stream(values).map(v -> -v).toArray();
+
+        assertThat(1 / CompensatedSums.summaryStatistics(values).getMin(), is(equalTo(Double.NEGATIVE_INFINITY)));
+        assertThat(1 / CompensatedSums.summaryStatistics(negated).getMax(), is(equalTo(Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    public void combinesWithPlainStatistics() {
+        CompensatedStatistics statistics = CompensatedSums.summaryStatistics(new double[]{1e100, 1.0});
+        DoubleSummaryStatistics plain = DoubleStream.of(-1e100, -0.5).summaryStatistics();
+
+        statistics.combine(plain);
+
+        assertThat(statistics.getCount(), is(equalTo(4L)));
+        assertThat(statistics.getSum(), is(equalTo(1.0)));
+        assertThat(statistics.getMin(), is(equalTo(-1e100)));
+    }
+
+    @Test
+    public void collectors() {
+        List<String> prices = Arrays.asList("0.1", "0.2", "0.3", "0.4");
+
+        double total = prices.stream().collect(CompensatedSums.summingDouble(Double::parseDouble));
+        double average = prices.parallelStream().collect(CompensatedSums.averagingDouble(Double::parseDouble));
+        CompensatedStatistics statistics = prices.stream().collect(CompensatedSums.summarizingDouble(Double::parseDouble));
+
+        assertThat(total, is(equalTo(1.0)));
+        assertThat(average, is(equalTo(0.25)));
+        assertThat(statistics.getMax(), is(equalTo(0.4)));
+    }
+}
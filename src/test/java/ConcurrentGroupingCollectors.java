@@ -0,0 +1,66 @@
+import adrspo.stream.ConcurrentCollectors;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConcurrentGroupingCollectors {
+
+    @Test
+    public void groupingCountingCollector() {
+        ConcurrentMap<Integer, Long> wordsQuantityByLength = Stream.of("one", "two", "three", "four", "five")
+                .parallel()
+                .collect(ConcurrentCollectors.groupingCounting(String::length));
+
+        assertThat(wordsQuantityByLength.keySet(), containsInAnyOrder(3, 4, 5));
+        assertThat(wordsQuantityByLength.get(3), is(equalTo(2L)));
+        assertThat(wordsQuantityByLength.get(4), is(equalTo(2L)));
+        assertThat(wordsQuantityByLength.get(5), is(equalTo(1L)));
+    }
+
+    @Test
+    public void groupingCountingCollectorSequential() {
+        Map<Integer, Long> wordsQuantityByLength = Stream.of("one", "two", "three", "four", "five")
+                .collect(ConcurrentCollectors.groupingCounting(String::length));
+
+        assertThat(wordsQuantityByLength.get(3), is(equalTo(2L)));
+    }
+
+    @Test
+    public void groupingCountingCollectorOnHotKey() {
+        //nine out of ten elements land on key 0
+        Map<Integer, Long> quantityByKey = IntStream.range(0, 1000000)
+                .boxed()
+                .parallel()
+                .collect(ConcurrentCollectors.groupingCounting(x -> x % 10 == 0 ? x % 7 + 1 : 0));
+
+        assertThat(quantityByKey.get(0), is(equalTo(900000L)));
+        assertThat(quantityByKey.values().stream().mapToLong(Long::longValue).sum(), is(equalTo(1000000L)));
+    }
+
+    @Test
+    public void groupingSummingCollector() {
+        Map<Boolean, Long> sumByEven = IntStream.rangeClosed(1, 100000)
+                .boxed()
+                .parallel()
+                .collect(ConcurrentCollectors.groupingSumming(x -> x % 2 == 0, Integer::longValue));
+
+        assertThat(sumByEven.get(Boolean.TRUE), is(equalTo(2500050000L)));
+        assertThat(sumByEven.get(Boolean.FALSE), is(equalTo(2500000000L)));
+    }
+
+    @Test
+    public void groupingSummingDoubleCollector() {
+        Map<Integer, Double> doubledSumByLength = Stream.of("7.5", "8.25", "9.0")
+                .parallel()
+                .collect(ConcurrentCollectors.groupingSummingDouble(String::length, x -> Double.parseDouble(x) * 2.0));
+
+        assertThat(doubledSumByLength.get(3), is(closeTo(33.0, 1e-9)));
+        assertThat(doubledSumByLength.get(4), is(closeTo(16.5, 1e-9)));
+    }
+}
@@ -0,0 +1,147 @@
+import adrspo.stream.ConcurrentMapping;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConcurrentMappingStage {
+
+    /**
+     * Stand-in for a blocking call: sleeps, and records how many calls overlap.
+     */
+    private static final class SlowService implements Function<Integer, Integer> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final Random latencies = new Random(42);
+
+        @Override
+        public Integer apply(Integer value) {
+            calls.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5 + latency());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return value * 2;
+        }
+
+        private synchronized int latency() {
+            return latencies.nextInt(20);
+        }
+    }
+
+    @Test
+    public void preservesOrder() {
+        SlowService service = new SlowService();
+
+        List<Integer> doubled = ConcurrentMapping.mapConcurrent(IntStream.range(0, 100).boxed(), service, 16, true)
+                .collect(toList());
+
+        assertThat(doubled, is(equalTo(IntStream.range(0, 100).map(i -> i * 2).boxed().collect(toList()))));
+    }
+
+    @Test
+    public void unorderedEmitsEveryResult() {
+        SlowService service = new SlowService();
+
+        List<Integer> doubled = ConcurrentMapping.mapConcurrent(IntStream.range(0, 100).boxed(), service, 16, false)
+                .sorted()
+                .collect(toList());
+
+        assertThat(doubled, is(equalTo(IntStream.range(0, 100).map(i -> i * 2).boxed().collect(toList()))));
+    }
+
+    @Test
+    public void boundsConcurrency() {
+        SlowService service = new SlowService();
+
+        ConcurrentMapping.mapConcurrent(IntStream.range(0, 200).boxed(), service, 8, false).forEach(value -> {
+        });
+
+        assertThat(service.maxRunning.get(), is(lessThanOrEqualTo(8)));
+        assertThat(service.maxRunning.get(), is(greaterThan(1)));
+    }
+
+    @Test
+    public void overlapsBlockingCalls() {
+        SlowService service = new SlowService();
+        long start = System.nanoTime();
+
+        List<Integer> doubled = ConcurrentMapping.mapConcurrent(IntStream.range(0, 200).boxed(), service, 50, true).collect(toList());
+
+        //200 calls of 5-25 ms take over 2 s one at a time
+        assertThat(doubled, hasSize(200));
+        assertThat(service.calls.get(), is(equalTo(200)));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), is(lessThan(1000L)));
+    }
+
+    @Test
+    public void staysLazyUnderLimit() {
+        SlowService service = new SlowService();
+
+        List<Integer> firstFive = ConcurrentMapping.mapConcurrent(Stream.iterate(0, i -> i + 1), service, 4, true)
+                .limit(5)
+                .collect(toList());
+
+        assertThat(firstFive, contains(0, 2, 4, 6, 8));
+        assertThat(service.calls.get(), is(lessThanOrEqualTo(5 + 4)));
+    }
+
+    @Test
+    public void staysLazyUnderTakeWhile() {
+        SlowService service = new SlowService();
+
+        List<Integer> small = ConcurrentMapping.mapConcurrent(Stream.iterate(0, i -> i + 1), service, 4, true)
+                .takeWhile(value -> value < 10)
+                .collect(toList());
+
+        assertThat(small, contains(0, 2, 4, 6, 8));
+        assertThat(service.calls.get(), is(lessThanOrEqualTo(6 + 4)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rethrowsMapperFailure() {
+        ConcurrentMapping.mapConcurrent(Stream.of(1, 2, 3), value -> {
+            if (value == 2) {
+                throw new IllegalStateException("unavailable");
+            }
+            return value;
+        }, 2, true).forEach(value -> {
+        });
+    }
+
+    @Test
+    public void runsOnSuppliedExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2, task -> new Thread(task, "io-worker"));
+        try {
+            List<String> threads = ConcurrentMapping.mapConcurrent(Stream.of(1, 2, 3), value -> Thread.currentThread().getName(), 2, true, executor)
+                    .collect(toList());
+
+            assertThat(threads, everyItem(is(equalTo("io-worker"))));
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveMaxInFlight() {
+        ConcurrentMapping.mapConcurrent(Stream.of(1), Function.identity(), 0, true);
+    }
+}
@@ -0,0 +1,146 @@
+import adrspo.stream.ExternalSort;
+import adrspo.stream.RadixSort;
+import adrspo.stream.SpillCodec;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ExternalSorting {
+
+    @Test
+    public void sorted() {
+        Stream<Integer> integerStream = ExternalSort.sorted(Stream.of(2, 1, -3), SpillCodec.INT, 1000);
+
+        assertThat(integerStream.collect(toList()), contains(-3, 1, 2));
+    }
+
+    @Test
+    public void sortedWithComparator() {
+        Stream<Integer> integerStream = ExternalSort.sorted(Stream.of(0, 1, -3), Comparator.reverseOrder(), SpillCodec.INT, 1000);
+
+        assertThat(integerStream.collect(toList()), contains(1, 0, -3));
+    }
+
+    @Test
+    public void sortedSpillingRuns() {
+        Random random = new Random(42);
+        List<Integer> values = IntStream.range(0, 100000).map(i -> random.nextInt()).boxed().collect(toList());
+
+        try (Stream<Integer> integerStream = ExternalSort.sorted(values.stream(), SpillCodec.INT, 1000)) {
+            assertThat(integerStream.collect(toList()), is(equalTo(values.stream().sorted().collect(toList()))));
+        }
+    }
+
+    @Test
+    public void sortedWithMultipleMergePasses() {
+        Random random = new Random(7);
+        List<Long> values = LongStream.range(0, 30000).map(i -> random.nextLong()).boxed().collect(toList());
+
+        //300 runs exceed the merge fan-in, so runs are first merged in groups
+        List<Long> sorted = ExternalSort.sorted(values.stream(), SpillCodec.LONG, 100).collect(toList());
+
+        assertThat(sorted, is(equalTo(values.stream().sorted().collect(toList()))));
+    }
+
+    @Test
+    public void sortedIsStable() {
+        List<String> words = Arrays.asList("bb", "a", "cc", "d", "ee", "f", "gg", "h");
+
+        List<String> byLength = ExternalSort.sorted(words.stream(), Comparator.comparingInt(String::length), SpillCodec.STRING, 3)
+                .collect(toList());
+
+        assertThat(byLength, contains("a", "d", "f", "h", "bb", "cc", "ee", "gg"));
+    }
+
+    @Test
+    public void sortedEmptyStream() {
+        assertThat(ExternalSort.sorted(Stream.<Integer>empty(), SpillCodec.INT, 10).count(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void radixSortedIntStream() {
+        Random random = new Random(42);
+        int[] values = IntStream.range(0, 100000).map(i -> random.nextInt()).toArray();
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        assertThat(ExternalSort.sorted(IntStream.of(values)).toArray(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void radixSortedStreamsConsumeTheSourceWhenRun() {
+        List<Long> offered = new ArrayList<>();
+        IntStream ints = ExternalSort.sorted(IntStream.of(3, 1, 2).peek(i -> offered.add((long) i)));
+        LongStream longs = ExternalSort.sorted(LongStream.of(6, 4, 5).peek(offered::add));
+
+        assertThat(offered, is(empty()));
+        assertThat(ints.toArray(), is(equalTo(new int[]{1, 2, 3})));
+        assertThat(longs.toArray(), is(equalTo(new long[]{4, 5, 6})));
+        assertThat(offered, contains(3L, 1L, 2L, 6L, 4L, 5L));
+    }
+
+    @Test
+    public void sortedReportsAnEncounterOrderForUnorderedSources() {
+        Spliterator<Integer> merged = ExternalSort.sorted(new HashSet<>(Arrays.asList(3, 1, 2)).stream(), SpillCodec.INT, 10).spliterator();
+
+        assertThat(merged.hasCharacteristics(Spliterator.SORTED), is(true));
+        assertThat(merged.hasCharacteristics(Spliterator.ORDERED), is(true));
+    }
+
+    @Test
+    public void radixSortedLongs() {
+        Random random = new Random(42);
+        long[] values = LongStream.range(0, 100000).map(i -> i % 3 == 0 ? random.nextLong() : random.nextInt(1000) - 500).toArray();
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+
+        RadixSort.sort(values);
+
+        assertThat(values, is(equalTo(expected)));
+    }
+
+    @Test
+    public void radixSortWithExtremes() {
+        int[] values = IntStream.concat(IntStream.of(Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1), IntStream.range(0, 1000).map(i -> 1000 - i)).toArray();
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        RadixSort.sort(values);
+
+        assertThat(values, is(equalTo(expected)));
+    }
+
+    @Test
+    public void sortedLimit() {
+        Random random = new Random(42);
+        List<Integer> values = IntStream.range(0, 100000).map(i -> random.nextInt(1000)).boxed().collect(toList());
+
+        assertThat(ExternalSort.sortedLimit(values.stream(), Comparator.reverseOrder(), 50).collect(toList()),
+                is(equalTo(values.stream().sorted(Comparator.reverseOrder()).limit(50).collect(toList()))));
+    }
+
+    @Test
+    public void sortedLimitKeepsEncounterOrderOfTies() {
+        List<String> words = Arrays.asList("bb", "a", "cc", "d", "ee", "f");
+
+        assertThat(ExternalSort.sortedLimit(words.stream(), Comparator.comparingInt(String::length), 4).collect(toList()),
+                contains("a", "d", "f", "bb"));
+    }
+
+    @Test
+    public void sortedLimitConsumesTheSourceWhenRun() {
+        List<Integer> offered = new ArrayList<>();
+        Stream<Integer> top = ExternalSort.sortedLimit(Stream.of(3, 1, 2).peek(offered::add), Comparator.naturalOrder(), 2);
+
+        assertThat(offered, is(empty()));
+        assertThat(top.collect(toList()), contains(1, 2));
+        assertThat(offered, contains(3, 1, 2));
+    }
+}
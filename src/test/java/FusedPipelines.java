@@ -0,0 +1,137 @@
+import adrspo.stream.FusedPipeline;
+import adrspo.stream.FusedPipeline.IntPipeline;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FusedPipelines {
+
+    @Test
+    public void filter() {
+        List<Integer> filteredElements = FusedPipeline.range(1, 101)
+                .filter(x -> x % 20 == 0)
+                .mapToObj(Integer::valueOf)
+                .toList();
+
+        assertThat(filteredElements, contains(20, 40, 60, 80, 100));
+    }
+
+    @Test
+    public void map() {
+        List<Integer> mappedToInteger = FusedPipeline.of("1", "2", "3").map(Integer::parseInt).toList();
+
+        assertThat(mappedToInteger, contains(1, 2, 3));
+    }
+
+    @Test
+    public void mapToDouble() {
+        OptionalDouble average = FusedPipeline.of("1", "2", "3").mapToDouble(Double::parseDouble).average();
+
+        assertThat(average.getAsDouble(), is(equalTo(2.0)));
+    }
+
+    @Test
+    public void flatMap() {
+        List<Character> flatMapped = FusedPipeline.of("flat", "Map")
+                .flatMapToInt(s -> s.chars().toArray())
+                .mapToObj(c -> (char) c)
+                .toList();
+
+        assertThat(flatMapped, contains('f', 'l', 'a', 't', 'M', 'a', 'p'));
+    }
+
+    @Test
+    public void flatMapIterables() {
+        List<String> flatMapped = FusedPipeline.of(Arrays.asList("a", "b"), Collections.<String>emptyList(), Collections.singletonList("c"))
+                .<String>flatMap(list -> list)
+                .toList();
+
+        assertThat(flatMapped, contains("a", "b", "c"));
+    }
+
+    @Test
+    public void averageOfEmptyPipeline() {
+        assertThat(FusedPipeline.ofDoubles(new double[0]).average().isPresent(), is(false));
+    }
+
+    @Test
+    public void matchesIntStream() {
+        Random random = new Random(42);
+        int[] values = IntStream.range(0, 10000).map(i -> random.nextInt(1000) - 500).toArray();
+
+        IntSummaryStatistics fused = FusedPipeline.ofInts(values).filter(x -> x % 3 != 0).map(x -> x * 7).summaryStatistics();
+        IntSummaryStatistics expected = IntStream.of(values).filter(x -> x % 3 != 0).map(x -> x * 7).summaryStatistics();
+
+        assertThat(fused.toString(), is(equalTo(expected.toString())));
+    }
+
+    @Test
+    public void primitiveTerminals() {
+        IntPipeline evens = FusedPipeline.range(0, 10).filter(x -> x % 2 == 0);
+
+        assertThat(evens.count(), is(equalTo(5L)));
+        assertThat(evens.sum(), is(equalTo(20)));
+        assertThat(evens.toArray(), is(equalTo(new int[]{0, 2, 4, 6, 8})));
+        assertThat(evens.mapToLong(x -> x * 1_000_000_000L).sum(), is(equalTo(20_000_000_000L)));
+        assertThat(FusedPipeline.ofLongs(new long[]{1, 2, 3}).mapToDouble(x -> x / 2.0).sum(), is(equalTo(3.0)));
+    }
+
+    @Test
+    public void primitiveReduceMatchesStreams() {
+        IntPipeline odds = FusedPipeline.range(1, 1000).filter(x -> x % 2 == 1);
+
+        assertThat(odds.reduce(0, Integer::sum), is(equalTo(IntStream.range(1, 1000).filter(x -> x % 2 == 1).reduce(0, Integer::sum))));
+        assertThat(odds.reduce(Math::max), is(equalTo(IntStream.range(1, 1000).filter(x -> x % 2 == 1).reduce(Math::max))));
+        assertThat(odds.filter(x -> x > 1000).reduce(Math::max), is(equalTo(OptionalInt.empty())));
+        assertThat(odds.mapToLong(x -> (long) x * x).reduce(1L, (a, b) -> a ^ b),
+                is(equalTo(IntStream.range(1, 1000).filter(x -> x % 2 == 1).mapToLong(x -> (long) x * x).reduce(1L, (a, b) -> a ^ b))));
+        assertThat(FusedPipeline.ofLongs(new long[]{4, 9, 2}).reduce(Math::min), is(equalTo(OptionalLong.of(2))));
+        assertThat(FusedPipeline.ofDoubles(new double[]{0.5, 0.25}).reduce(1.0, (a, b) -> a * b), is(equalTo(0.125)));
+        assertThat(FusedPipeline.ofDoubles(new double[0]).reduce(Double::sum), is(equalTo(OptionalDouble.empty())));
+    }
+
+    @Test
+    public void objectReduceMatchesStreams() {
+        List<String> words = Arrays.asList("fused", "map", "handles", "reduce");
+
+        assertThat(FusedPipeline.of(words).map(String::toUpperCase).reduce("", String::concat),
+                is(equalTo(words.stream().map(String::toUpperCase).reduce("", String::concat))));
+        assertThat(FusedPipeline.of(words).filter(word -> word.length() > 3).reduce((a, b) -> a.length() >= b.length() ? a : b),
+                is(equalTo(words.stream().filter(word -> word.length() > 3).reduce((a, b) -> a.length() >= b.length() ? a : b))));
+        assertThat(FusedPipeline.of(words).filter(String::isEmpty).reduce(String::concat), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void compiledPipelineIsReusable() {
+        IntPipeline squares = FusedPipeline.range(1, 4).map(x -> x * x);
+
+        assertThat(squares.sum(), is(equalTo(14)));
+        assertThat(squares.sum(), is(equalTo(14)));
+    }
+
+    @Test
+    public void collect() {
+        String joined = FusedPipeline.of("a", "b", "c").collect(joining(","));
+
+        assertThat(joined, is(equalTo("a,b,c")));
+    }
+
+    @Test
+    public void forEach() {
+        List<Double> halves = new ArrayList<>();
+
+        FusedPipeline.ofDoubles(new double[]{1, 2, 3}).map(x -> x / 2).forEach(halves::add);
+
+        assertThat(halves, contains(0.5, 1.0, 1.5));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void propagatesOperatorFailure() {
+        FusedPipeline.of("1", "x").mapToInt(Integer::parseInt).sum();
+    }
+}
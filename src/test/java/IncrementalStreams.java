@@ -0,0 +1,159 @@
+import adrspo.stream.Aggregation;
+import adrspo.stream.IncrementalStream;
+import adrspo.stream.Window;
+import adrspo.stream.WindowStatistics;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class IncrementalStreams {
+
+    @Test
+    public void filterInBatchAndIncrementalMode() {
+        Predicate<Integer> divisibleByTwenty = x -> x % 20 == 0;
+        List<Integer> incrementallyFiltered = new ArrayList<>();
+
+        IncrementalStream.Source<Integer> source = IncrementalStream.create();
+        source.filter(divisibleByTwenty).forEach(incrementallyFiltered::add);
+        source.pushAll(oneToHundredIntegers());
+
+        assertThat(incrementallyFiltered, is(equalTo(oneToHundredIntegers().filter(divisibleByTwenty).collect(toList()))));
+        assertThat(incrementallyFiltered, contains(20, 40, 60, 80, 100));
+    }
+
+    @Test
+    public void mapAndFlatMap() {
+        List<Character> characters = new ArrayList<>();
+
+        IncrementalStream.Source<String> source = IncrementalStream.create();
+        source.flatMap(s -> s.chars().mapToObj(c -> (char) c)).forEach(characters::add);
+        source.push("flat");
+        source.push("Map");
+
+        assertThat(characters, contains('f', 'l', 'a', 't', 'M', 'a', 'p'));
+    }
+
+    @Test
+    public void distinct() {
+        IncrementalStream.Source<Integer> source = IncrementalStream.create();
+        Aggregation<Integer, Long> distinctCount = source.distinct().count(Window.unbounded());
+
+        source.pushAll(Stream.concat(oneToHundredIntegers(), oneToHundredIntegers()));
+
+        assertThat(distinctCount.current(), is(equalTo(100L)));
+    }
+
+    @Test
+    public void tumblingCount() {
+        List<Long> closedWindows = new ArrayList<>();
+        IncrementalStream.Source<Integer> source = IncrementalStream.create();
+        Aggregation<Integer, Long> evenCount = source
+                .filter(x -> x % 2 == 0)
+                .count(Window.tumbling(10))
+                .onWindowClosed(closedWindows::add);
+
+        source.pushAll(IntStream.rangeClosed(1, 45).boxed());
+
+        assertThat(closedWindows, contains(10L, 10L));
+        assertThat(evenCount.current(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void slidingSummaryStatistics() {
+        IncrementalStream.Source<Double> source = IncrementalStream.create();
+        Aggregation<Double, WindowStatistics> statistics = source.summaryStatistics(x -> x, Window.sliding(3));
+
+        source.pushAll(Stream.of(49.8, 50.1, 51.6));
+
+        assertThat(statistics.current().getCount(), is(equalTo(3L)));
+        assertThat(statistics.current().getMin(), is(equalTo(49.8)));
+        assertThat(statistics.current().getMax(), is(equalTo(51.6)));
+        assertThat(statistics.current().getAverage(), is(closeTo(50.5, 1e-9)));
+
+        source.push(10.0);
+
+        assertThat(statistics.current().getCount(), is(equalTo(3L)));
+        assertThat(statistics.current().getMin(), is(equalTo(10.0)));
+        assertThat(statistics.current().getSum(), is(closeTo(111.7, 1e-9)));
+    }
+
+    @Test
+    public void slidingSummaryStatisticsMatchesRescanning() {
+        int windowSize = 50;
+        Random random = new Random(42);
+        List<Double> pushed = new ArrayList<>();
+        IncrementalStream.Source<Double> source = IncrementalStream.create();
+        Aggregation<Double, WindowStatistics> statistics = source.summaryStatistics(x -> x, Window.sliding(windowSize));
+
+        for (int i = 0; i < 10000; i++) {
+            double value = random.nextGaussian() * 1000;
+            source.push(value);
+            pushed.add(value);
+
+            DoubleSummaryStatistics expected = pushed.subList(Math.max(0, pushed.size() - windowSize), pushed.size())
+                    .stream().mapToDouble(x -> x).summaryStatistics();
+            assertThat(statistics.current().getCount(), is(equalTo(expected.getCount())));
+            assertThat(statistics.current().getMin(), is(equalTo(expected.getMin())));
+            assertThat(statistics.current().getMax(), is(equalTo(expected.getMax())));
+            assertThat(statistics.current().getSum(), is(closeTo(expected.getSum(), 1e-6)));
+        }
+    }
+
+    @Test
+    public void slidingGroupingCounting() {
+        IncrementalStream.Source<String> source = IncrementalStream.create();
+        Aggregation<String, Map<Integer, Long>> wordsQuantityByLength = source.groupingCounting(String::length, Window.sliding(3));
+
+        source.pushAll(Stream.of("one", "two", "three", "four", "five"));
+
+        assertThat(wordsQuantityByLength.current().keySet(), containsInAnyOrder(4, 5));
+        assertThat(wordsQuantityByLength.current().get(4), is(equalTo(2L)));
+        assertThat(wordsQuantityByLength.current().get(5), is(equalTo(1L)));
+    }
+
+    @Test
+    public void unboundedGroupingCountingMatchesBatchCollector() {
+        IncrementalStream.Source<String> source = IncrementalStream.create();
+        Aggregation<String, Map<Integer, Long>> wordsQuantityByLength = source.groupingCounting(String::length, Window.unbounded());
+
+        source.pushAll(Stream.of("one", "two", "three", "four", "five"));
+
+        assertThat(wordsQuantityByLength.current(),
+                is(equalTo(Stream.of("one", "two", "three", "four", "five").collect(groupingBy(String::length, counting())))));
+    }
+
+    @Test
+    public void iterateWithoutLimit() {
+        IncrementalStream.Source<Integer> source = IncrementalStream.create();
+        Aggregation<Integer, WindowStatistics> lastFive = source.summaryStatistics(Integer::doubleValue, Window.sliding(5));
+
+        Iterator<Integer> powersOfTwo = Stream.iterate(2, x -> x * 2).iterator();
+        for (int i = 0; i < 5; i++) {
+            source.push(powersOfTwo.next());
+        }
+        assertThat(lastFive.current().getSum(), is(equalTo(62.0)));
+
+        source.push(powersOfTwo.next());
+        assertThat(lastFive.current().getSum(), is(equalTo(124.0)));
+        assertThat(lastFive.current().getMin(), is(equalTo(4.0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowMustNotBeEmpty() {
+        Window.sliding(0);
+    }
+
+
+    private Stream<Integer> oneToHundredIntegers() {
+        return IntStream
+                .rangeClosed(1, 100)
+                .mapToObj(Integer::valueOf);
+    }
+}
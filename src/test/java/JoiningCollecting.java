@@ -0,0 +1,85 @@
+import adrspo.stream.JoiningCollectors;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static adrspo.stream.JoiningCollectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JoiningCollecting {
+
+    @Test
+    public void joiningCollector() {
+        String joinedStream = Stream.of("joining ", "operation ", "test").collect(joining());
+
+        assertThat(joinedStream, is(equalTo("joining operation test")));
+    }
+
+    @Test
+    public void joiningWithDelimiterCollector() {
+        String joinedStream = Stream.of("one", " two", " three").collect(joining(",", "[", "]"));
+
+        assertThat(joinedStream, is(equalTo("[one, two, three]")));
+    }
+
+    @Test
+    public void joiningWithDelimiterPrefixAndSuffixCollector() {
+        String joinedStream = Stream.of("one", " two", " three").collect(joining(","));
+
+        assertThat(joinedStream, is(equalTo("one, two, three")));
+    }
+
+    @Test
+    public void joiningEmptyStream() {
+        assertThat(Stream.<String>empty().collect(joining(",", "[", "]")), is(equalTo("[]")));
+    }
+
+    @Test
+    public void parallelJoiningMatchesJdk() {
+        List<String> words = IntStream.range(0, 100000).mapToObj(i -> i % 3 == 0 ? "zażółć" + i : "w" + i).collect(toList());
+
+        assertThat(words.parallelStream().collect(joining(", ", "{", "}")),
+                is(equalTo(words.stream().collect(java.util.stream.Collectors.joining(", ", "{", "}")))));
+    }
+
+    @Test
+    public void mutableElementsAreCopiedWhenAccumulated() {
+        StringBuilder builder = new StringBuilder("before");
+
+        String joined = Stream.<CharSequence>of(builder, "!").collect(joining());
+        builder.append(" after");
+
+        assertThat(joined, is(equalTo("before!")));
+    }
+
+    @Test
+    public void joiningToChannel() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        List<String> words = IntStream.range(0, 50000).mapToObj(i -> "żółw" + i).collect(toList());
+
+        long written = words.parallelStream()
+                .collect(JoiningCollectors.joiningTo(Channels.newChannel(output), StandardCharsets.UTF_8, ",", "[", "]"));
+
+        byte[] expected = ("[" + String.join(",", words) + "]").getBytes(StandardCharsets.UTF_8);
+        assertThat(written, is(equalTo((long) expected.length)));
+        assertThat(output.toByteArray(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void surrogatePairAcrossElements() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        String emoji = "😀";
+
+        Stream.of(emoji.substring(0, 1), emoji.substring(1))
+                .collect(JoiningCollectors.joiningTo(Channels.newChannel(output), StandardCharsets.UTF_8, "", "", ""));
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8), is(equalTo(emoji)));
+    }
+}
@@ -0,0 +1,128 @@
+import adrspo.stream.MappedFileStreams;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MappedFileSources {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    //tiny windows, so that records keep crossing window boundaries
+    private final MappedFileStreams mappedFileStreams = new MappedFileStreams(64, 16);
+
+    private Path oneToHundredThousandLines;
+
+    @Before
+    public void setUp() throws IOException {
+        oneToHundredThousandLines = folder.newFile().toPath();
+        Files.write(oneToHundredThousandLines,
+                IntStream.rangeClosed(1, 100000).mapToObj(Integer::toString).collect(joining("\n", "", "\n")).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void count() throws IOException {
+        assertThat(mappedFileStreams.lines(oneToHundredThousandLines).count(), is(equalTo(100000L)));
+        assertThat(mappedFileStreams.lines(oneToHundredThousandLines).parallel().count(), is(equalTo(100000L)));
+    }
+
+    @Test
+    public void filter() throws IOException {
+        List<String> filteredLines = mappedFileStreams.lines(oneToHundredThousandLines)
+                .parallel()
+                .filter(line -> line.length() == 6)
+                .map(CharSequence::toString)
+                .collect(toList());
+
+        assertThat(filteredLines, hasSize(1));
+        assertThat(filteredLines, contains("100000"));
+    }
+
+    @Test
+    public void map() throws IOException {
+        long sum = mappedFileStreams.lines(oneToHundredThousandLines)
+                .parallel()
+                .mapToLong(line -> Integer.parseInt(line, 0, line.length(), 10))
+                .sum();
+
+        assertThat(sum, is(equalTo(5000050000L)));
+    }
+
+    @Test
+    public void parallelLinesKeepEncounterOrder() throws IOException {
+        List<String> lines = mappedFileStreams.lines(oneToHundredThousandLines)
+                .parallel()
+                .map(CharSequence::toString)
+                .collect(toList());
+
+        assertThat(lines, is(equalTo(IntStream.rangeClosed(1, 100000).mapToObj(Integer::toString).collect(toList()))));
+    }
+
+    @Test
+    public void linesWithoutTrailingNewLineAndWithCarriageReturns() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "one\r\n\r\ntwo\nthree".getBytes(StandardCharsets.US_ASCII));
+
+        List<String> lines = mappedFileStreams.lines(file).map(CharSequence::toString).collect(toList());
+
+        assertThat(lines, contains("one", "", "two", "three"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void lineLongerThanMaxRecordLength() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "short\nfar too long for sixteen bytes\n".getBytes(StandardCharsets.US_ASCII));
+
+        mappedFileStreams.lines(file).count();
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        assertThat(mappedFileStreams.lines(folder.newFile().toPath()).count(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void fixedWidthRecords() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file,
+                IntStream.range(0, 1000).mapToObj(i -> String.format("%05d", i)).collect(joining()).getBytes(StandardCharsets.US_ASCII));
+
+        List<String> records = mappedFileStreams.records(file, 5)
+                .parallel()
+                .filter(record -> record.charAt(4) == '7')
+                .map(CharSequence::toString)
+                .collect(toList());
+
+        assertThat(records, hasSize(100));
+        assertThat(records.get(0), is(equalTo("00007")));
+        assertThat(records.get(99), is(equalTo("00997")));
+    }
+
+    @Test
+    public void ints() throws IOException {
+        Path file = folder.newFile().toPath();
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+            for (int i = -50000; i < 50000; i++) {
+                output.writeInt(i);
+            }
+        }
+
+        assertThat(mappedFileStreams.ints(file).parallel().filter(x -> x % 2 == 0).count(), is(equalTo(50000L)));
+        assertThat(mappedFileStreams.ints(file).parallel().min().getAsInt(), is(equalTo(-50000)));
+        assertThat(mappedFileStreams.ints(file).parallel().asLongStream().sum(), is(equalTo(-50000L)));
+    }
+}
@@ -0,0 +1,132 @@
+import adrspo.stream.PipelineCache;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MemoizedPipelines {
+
+    private final List<String> words = Arrays.asList("one", "two", "three", "four", "five");
+
+    @Test
+    public void repeatedAggregationHitsTheCache() {
+        PipelineCache cache = new PipelineCache(16, false);
+        AtomicInteger evaluations = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Map<Integer, Long> byLength = cache.get(words, 0, "groupingBy:length", () -> {
+                evaluations.incrementAndGet();
+                return words.stream().collect(groupingBy(String::length, counting()));
+            });
+            assertThat(byLength, is(equalTo(words.stream().collect(groupingBy(String::length, counting())))));
+        }
+
+        assertThat(evaluations.get(), is(equalTo(1)));
+        assertThat(cache.getHitCount(), is(equalTo(2L)));
+        assertThat(cache.getMissCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void newVersionOrFingerprintMisses() {
+        PipelineCache cache = new PipelineCache(16, false);
+
+        Map<Boolean, List<String>> partitioned = cache.get(words, 0, "partitioningBy:long", () -> words.stream().collect(partitioningBy(w -> w.length() > 3)));
+        cache.get(words, 1, "partitioningBy:long", () -> words.stream().collect(partitioningBy(w -> w.length() > 3)));
+        cache.get(words, 1, PipelineCache.fingerprint("partitioningBy", 4), () -> words.stream().collect(partitioningBy(w -> w.length() > 4)));
+
+        assertThat(partitioned.get(true), contains("three", "four", "five"));
+        assertThat(cache.getMissCount(), is(equalTo(3L)));
+        assertThat(cache.getHitCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void sourcesCompareByIdentity() {
+        PipelineCache cache = new PipelineCache(16, false);
+        List<String> copy = new ArrayList<>(words);
+
+        cache.get(words, 0, "count", () -> words.stream().count());
+        cache.get(copy, 0, "count", () -> copy.stream().count());
+
+        assertThat(cache.getMissCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void replaysAFreshStream() {
+        PipelineCache cache = new PipelineCache(16, false);
+        AtomicInteger evaluations = new AtomicInteger();
+
+        List<Integer> first = cache.stream("oneToHundred", 0, "filter:divisibleByTwenty", () -> {
+            evaluations.incrementAndGet();
+            return IntStream.rangeClosed(1, 100).boxed().filter(x -> x % 20 == 0);
+        }).collect(toList());
+        long second = cache.stream("oneToHundred", 0, "filter:divisibleByTwenty", Stream::empty).count();
+
+        assertThat(first, contains(20, 40, 60, 80, 100));
+        assertThat(second, is(equalTo(5L)));
+        assertThat(evaluations.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        PipelineCache cache = new PipelineCache(2, false);
+
+        cache.get("a", 0, "f", () -> 1);
+        cache.get("b", 0, "f", () -> 2);
+        cache.get("a", 0, "f", () -> 1);
+        cache.get("c", 0, "f", () -> 3);
+
+        assertThat(cache.size(), is(equalTo(2)));
+        assertThat(cache.getEvictionCount(), is(equalTo(1L)));
+        assertThat(cache.get("a", 0, "f", () -> -1), is(equalTo(1)));
+        assertThat(cache.get("b", 0, "f", () -> -2), is(equalTo(-2)));
+    }
+
+    @Test
+    public void cachesNullResults() {
+        PipelineCache cache = new PipelineCache(4, true);
+
+        assertThat(cache.get("source", 0, "min", () -> null), is(nullValue()));
+        assertThat(cache.get("source", 0, "min", () -> 42), is(nullValue()));
+        assertThat(cache.getHitRate(), is(equalTo(0.5)));
+    }
+
+    @Test
+    public void invalidatesEveryVersionOfASource() {
+        PipelineCache cache = new PipelineCache(16, true);
+
+        cache.get(words, 0, "f", () -> 1);
+        cache.get(words, 1, "g", () -> 2);
+        cache.get("other", 0, "f", () -> 3);
+        cache.invalidate(words);
+
+        assertThat(cache.size(), is(equalTo(1)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void freezesResultOnceForEveryHit() {
+        PipelineCache cache = new PipelineCache(16, false);
+        AtomicInteger freezes = new AtomicInteger();
+
+        List<Map<Integer, List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(cache.get(words, 0, "groupingBy:length",
+                    () -> words.stream().collect(groupingBy(String::length)),
+                    groups -> {
+                        freezes.incrementAndGet();
+                        Map<Integer, List<String>> frozen = new HashMap<>();
+                        groups.forEach((length, group) -> frozen.put(length, Collections.unmodifiableList(group)));
+                        return Collections.unmodifiableMap(frozen);
+                    }));
+        }
+
+        assertThat(freezes.get(), is(equalTo(1)));
+        assertThat(results.get(2), is(sameInstance(results.get(0))));
+        results.get(1).get(3).add("six");
+    }
+}
@@ -0,0 +1,121 @@
+import adrspo.stream.Person;
+import adrspo.stream.PersonStore;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class OffHeapPersonStore {
+
+    @Test
+    public void addAndGet() {
+        Person fooBar = new Person("Foo Bar");
+        PersonStore store = new PersonStore();
+
+        int index = store.add(fooBar);
+
+        assertThat(store.size(), is(equalTo(1)));
+        assertThat(store.get(index).getName(), is(equalTo("Foo Bar")));
+        assertThat(store.get(index).getIdentifier(), is(equalTo(fooBar.getIdentifier())));
+        assertThat(store.identifier(index), is(equalTo(UUID.fromString(fooBar.getIdentifier()))));
+    }
+
+    @Test
+    public void namesAreDictionaryEncoded() {
+        PersonStore store = Stream.of(person("Foo Foo"), person("Bar Bar"), person("Foo Foo"), person("Zażółć"))
+                .collect(PersonStore.toPersonStore());
+
+        assertThat(store.size(), is(equalTo(4)));
+        assertThat(store.distinctNames(), is(equalTo(3)));
+        assertThat(store.nameId(0), is(equalTo(store.nameId(2))));
+        assertThat(store.name(3), is(equalTo("Zażółć")));
+    }
+
+    @Test
+    public void nullName() {
+        PersonStore store = new PersonStore();
+
+        store.add(new Person());
+
+        assertThat(store.name(0), is(nullValue()));
+        assertThat(store.nameId(0), is(equalTo(-1)));
+    }
+
+    @Test
+    public void toMapCollectorOverStore() {
+        PersonStore store = Stream.of(person("Foo Foo"), person("Foo Bar"), person("Bar Bar"))
+                .collect(PersonStore.toPersonStore());
+
+        Map<String, String> uuidByPersonName = store.stream().collect(toMap(Person::getName, Person::getIdentifier));
+
+        assertThat(uuidByPersonName.entrySet(), hasSize(3));
+        assertThat(uuidByPersonName.keySet(), containsInAnyOrder("Foo Foo", "Foo Bar", "Bar Bar"));
+    }
+
+    @Test
+    public void flyweightsInParallel() {
+        PersonStore store = new PersonStore(16);
+        IntStream.range(0, 100000).forEach(i -> store.add(person("name" + i % 10)));
+
+        Map<String, Long> quantityByName = store.flyweights()
+                .parallel()
+                .map(PersonStore.Flyweight::getName)
+                .collect(groupingBy(name -> name, counting()));
+
+        assertThat(quantityByName.keySet(), hasSize(10));
+        assertThat(quantityByName.get("name7"), is(equalTo(10000L)));
+    }
+
+    @Test
+    public void flyweightMovesWithoutMaterializing() {
+        List<Person> people = Stream.of(person("Foo Foo"), person("Foo Bar")).collect(toList());
+        PersonStore store = people.stream().collect(PersonStore.toPersonStore());
+
+        PersonStore.Flyweight flyweight = store.flyweight();
+
+        assertThat(flyweight.moveTo(1).getName(), is(equalTo("Foo Bar")));
+        assertThat(flyweight.moveTo(0).getIdentifier(), is(equalTo(people.get(0).getIdentifier())));
+    }
+
+    @Test
+    public void collectorInParallelKeepsEncounterOrder() {
+        List<String> names = IntStream.range(0, 10000).mapToObj(i -> "name" + i).collect(toList());
+
+        PersonStore store = names.parallelStream().map(Person::new).collect(PersonStore.toPersonStore());
+
+        assertThat(store.stream().map(Person::getName).collect(toList()), is(equalTo(names)));
+    }
+
+    @Test
+    public void highCardinalityNamesShareIdsThroughTheOffHeapIndex() {
+        PersonStore store = new PersonStore();
+        IntStream.range(0, 50000).forEach(i -> store.add("name" + i % 20000, UUID.randomUUID()));
+
+        assertThat(store.distinctNames(), is(equalTo(20000)));
+        assertThat(store.nameId(45678), is(equalTo(store.nameId(5678))));
+        assertThat(store.name(45678), is(equalTo("name5678")));
+        assertThat(IntStream.range(0, 50000).allMatch(i -> store.name(i).equals("name" + i % 20000)), is(true));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfRange() {
+        new PersonStore().get(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addWithNonUuidIdentifier() {
+        new PersonStore().add(new Person("Foo Foo", "not-a-uuid"));
+    }
+
+
+    private Person person(String name) {
+        return new Person(name);
+    }
+}
@@ -0,0 +1,118 @@
+import adrspo.stream.ParallelMatching;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ParallelMatchOperators {
+
+    private final List<String> words = Arrays.asList("one", "two", "three", "four", "five");
+
+    @Test
+    public void anyMatch() {
+        assertThat(ParallelMatching.anyMatch(words.stream(), s -> s.startsWith("t")), is(true));
+        assertThat(ParallelMatching.anyMatch(words.stream(), s -> s.startsWith("x")), is(false));
+        assertThat(ParallelMatching.anyMatch(Stream.<String>empty(), s -> true), is(false));
+    }
+
+    @Test
+    public void allMatch() {
+        assertThat(ParallelMatching.allMatch(words.stream(), s -> s.length() >= 3), is(true));
+        assertThat(ParallelMatching.allMatch(words.stream(), s -> s.length() > 3), is(false));
+        assertThat(ParallelMatching.allMatch(Stream.<String>empty(), s -> false), is(true));
+    }
+
+    @Test
+    public void noneMatch() {
+        assertThat(ParallelMatching.noneMatch(words.stream(), s -> s.isEmpty()), is(true));
+        assertThat(ParallelMatching.noneMatch(words.stream(), s -> s.endsWith("e")), is(false));
+    }
+
+    @Test
+    public void findAny() {
+        Optional<String> found = ParallelMatching.findAny(words.stream(), s -> s.startsWith("f"));
+
+        assertThat(found.get(), isOneOf("four", "five"));
+        assertThat(ParallelMatching.findAny(words.stream(), s -> s.startsWith("x")).isPresent(), is(false));
+    }
+
+    @Test
+    public void findsAnywhereInALargeSource() {
+        for (int position : new int[]{0, 500_000, 999_999}) {
+            Optional<Integer> found = ParallelMatching.findAny(IntStream.range(0, 1_000_000).boxed(), x -> x == position);
+
+            assertThat(found.get(), is(equalTo(position)));
+        }
+    }
+
+    @Test
+    public void aHitStopsOtherWorkersEarly() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AtomicInteger tested = new AtomicInteger();
+        try {
+            boolean found = pool.submit(() -> ParallelMatching.anyMatch(IntStream.range(0, 10_000).boxed(), x -> {
+                tested.incrementAndGet();
+                sleep(1);
+                return x == 0;
+            })).get();
+
+            assertThat(found, is(true));
+            assertThat(tested.get(), is(lessThan(100)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void predicatesCanPollForCancellation() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        long start = System.nanoTime();
+        try {
+            boolean found = pool.submit(() -> ParallelMatching.anyMatch(IntStream.range(0, 64).boxed(), (x, cancelled) -> {
+                if (x == 0) {
+                    return true;
+                }
+                long deadline = System.nanoTime() + 2_000_000_000L;
+                while (System.nanoTime() < deadline) {
+                    if (cancelled.getAsBoolean()) {
+                        return false;
+                    }
+                    Thread.yield();
+                }
+                return false;
+            })).get();
+
+            assertThat(found, is(true));
+        } finally {
+            pool.shutdown();
+        }
+        // every element but the hit would otherwise spin for two seconds
+        assertThat(System.nanoTime() - start, is(lessThan(1_000_000_000L)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void predicateFailuresPropagate() {
+        ParallelMatching.anyMatch(IntStream.range(0, 1000).boxed().parallel(), x -> {
+            if (x == 500) {
+                throw new IllegalStateException("broken element");
+            }
+            return false;
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import adrspo.stream.ParallelParsing;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ParallelParsingTraining {
+
+    @Test
+    public void sumOfArray() {
+        String[] values = IntStream.rangeClosed(1, 1000000).mapToObj(Integer::toString).toArray(String[]::new);
+
+        assertThat(ParallelParsing.sum(values), is(equalTo(500000500000L)));
+    }
+
+    @Test
+    public void sumOfList() {
+        List<String> values = IntStream.rangeClosed(-1000000, 1000001).mapToObj(Integer::toString).collect(toList());
+
+        assertThat(ParallelParsing.sum(values), is(equalTo(1000001L)));
+    }
+
+    @Test
+    public void sumOfSequentialAccessList() {
+        List<String> values = new LinkedList<>(Arrays.asList("5", "2", "7", "3"));
+
+        assertThat(ParallelParsing.sum(values), is(equalTo(17L)));
+    }
+
+    @Test
+    public void sumOfEmptyInput() {
+        assertThat(ParallelParsing.sum(new String[0]), is(equalTo(0L)));
+    }
+
+    @Test
+    public void summingParsedCollector() {
+        long sum = IntStream
+                .rangeClosed(1, 1000000)
+                .mapToObj(Integer::toString)
+                .parallel()
+                .collect(ParallelParsing.summingParsed());
+
+        assertThat(sum, is(equalTo(500000500000L)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void sumWithOverflow() {
+        //throws instead of silently wrapping around
+        ParallelParsing.sum(new String[]{Long.toString(Long.MAX_VALUE), "1"});
+    }
+
+    @Test
+    public void sumOverflowingOnlyOnTheWay() {
+        //only the final sum has to fit, however the input is cut into chunks
+        String[] values = {Long.toString(Long.MAX_VALUE), "1", "-1"};
+
+        assertThat(ParallelParsing.sum(values), is(equalTo(Long.MAX_VALUE)));
+        assertThat(Stream.of(values).collect(ParallelParsing.summingParsed()), is(equalTo(Long.MAX_VALUE)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void sumWithNegativeOverflow() {
+        Stream.of(Long.toString(Long.MIN_VALUE), "-1").parallel().collect(ParallelParsing.summingParsed());
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void sumWithInvalidNumber() {
+        Stream.of("1", "two", "3").collect(ParallelParsing.summingParsed());
+    }
+}
@@ -0,0 +1,94 @@
+import adrspo.stream.ParallelPrefixes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ParallelPrefixStages {
+
+    private final List<Integer> numbers = Arrays.asList(2, 6, 12, 3, 4, 2, 8, 4, 6);
+
+    @Test
+    public void takeWhile() {
+        Stream<Integer> integerStream = ParallelPrefixes.takeWhile(numbers, i -> i % 2 == 0);
+
+        assertThat(integerStream.collect(toList()), contains(2, 6, 12));
+    }
+
+    @Test
+    public void dropWhile() {
+        Stream<Integer> integerStream = ParallelPrefixes.dropWhile(numbers, i -> i % 2 == 0);
+
+        assertThat(integerStream.collect(toList()), contains(3, 4, 2, 8, 4, 6));
+    }
+
+    @Test
+    public void noneOrAllMatching() {
+        assertThat(ParallelPrefixes.takeWhile(numbers, i -> i > 100).count(), is(equalTo(0L)));
+        assertThat(ParallelPrefixes.dropWhile(numbers, i -> i > 0).count(), is(equalTo(0L)));
+        assertThat(ParallelPrefixes.takeWhile(numbers, i -> i > 0).collect(toList()), is(equalTo(numbers)));
+        assertThat(ParallelPrefixes.prefixLength(new ArrayList<Integer>(), i -> false), is(equalTo(0)));
+    }
+
+    @Test
+    public void scansOnlyWhenTheTerminalOperationRuns() {
+        AtomicInteger tested = new AtomicInteger();
+        Stream<Integer> taken = ParallelPrefixes.takeWhile(numbers, i -> tested.incrementAndGet() > 0 && i % 2 == 0);
+        Stream<Integer> dropped = ParallelPrefixes.dropWhile(numbers, i -> tested.incrementAndGet() > 0 && i % 2 == 0);
+
+        assertThat(tested.get(), is(equalTo(0)));
+        assertThat(taken.count(), is(equalTo(3L)));
+        assertThat(dropped.count(), is(equalTo(6L)));
+    }
+
+    @Test
+    public void sequentialListsToo() {
+        assertThat(ParallelPrefixes.takeWhile(new LinkedList<>(numbers), i -> i % 2 == 0).collect(toList()), contains(2, 6, 12));
+    }
+
+    @Test
+    public void matchesTheJdkAtEveryCut() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int cut : new int[]{0, 1, 999, 5000, 9999, 10_000}) {
+                List<Integer> elements = IntStream.range(0, 10_000).map(i -> i == cut ? -1 : i).boxed().collect(toList());
+
+                List<Integer> taken = pool.submit(() -> ParallelPrefixes.takeWhile(elements, i -> i >= 0).collect(toList())).get();
+                List<Integer> dropped = pool.submit(() -> ParallelPrefixes.dropWhile(elements, i -> i >= 0).collect(toList())).get();
+
+                assertThat(taken, is(equalTo(elements.stream().takeWhile(i -> i >= 0).collect(toList()))));
+                assertThat(dropped, is(equalTo(elements.stream().dropWhile(i -> i >= 0).collect(toList()))));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void chunksAfterTheCutStopEarly() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        AtomicInteger tested = new AtomicInteger();
+        List<Integer> elements = IntStream.range(0, 1_000_000).boxed().collect(toList());
+        try {
+            int length = pool.submit(() -> ParallelPrefixes.prefixLength(elements, i -> {
+                tested.incrementAndGet();
+                return i < 10;
+            })).get();
+
+            assertThat(length, is(equalTo(10)));
+            assertThat(tested.get(), is(lessThan(500_000)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
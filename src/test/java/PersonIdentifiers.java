@@ -0,0 +1,88 @@
+import adrspo.stream.IdentifierStrategy;
+import adrspo.stream.Person;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PersonIdentifiers {
+
+    @Test
+    public void defaultIdentifierIsRandomUuid() {
+        Person person = new Person("Foo Bar");
+
+        assertThat(UUID.fromString(person.getIdentifier()).version(), is(equalTo(4)));
+        assertThat(person.getIdentifierUuid().toString(), is(equalTo(person.getIdentifier())));
+    }
+
+    @Test
+    public void explicitIdentifierIsKept() {
+        Person person = new Person("Foo Bar", "not-a-uuid");
+
+        assertThat(person.getIdentifier(), is(equalTo("not-a-uuid")));
+    }
+
+    @Test
+    public void everyStrategyProducesRandomUuids() {
+        for (IdentifierStrategy strategy : new IdentifierStrategy[]{
+                IdentifierStrategy.SECURE_RANDOM,
+                IdentifierStrategy.SECURE_RANDOM_BINARY,
+                IdentifierStrategy.THREAD_LOCAL_RANDOM,
+                IdentifierStrategy.lazy(IdentifierStrategy.THREAD_LOCAL_RANDOM)}) {
+            UUID identifier = UUID.fromString(new Person("Foo Bar", strategy).getIdentifier());
+
+            assertThat(identifier.version(), is(equalTo(4)));
+            assertThat(identifier.variant(), is(equalTo(2)));
+        }
+    }
+
+    @Test
+    public void threadLocalRandomIdentifiersAreUniqueInParallel() {
+        Set<String> identifiers = IntStream.range(0, 100000)
+                .parallel()
+                .mapToObj(i -> new Person("Foo Bar", IdentifierStrategy.THREAD_LOCAL_RANDOM).getIdentifier())
+                .collect(toSet());
+
+        assertThat(identifiers, hasSize(100000));
+    }
+
+    @Test
+    public void lazyIdentifierIsGeneratedOnceOnFirstRead() {
+        AtomicInteger generated = new AtomicInteger();
+        IdentifierStrategy counting = () -> {
+            generated.incrementAndGet();
+            return IdentifierStrategy.THREAD_LOCAL_RANDOM.next();
+        };
+
+        Person person = new Person("Foo Bar", IdentifierStrategy.lazy(counting));
+
+        assertThat(generated.get(), is(equalTo(0)));
+        String identifier = person.getIdentifier();
+        assertThat(person.getIdentifier(), is(sameInstance(identifier)));
+        assertThat(person.getIdentifierUuid().toString(), is(equalTo(identifier)));
+        assertThat(generated.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void defaultStrategyIsPluggable() {
+        AtomicInteger generated = new AtomicInteger();
+        try {
+            Person.setDefaultIdentifierStrategy(() -> {
+                generated.incrementAndGet();
+                return IdentifierStrategy.SECURE_RANDOM_BINARY.next();
+            });
+            Person person = new Person("Foo Bar");
+
+            assertThat(generated.get(), is(equalTo(1)));
+            assertThat(UUID.fromString(person.getIdentifier()).version(), is(equalTo(4)));
+        } finally {
+            Person.setDefaultIdentifierStrategy(IdentifierStrategy.SECURE_RANDOM);
+        }
+    }
+}
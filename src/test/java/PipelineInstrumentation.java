@@ -0,0 +1,153 @@
+import adrspo.stream.PipelineMetrics;
+import adrspo.stream.StageMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PipelineInstrumentation {
+
+    @Before
+    public void enable() {
+        PipelineMetrics.setEnabled(true);
+    }
+
+    @After
+    public void disable() {
+        PipelineMetrics.setEnabled(false);
+    }
+
+    @Test
+    public void countsElementsPerStage() {
+        PipelineMetrics metrics = PipelineMetrics.of("counts");
+        metrics.reset();
+
+        List<Integer> result = PipelineMetrics.instrument(IntStream.rangeClosed(1, 100).boxed(), "counts")
+                .filter(x -> x % 20 == 0)
+                .map(x -> x / 20)
+                .collect(toList());
+
+        assertThat(result, contains(1, 2, 3, 4, 5));
+        assertThat(metrics.getStage("0:filter").getInputCount(), is(equalTo(100L)));
+        assertThat(metrics.getStage("0:filter").getOutputCount(), is(equalTo(5L)));
+        assertThat(metrics.getStage("1:map").getInputCount(), is(equalTo(5L)));
+        assertThat(metrics.getStage("1:map").getOutputCount(), is(equalTo(5L)));
+        assertThat(metrics.getRuns(), is(equalTo(1L)));
+        assertThat(metrics.getLeafTasks(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void showsShortCircuitedPeek() {
+        PipelineMetrics metrics = PipelineMetrics.of("peekWithShortCircuit");
+        metrics.reset();
+        List<String> peeked = new ArrayList<>();
+
+        long count = PipelineMetrics.instrument(Stream.of("one", "two", "three", "four"), "peekWithShortCircuit")
+                .peek(peeked::add)
+                .count();
+
+        //count() of a SIZED pipeline never runs peek; the metrics make that visible
+        assertThat(count, is(equalTo(4L)));
+        assertThat(metrics.getStage("0:peek").getInputCount(), is(equalTo((long) peeked.size())));
+        assertThat(metrics.getRuns(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void countsStatefulAndShortCircuitStages() {
+        PipelineMetrics metrics = PipelineMetrics.of("stateful");
+        metrics.reset();
+
+        List<Integer> result = PipelineMetrics.instrument(Stream.of(3, 1, 2, 3, 1, 5, 4), "stateful")
+                .distinct()
+                .sorted()
+                .limit(3)
+                .collect(toList());
+
+        assertThat(result, contains(1, 2, 3));
+        assertThat(metrics.getStage("0:distinct").getInputCount(), is(equalTo(7L)));
+        assertThat(metrics.getStage("0:distinct").getOutputCount(), is(equalTo(5L)));
+        assertThat(metrics.getStage("2:limit").getOutputCount(), is(equalTo(3L)));
+    }
+
+    @Test
+    public void countsSplitsOfParallelRun() {
+        PipelineMetrics metrics = PipelineMetrics.of("parallel");
+        metrics.reset();
+
+        long sum = PipelineMetrics.instrument(IntStream.range(0, 100000).boxed(), "parallel")
+                .parallel()
+                .map(Integer::longValue)
+                .reduce(0L, Long::sum);
+
+        assertThat(sum, is(equalTo(4999950000L)));
+        assertThat(metrics.getStage("0:map").getInputCount(), is(equalTo(100000L)));
+        assertThat(metrics.getLeafTasks(), is(equalTo(metrics.getSplits() + 1)));
+    }
+
+    @Test
+    public void estimatesTimeAndAllocation() {
+        PipelineMetrics metrics = PipelineMetrics.of("estimates");
+        metrics.reset();
+
+        PipelineMetrics.instrument(IntStream.range(0, 100000).boxed(), "estimates")
+                .map(x -> new int[16])
+                .forEach(array -> {
+                });
+
+        StageMetrics map = metrics.getStage("0:map");
+        assertThat(map.getEstimatedNanos(), is(greaterThan(0L)));
+        assertThat(map.getEstimatedAllocatedBytes(), is(either(equalTo(-1L)).or(greaterThan(100000L * 16 * 4))));
+        assertThat(metrics.getTerminalNanos(), is(greaterThan(0L)));
+    }
+
+    @Test
+    public void keepsCountsOfThreadsThatHaveDied() throws InterruptedException {
+        PipelineMetrics metrics = PipelineMetrics.of("shortLivedThreads");
+        metrics.reset();
+
+        for (int i = 0; i < 20; i++) {
+            Thread thread = new Thread(() -> PipelineMetrics.instrument(IntStream.range(0, 1000).boxed(), "shortLivedThreads")
+                    .filter(x -> x % 2 == 0)
+                    .count());
+            thread.start();
+            thread.join();
+            System.gc();
+        }
+
+        assertThat(metrics.getStage("0:filter").getInputCount(), is(equalTo(20000L)));
+        assertThat(metrics.getStage("0:filter").getOutputCount(), is(equalTo(10000L)));
+    }
+
+    @Test
+    public void publishedOverJmx() throws Exception {
+        PipelineMetrics.instrument(Stream.of(1, 2, 3), "jmx").filter(x -> x > 1).count();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("adrspo.stream:type=Pipeline,name=" + ObjectName.quote("jmx"));
+        CompositeData[] stages = (CompositeData[]) server.getAttribute(name, "Stages");
+
+        assertThat(server.getAttribute(name, "Runs"), is(equalTo(1L)));
+        assertThat(stages[0].get("name"), is(equalTo("0:filter")));
+        assertThat(stages[0].get("outputCount"), is(equalTo(2L)));
+    }
+
+    @Test
+    public void disabledReturnsSourceUnchanged() {
+        PipelineMetrics.setEnabled(false);
+        Stream<Integer> source = Stream.of(1, 2, 3);
+
+        assertThat(PipelineMetrics.instrument(source, "disabled"), is(sameInstance(source)));
+    }
+}
@@ -0,0 +1,103 @@
+import adrspo.stream.IntArrayList;
+import adrspo.stream.IntCollectors;
+import adrspo.stream.IntHashSet;
+import adrspo.stream.IntLongHashMap;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PrimitiveCollectors {
+
+    @Test
+    public void toIntSetCollector() {
+        IntHashSet collectedStream = IntCollectors.toIntSet().collect(IntStream.of(1, 2, 2, 3, 4, 3));
+
+        assertThat(collectedStream.size(), is(equalTo(4)));
+        assertThat(collectedStream.stream().boxed().toArray(), arrayContainingInAnyOrder(1, 2, 3, 4));
+    }
+
+    @Test
+    public void toIntSetCollectorInParallel() {
+        IntHashSet collectedStream = IntCollectors.toIntSet().collect(IntStream.range(-50000, 50000).map(x -> x / 2).parallel());
+
+        assertThat(collectedStream.size(), is(equalTo(50000)));
+        assertThat(collectedStream.contains(-25000), is(true));
+        assertThat(collectedStream.contains(0), is(true));
+        assertThat(collectedStream.contains(25000), is(false));
+    }
+
+    @Test
+    public void toIntListCollector() {
+        IntArrayList collectedStream = IntCollectors.toIntList().collect(IntStream.rangeClosed(1, 1000).parallel());
+
+        assertThat(collectedStream.size(), is(equalTo(1000)));
+        assertThat(collectedStream.get(0), is(equalTo(1)));
+        assertThat(collectedStream.get(999), is(equalTo(1000)));
+    }
+
+    @Test
+    public void groupingByIntCountingCollector() {
+        IntLongHashMap wordsQuantityByLength = Stream.of("one", "two", "three", "four", "five")
+                .collect(IntCollectors.groupingByIntCounting(String::length));
+
+        assertThat(wordsQuantityByLength.size(), is(equalTo(3)));
+        assertThat(wordsQuantityByLength.get(3), is(equalTo(2L)));
+        assertThat(wordsQuantityByLength.get(4), is(equalTo(2L)));
+        assertThat(wordsQuantityByLength.get(5), is(equalTo(1L)));
+        assertThat(wordsQuantityByLength.containsKey(6), is(false));
+    }
+
+    @Test
+    public void groupingCountingCollectorInParallel() {
+        IntLongHashMap quantityByRemainder = IntCollectors.groupingCounting(x -> x % 7)
+                .collect(IntStream.range(0, 700000).parallel());
+
+        assertThat(quantityByRemainder.size(), is(equalTo(7)));
+        for (int remainder = 0; remainder < 7; remainder++) {
+            assertThat(quantityByRemainder.get(remainder), is(equalTo(100000L)));
+        }
+    }
+
+    @Test
+    public void groupingCountingCollectorWithManyKeys() {
+        IntLongHashMap quantityByValue = IntCollectors.groupingCounting(x -> x / 3)
+                .collect(IntStream.range(0, 300000).parallel());
+
+        assertThat(quantityByValue.size(), is(equalTo(100000)));
+        assertThat(quantityByValue.get(0), is(equalTo(3L)));
+        assertThat(quantityByValue.get(99999), is(equalTo(3L)));
+        assertThat(quantityByValue.getOrDefault(100000, -1L), is(equalTo(-1L)));
+    }
+
+    @Test
+    public void groupingSummingCollector() {
+        IntLongHashMap sumByEven = IntCollectors.groupingSumming(x -> x % 2)
+                .collect(IntStream.rangeClosed(1, 100000).parallel());
+
+        assertThat(sumByEven.get(0), is(equalTo(2500050000L)));
+        assertThat(sumByEven.get(1), is(equalTo(2500000000L)));
+    }
+
+    @Test
+    public void partitioningIntArraysCollector() {
+        Map<Boolean, int[]> numbersByEven = IntCollectors.partitioningIntArrays(x -> x % 2 == 0)
+                .collect(IntStream.of(1, 2, 3, 4, 5, 6, 7, 8));
+
+        assertThat(numbersByEven.get(Boolean.TRUE), is(equalTo(new int[]{2, 4, 6, 8})));
+        assertThat(numbersByEven.get(Boolean.FALSE), is(equalTo(new int[]{1, 3, 5, 7})));
+    }
+
+    @Test
+    public void partitioningCountingCollector() {
+        long[] numbersQuantityByEven = IntCollectors.partitioningCounting(x -> x % 2 == 0)
+                .collect(IntStream.of(1, 2, 3, 4, 5, 6, 7, 8, 9));
+
+        assertThat(numbersQuantityByEven[1], is(equalTo(4L)));
+        assertThat(numbersQuantityByEven[0], is(equalTo(5L)));
+    }
+}
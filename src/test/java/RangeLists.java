@@ -0,0 +1,99 @@
+import adrspo.stream.IntRangeList;
+import adrspo.stream.LongRangeList;
+import adrspo.stream.PrimitiveArrays;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RangeLists {
+
+    @Test
+    public void range() {
+        List<Integer> rangeIntegers = IntRangeList.range(0, 100);
+
+        assertThat(rangeIntegers, hasSize(100));
+        assertThat(rangeIntegers.get(0), is(equalTo(0)));
+        assertThat(rangeIntegers.get(99), is(equalTo(99)));
+        assertThat(rangeIntegers, is(equalTo(IntStream.range(0, 100).boxed().collect(toList()))));
+        assertThat(rangeIntegers.hashCode(), is(equalTo(IntStream.range(0, 100).boxed().collect(toList()).hashCode())));
+    }
+
+    @Test
+    public void rangeClosed() {
+        List<Long> rangeClosedLongs = LongRangeList.rangeClosed(1, 100);
+
+        assertThat(rangeClosedLongs, hasSize(100));
+        assertThat(rangeClosedLongs.get(0), is(equalTo(1L)));
+        assertThat(rangeClosedLongs.get(99), is(equalTo(100L)));
+        assertThat(rangeClosedLongs, is(equalTo(LongStream.rangeClosed(1, 100).boxed().collect(toList()))));
+    }
+
+    @Test
+    public void hugeRangesNeedNoMemory() {
+        IntRangeList all = IntRangeList.rangeClosed(1, Integer.MAX_VALUE);
+        LongRangeList high = LongRangeList.rangeClosed(Long.MAX_VALUE - 1_000_000_000, Long.MAX_VALUE);
+
+        assertThat(all.size(), is(equalTo(Integer.MAX_VALUE)));
+        assertThat(all.get(all.size() - 1), is(equalTo(Integer.MAX_VALUE)));
+        assertThat(all.contains(0), is(false));
+        assertThat(all.indexOf(1_000_001), is(equalTo(1_000_000)));
+        assertThat(high.get(1_000_000_000), is(equalTo(Long.MAX_VALUE)));
+        assertThat(high.contains(Long.MIN_VALUE), is(false));
+        assertThat(high.subList(999_999_990, high.size()).longStream().max().getAsLong(), is(equalTo(Long.MAX_VALUE)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangesBeyondAListAreRejected() {
+        LongRangeList.range(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void emptyAndSubLists() {
+        assertThat(IntRangeList.range(5, 5), is(empty()));
+        assertThat(LongRangeList.rangeClosed(5, 4), is(empty()));
+        assertThat(IntRangeList.range(0, 10).subList(3, 6), contains(3, 4, 5));
+        assertThat(IntRangeList.range(0, 10).subList(3, 6), is(equalTo(IntRangeList.range(3, 6))));
+        assertThat(LongRangeList.range(10, 20).subList(2, 4).toString(), is(equalTo("[12..13]")));
+    }
+
+    @Test
+    public void streamsSplitAndStaySized() {
+        Spliterator<Integer> spliterator = IntRangeList.range(0, 1000).spliterator();
+
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED), is(true));
+        assertThat(spliterator.trySplit().estimateSize(), is(equalTo(500L)));
+        assertThat(IntRangeList.range(0, 1000).parallelStream().mapToLong(x -> x).sum(), is(equalTo(499500L)));
+        assertThat(LongRangeList.range(0, 1000).stream().skip(998).collect(toList()), contains(998L, 999L));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void isImmutable() {
+        IntRangeList.range(0, 3).add(3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getChecksTheIndex() {
+        IntRangeList.range(0, 3).get(3);
+    }
+
+    @Test
+    public void collectsToPrimitiveArrays() {
+        List<Integer> boxed = new ArrayList<>(IntRangeList.range(0, 1000));
+
+        int[] presized = boxed.stream().collect(PrimitiveArrays.toIntArray(boxed.size()));
+        int[] growing = boxed.parallelStream().collect(PrimitiveArrays.toIntArray());
+        long[] longs = LongRangeList.range(0, 1000).stream().collect(PrimitiveArrays.toLongArray(1000));
+
+        assertThat(presized, is(equalTo(IntStream.range(0, 1000).toArray())));
+        assertThat(growing, is(equalTo(IntStream.range(0, 1000).toArray())));
+        assertThat(longs, is(equalTo(LongRangeList.range(0, 1000).toLongArray())));
+    }
+}
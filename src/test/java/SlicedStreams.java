@@ -0,0 +1,125 @@
+import adrspo.stream.IntRangeList;
+import adrspo.stream.MappedFileStreams;
+import adrspo.stream.Slicing;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SlicedStreams {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void skipAndLimit() {
+        List<String> words = Arrays.asList("one", "two", "three", "four", "five");
+
+        assertThat(Slicing.slice(words.stream(), 1, 3).collect(toList()), contains("two", "three", "four"));
+        assertThat(Slicing.slice(words.stream(), 3, 10).collect(toList()), contains("four", "five"));
+        assertThat(Slicing.slice(words.stream(), 5, 1).count(), is(equalTo(0L)));
+        assertThat(Slicing.slice(words.stream(), 0, Long.MAX_VALUE).count(), is(equalTo(5L)));
+    }
+
+    @Test
+    public void matchesSkipLimitOnEverySlice() {
+        Integer[] elements = IntStream.range(0, 37).boxed().toArray(Integer[]::new);
+
+        for (int skip = 0; skip <= 40; skip++) {
+            for (int limit = 0; limit <= 40; limit += 3) {
+                List<Integer> expected = Arrays.stream(elements).skip(skip).limit(limit).collect(toList());
+
+                assertThat(Slicing.slice(Arrays.stream(elements), skip, limit).collect(toList()), is(equalTo(expected)));
+                assertThat(Slicing.slice(Arrays.stream(elements).parallel(), skip, limit).collect(toList()), is(equalTo(expected)));
+            }
+        }
+    }
+
+    @Test
+    public void seeksWithoutTouchingSkippedElements() {
+        AtomicInteger mapped = new AtomicInteger();
+
+        //a pipeline with stages only splits, and so only seeks, when the caller made it parallel
+        List<Integer> page = Slicing.page(IntRangeList.range(0, 100_000_000).stream().parallel().map(x -> {
+            mapped.incrementAndGet();
+            return x;
+        }), 3_999_999, 25).collect(toList());
+
+        assertThat(page, is(equalTo(IntStream.range(100_000_000 - 25, 100_000_000).boxed().collect(toList()))));
+        assertThat(mapped.get(), is(equalTo(25)));
+    }
+
+    @Test
+    public void staysSizedForPresizedCollection() {
+        Spliterator<Integer> slice = Slicing.slice(new ArrayList<>(IntRangeList.range(0, 1000)).stream(), 100, 300).spliterator();
+
+        assertThat(slice.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED), is(true));
+        assertThat(slice.getExactSizeIfKnown(), is(equalTo(300L)));
+    }
+
+    @Test
+    public void intSlices() {
+        assertThat(Slicing.slice(IntStream.range(0, 1_000_000_000), 999_999_990, 5).toArray(),
+                is(equalTo(new int[]{999_999_990, 999_999_991, 999_999_992, 999_999_993, 999_999_994})));
+        assertThat(Slicing.slice(IntStream.range(0, 100).parallel(), 10, 80).sum(), is(equalTo(IntStream.range(10, 90).sum())));
+    }
+
+    @Test
+    public void mappedRecords() throws IOException {
+        Path file = folder.newFile("ints.bin").toPath();
+        try (OutputStream out = Files.newOutputStream(file); DataOutputStream data = new DataOutputStream(out)) {
+            for (int i = 0; i < 10_000; i++) {
+                data.writeInt(i * 3);
+            }
+        }
+
+        assertThat(Slicing.slice(new MappedFileStreams().ints(file), 9_998, 5).toArray(), is(equalTo(new int[]{29_994, 29_997})));
+    }
+
+    @Test
+    public void unsizedSourcesFallBack() {
+        Stream<Integer> filtered = IntStream.range(0, 100).boxed().filter(x -> x % 2 == 0);
+
+        assertThat(Slicing.slice(filtered, 10, 3).collect(toList()), contains(20, 22, 24));
+    }
+
+    @Test
+    public void sequentialPipelineWithStatefulStageStaysOnCallingThread() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<Integer> peeked = new ArrayList<>();
+
+        List<Integer> slice = Slicing.slice(IntStream.range(0, 200_000).boxed()
+                .peek(element -> threads.add(Thread.currentThread()))
+                .peek(peeked::add)
+                .sorted(Comparator.reverseOrder()), 10, 5)
+                .collect(toList());
+
+        assertThat(slice, contains(199_989, 199_988, 199_987, 199_986, 199_985));
+        assertThat(threads, contains(Thread.currentThread()));
+        assertThat(peeked.size(), is(equalTo(200_000)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSkipIsRejected() {
+        Slicing.slice(Stream.of(1), -1, 1);
+    }
+}
@@ -0,0 +1,107 @@
+import adrspo.stream.SplittableSources;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SplittableStreamSources {
+
+    @Test
+    public void randomLongsMatchSplittableRandom() {
+        assertThat(SplittableSources.randomLongs(1000, 42).toArray(), is(equalTo(new SplittableRandom(42).longs(1000).toArray())));
+    }
+
+    @Test
+    public void randomIntsMatchSplittableRandom() {
+        assertThat(SplittableSources.randomInts(1000, 42).toArray(), is(equalTo(new SplittableRandom(42).ints(1000).toArray())));
+    }
+
+    @Test
+    public void randomDoublesMatchSplittableRandom() {
+        assertThat(SplittableSources.randomDoubles(1000, 42).toArray(), is(equalTo(new SplittableRandom(42).doubles(1000).toArray())));
+    }
+
+    @Test
+    public void parallelRandomIsReproducible() {
+        assertThat(SplittableSources.randomInts(100000, 7).parallel().toArray(),
+                is(equalTo(SplittableSources.randomInts(100000, 7).toArray())));
+    }
+
+    @Test
+    public void boundedRandomInts() {
+        int[] dice = SplittableSources.randomInts(60000, 1, 7, 42).toArray();
+
+        assertThat(IntStream.of(dice).min().getAsInt(), is(equalTo(1)));
+        assertThat(IntStream.of(dice).max().getAsInt(), is(equalTo(6)));
+        assertThat(IntStream.of(dice).filter(face -> face == 6).count(), is(both(greaterThan(9000L)).and(lessThan(11000L))));
+    }
+
+    @Test
+    public void generate() {
+        List<String> generated = SplittableSources.generate(5, 42, random -> "id-" + (random & 0xFF)).collect(toList());
+
+        assertThat(generated, hasSize(5));
+        assertThat(SplittableSources.generate(5, 42, random -> "id-" + (random & 0xFF)).collect(toList()), is(equalTo(generated)));
+    }
+
+    @Test
+    public void iterate() {
+        Stream<Long> stream = SplittableSources.iterate(5, n -> 2L << n);
+
+        assertThat(stream.collect(toList()), contains(2L, 4L, 8L, 16L, 32L));
+    }
+
+    @Test
+    public void iterateSplitsLikeARange() {
+        Spliterator<Long> spliterator = SplittableSources.iterate(1 << 20, n -> n * n).parallel().spliterator();
+
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), is(true));
+        assertThat(spliterator.trySplit().estimateSize(), is(equalTo(1L << 19)));
+        assertThat(SplittableSources.iterateLongs(1000, n -> n * n).parallel().sum(), is(equalTo(332833500L)));
+    }
+
+    @Test
+    public void iteratorBatchesStartSmall() {
+        Spliterator<Integer> spliterator = SplittableSources.fromIterator(IntStream.range(0, 100).iterator()).spliterator();
+
+        assertThat(spliterator.trySplit().estimateSize(), is(equalTo(1L)));
+        assertThat(spliterator.trySplit().estimateSize(), is(equalTo(2L)));
+        assertThat(spliterator.trySplit().estimateSize(), is(equalTo(4L)));
+    }
+
+    @Test
+    public void iteratorBatchesCloseOnTime() {
+        Spliterator<Integer> spliterator = SplittableSources.fromIterator(IntStream.range(0, 1 << 20).iterator(), 1).spliterator();
+        for (int i = 0; i < 12; i++) {
+            spliterator.trySplit();
+        }
+
+        //a 1 ns budget closes the 4096 element batch at the first clock read
+        assertThat(spliterator.trySplit().estimateSize(), is(equalTo(64L)));
+    }
+
+    @Test
+    public void parallelStreamOverIterator() {
+        List<Integer> values = IntStream.range(0, 10000).boxed().collect(toList());
+        ConcurrentHashMap<Integer, Boolean> seen = new ConcurrentHashMap<>();
+
+        long sum = SplittableSources.fromIterator(values.iterator(), TimeUnit.MILLISECONDS.toNanos(1))
+                .parallel()
+                .peek(value -> seen.put(value, true))
+                .mapToLong(Integer::longValue)
+                .sum();
+
+        assertThat(sum, is(equalTo(49995000L)));
+        assertThat(seen.size(), is(equalTo(10000)));
+        assertThat(SplittableSources.fromIterator(values.iterator()).parallel().collect(toList()), is(equalTo(values)));
+    }
+}
@@ -316,15 +316,16 @@ public class StreamClassTraining {
 
     @Test
     public void reduceThreeArg() {
-        Integer sum = IntStream
+        //sum of 1..1000000 does not fit into an int, so the identity must be a Long
+        Long sum = IntStream
                 .rangeClosed(1, 1000000)
                 .mapToObj(Integer::toString)
                 .parallel()
-                .reduce(0,
-                        (x, y) -> x + Integer.parseInt(y),
-                        Integer::sum);
+                .reduce(0L,
+                        (x, y) -> x + Long.parseLong(y),
+                        Long::sum);
 
-        assertThat(sum, is(equalTo(17)));
+        assertThat(sum, is(equalTo(500000500000L)));
     }
 
     @Test
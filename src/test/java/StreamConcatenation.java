@@ -0,0 +1,116 @@
+import adrspo.stream.Concatenation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StreamConcatenation {
+
+    @Test
+    public void concatenatesInOrder() {
+        List<String> joined = Concatenation.concatAll(Arrays.asList(
+                Stream.of("one", "two"), Stream.<String>empty(), Stream.of("three"), Stream.of("four", "five")))
+                .collect(toList());
+
+        assertThat(joined, contains("one", "two", "three", "four", "five"));
+    }
+
+    @Test
+    public void concatenatesSpliterators() {
+        List<Integer> joined = Concatenation.concatAll(
+                Arrays.asList(1, 2).spliterator(), Arrays.asList(3).spliterator()).collect(toList());
+
+        assertThat(joined, contains(1, 2, 3));
+        assertThat(Concatenation.concatAll().count(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void tenThousandSourcesStayFlat() {
+        List<Stream<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            sources.add(Stream.of(i));
+        }
+
+        List<Integer> joined = Concatenation.concatAll(sources).collect(toList());
+
+        assertThat(joined, is(equalTo(IntStream.range(0, 10_000).boxed().collect(toList()))));
+    }
+
+    @Test
+    public void keepsSizedWhenEveryPartIs() {
+        Spliterator<Integer> sized = Concatenation.concatAll(Arrays.asList(
+                Stream.of(1, 2, 3), Arrays.asList(4, 5).stream())).spliterator();
+        Spliterator<Integer> unsized = Concatenation.concatAll(Arrays.asList(
+                Stream.of(1, 2, 3), Stream.iterate(4, x -> x + 1).limit(2))).spliterator();
+
+        assertThat(sized.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED), is(true));
+        assertThat(sized.getExactSizeIfKnown(), is(equalTo(5L)));
+        assertThat(unsized.hasCharacteristics(Spliterator.SIZED), is(false));
+    }
+
+    @Test
+    public void splitsNearHalfAcrossSourceBoundaries() {
+        List<Stream<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sources.add(IntStream.range(0, i % 2 == 0 ? 10 : 30).boxed());
+        }
+        Spliterator<Integer> suffix = Concatenation.concatAll(sources).spliterator();
+
+        Spliterator<Integer> prefix = suffix.trySplit();
+
+        assertThat(prefix.estimateSize() + suffix.estimateSize(), is(equalTo(2000L)));
+        assertThat(prefix.estimateSize(), is(both(greaterThanOrEqualTo(980L)).and(lessThanOrEqualTo(1020L))));
+    }
+
+    @Test
+    public void splitsInsideTheLastSource() {
+        Spliterator<Integer> suffix = Concatenation.concatAll(Arrays.asList(IntStream.range(0, 100).boxed().parallel())).spliterator();
+
+        Spliterator<Integer> prefix = suffix.trySplit();
+
+        assertThat(prefix.estimateSize(), is(equalTo(50L)));
+        assertThat(suffix.estimateSize(), is(equalTo(50L)));
+    }
+
+    @Test
+    public void parallelResultsMatchSequential() {
+        List<Stream<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            sources.add(IntStream.range(i * 100, (i + 1) * 100).boxed());
+        }
+
+        List<Integer> joined = Concatenation.concatAll(sources).parallel().map(x -> x * 2).collect(toList());
+
+        assertThat(joined, is(equalTo(IntStream.range(0, 100_000).map(x -> x * 2).boxed().collect(toList()))));
+    }
+
+    @Test
+    public void closesEverySource() {
+        AtomicInteger closed = new AtomicInteger();
+        List<Stream<Integer>> sources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sources.add(Stream.of(i).onClose(closed::incrementAndGet));
+        }
+        sources.add(Stream.of(5).onClose(() -> {
+            throw new IllegalStateException("close failed");
+        }));
+        sources.add(Stream.of(6).onClose(closed::incrementAndGet));
+
+        try (Stream<Integer> joined = Concatenation.concatAll(sources)) {
+            assertThat(joined.count(), is(equalTo(7L)));
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(equalTo("close failed")));
+        }
+
+        assertThat(closed.get(), is(equalTo(6)));
+    }
+}
@@ -0,0 +1,112 @@
+import adrspo.stream.MinMax;
+import adrspo.stream.SelectionCollectors.Nulls;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static adrspo.stream.SelectionCollectors.minMax;
+import static adrspo.stream.SelectionCollectors.topK;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TopKAndMinMax {
+
+    @Test
+    public void topKMatchesSortedLimit() {
+        List<Integer> values = randomIntegers(100000, 1000);
+
+        assertThat(values.stream().collect(topK(20, Comparator.reverseOrder())),
+                is(equalTo(values.stream().sorted(Comparator.reverseOrder()).limit(20).collect(toList()))));
+    }
+
+    @Test
+    public void parallelTopKMatchesSortedLimit() {
+        List<Integer> values = randomIntegers(100000, 1000);
+
+        assertThat(values.parallelStream().collect(topK(20, Comparator.naturalOrder())),
+                is(equalTo(values.stream().sorted().limit(20).collect(toList()))));
+    }
+
+    @Test
+    public void parallelTopKKeepsEncounterOrderOfTies() {
+        List<String> words = IntStream.range(0, 10000).mapToObj(i -> i % 7 + ":" + i).collect(toList());
+        Comparator<String> byBucket = Comparator.comparing(word -> word.substring(0, word.indexOf(':')));
+
+        assertThat(words.parallelStream().collect(topK(100, byBucket)),
+                is(equalTo(words.stream().sorted(byBucket).limit(100).collect(toList()))));
+    }
+
+    @Test
+    public void topKOfShortStream() {
+        assertThat(Stream.of(3, 1, 2).collect(topK(10, Comparator.naturalOrder())), contains(1, 2, 3));
+        assertThat(Stream.of(3, 1, 2).collect(topK(0, Comparator.naturalOrder())), is(empty()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeK() {
+        topK(-1, Comparator.naturalOrder());
+    }
+
+    @Test
+    public void minMaxInOnePass() {
+        MinMax<Integer> bounds = IntStream.rangeClosed(1, 100).boxed().collect(minMax(Integer::compare, Nulls.REJECT)).get();
+
+        assertThat(bounds.getMin(), is(equalTo(1)));
+        assertThat(bounds.getMax(), is(equalTo(100)));
+    }
+
+    @Test
+    public void parallelMinMax() {
+        List<Integer> values = randomIntegers(100000, Integer.MAX_VALUE);
+
+        MinMax<Integer> bounds = values.parallelStream().collect(minMax(Integer::compare, Nulls.REJECT)).get();
+
+        assertThat(bounds.getMin(), is(equalTo(Collections.min(values))));
+        assertThat(bounds.getMax(), is(equalTo(Collections.max(values))));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void minMaxRejectingNull() {
+        Stream.of(1, 2, 3, null).collect(minMax(Integer::compare, Nulls.REJECT));
+    }
+
+    @Test
+    public void minMaxSkippingNull() {
+        MinMax<Integer> bounds = Stream.of(-1, null, -2, -3).collect(minMax(Integer::compare, Nulls.SKIP)).get();
+
+        assertThat(bounds.getMin(), is(equalTo(-3)));
+        assertThat(bounds.getMax(), is(equalTo(-1)));
+    }
+
+    @Test
+    public void minMaxOrderingNull() {
+        MinMax<Integer> nullsFirst = Stream.of(1, 2, 3, null).collect(minMax(Integer::compare, Nulls.FIRST)).get();
+        MinMax<Integer> nullsLast = Stream.of(1, 2, 3, null).collect(minMax(Integer::compare, Nulls.LAST)).get();
+
+        assertThat(nullsFirst.getMin(), is(nullValue()));
+        assertThat(nullsFirst.getMax(), is(equalTo(3)));
+        assertThat(nullsLast.getMin(), is(equalTo(1)));
+        assertThat(nullsLast.getMax(), is(nullValue()));
+    }
+
+    @Test
+    public void minMaxOfEmptyStream() {
+        assertThat(Stream.<Integer>of((Integer) null).collect(minMax(Integer::compare, Nulls.SKIP)).isPresent(), is(false));
+    }
+
+    @Test
+    public void minMaxKeepsFirstOfTies() {
+        MinMax<String> bounds = Stream.of("bb", "a", "cc", "d").collect(minMax(Comparator.comparingInt(String::length), Nulls.REJECT)).get();
+
+        assertThat(bounds.getMin(), is(equalTo("a")));
+        assertThat(bounds.getMax(), is(equalTo("bb")));
+    }
+
+    private static List<Integer> randomIntegers(int size, int bound) {
+        Random random = new Random(42);
+        return IntStream.range(0, size).map(i -> random.nextInt(bound)).boxed().collect(toList());
+    }
+}